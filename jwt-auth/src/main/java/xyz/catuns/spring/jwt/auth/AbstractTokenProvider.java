@@ -1,70 +1,322 @@
 package xyz.catuns.spring.jwt.auth;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.JwtParserBuilder;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.MacAlgorithm;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.SecurityException;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.Setter;
+import xyz.catuns.spring.jwt.auth.crypto.HmacFastPathVerifier;
+import xyz.catuns.spring.jwt.auth.crypto.HmacTemplateSigner;
+import xyz.catuns.spring.jwt.auth.key.TokenKeys;
 import xyz.catuns.spring.jwt.core.TokenProvider;
 import xyz.catuns.spring.jwt.core.exception.MissingSecretException;
+import xyz.catuns.spring.jwt.core.exception.TokenRevokedException;
+import xyz.catuns.spring.jwt.core.exception.TokenScreeningException;
+import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
 import xyz.catuns.spring.jwt.core.model.JwtToken;
+import xyz.catuns.spring.jwt.core.model.ParsedToken;
+import xyz.catuns.spring.jwt.core.model.TokenResult;
+import xyz.catuns.spring.jwt.core.model.ValidationFailure;
+import xyz.catuns.spring.jwt.core.model.ValidationResult;
 
 import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PublicKey;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
+/**
+ * Base {@link TokenProvider} backed by jjwt
+ * <p>
+ * Signs with a shared HMAC secret or an asymmetric key pair, see {@link TokenKeys}.
+ * The signing key, its algorithm and the {@link JwtParser} are derived once at
+ * construction. All of them are immutable and thread-safe, so the hot path only
+ * pays for building, signing and parsing the token itself.
+ * <p>
+ * {@link #validate(String)} is implemented on top of {@link #parse(String)}, which
+ * verifies the token once and maps the origin type through {@link #mapPrincipal(Claims)}.
+ * HMAC tokens are verified by {@link HmacFastPathVerifier} first, falling back to the
+ * jjwt parser for anything it does not handle.
+ */
 public abstract class AbstractTokenProvider<T> implements TokenProvider<T> {
 
+    /**
+     * HMAC secret, null when constructed from {@link TokenKeys}
+     */
     protected final String secret;
     protected final Duration expiration;
 
+    /**
+     * Batches up to this size are generated on the calling thread
+     */
+    protected static final int PARALLEL_BATCH_THRESHOLD = 64;
+
+    private final TokenKeys keys;
+    private final SecureDigestAlgorithm<Key, ?> signatureAlgorithm;
+    private JwtParser parser;
+    private Duration allowedClockSkew = Duration.ZERO;
+    private final HmacFastPathVerifier fastPathVerifier;
+
     /**
      * Set customizer prior to token generation
      */
     @Setter
     protected JwtCustomizer<T> customizer = JwtCustomizer.withDefaults();
 
+    /**
+     * Sign and verify HMAC tokens on the fast path before falling back to jjwt
+     */
+    @Setter
+    protected boolean fastPathEnabled = true;
+
     public AbstractTokenProvider(String secret, Duration expiration) throws MissingSecretException {
-        if (secret == null || secret.isEmpty()) {
-            throw new MissingSecretException();
-        }
+        this(secret, TokenKeys.hmac(secret), expiration);
+    }
+
+    public AbstractTokenProvider(TokenKeys keys, Duration expiration) {
+        this(null, keys, expiration);
+    }
+
+    @SuppressWarnings("unchecked")
+    private AbstractTokenProvider(String secret, TokenKeys keys, Duration expiration) {
         this.secret = secret;
         this.expiration = expiration;
+        this.keys = keys;
+        this.signatureAlgorithm = (SecureDigestAlgorithm<Key, ?>) keys.getAlgorithm();
+        this.parser = buildParser(keys.getVerificationKey(), allowedClockSkew);
+        this.fastPathVerifier = keys.isSymmetric()
+                ? new HmacFastPathVerifier((SecretKey) keys.getVerificationKey(), (MacAlgorithm) keys.getAlgorithm())
+                : null;
     }
 
     @Override
     public JwtToken generate(T claims) {
+        if (!keys.canSign()) {
+            throw new IllegalStateException("Token provider holds no signing key");
+        }
+        return generate(claims, Instant.now());
+    }
+
+    /**
+     * Splits batches larger than {@link #PARALLEL_BATCH_THRESHOLD} across the common
+     * fork-join pool. Every token is issued at the same instant.
+     */
+    @Override
+    public List<TokenResult<JwtToken>> generateAll(Collection<T> claims) {
+        if (!keys.canSign()) {
+            throw new IllegalStateException("Token provider holds no signing key");
+        }
         Instant now = Instant.now();
+        List<T> items = new ArrayList<>(claims);
+        @SuppressWarnings("unchecked")
+        TokenResult<JwtToken>[] results = new TokenResult[items.size()];
+        IntStream indices = IntStream.range(0, items.size());
+        if (items.size() > PARALLEL_BATCH_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> {
+            try {
+                results[i] = TokenResult.success(generate(items.get(i), now));
+            } catch (RuntimeException e) {
+                results[i] = TokenResult.failure(e);
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Generates a token issued at {@code now}
+     */
+    protected JwtToken generate(T claims, Instant now) {
         Instant expiration = now.plus(this.expiration);
-        JwtBuilder jwtBuilder = Jwts.builder();
-        customizer.customize(jwtBuilder, claims);
-        String token = jwtBuilder.issuedAt(Date.from(now))
-                .expiration(Date.from(expiration))
-                .signWith(getSecretKey())
-                .compact();
+        String token = fastPathEnabled ? generateFast(claims, now, expiration) : null;
+        if (token == null) {
+            JwtBuilder jwtBuilder = Jwts.builder();
+            customizer.customize(jwtBuilder, claims);
+            token = jwtBuilder.issuedAt(Date.from(now))
+                    .expiration(Date.from(expiration))
+                    .signWith(keys.getSigningKey(), signatureAlgorithm)
+                    .compact();
+        }
 
         return new JwtToken(token, expiration, now);
 
     }
 
+    /**
+     * Signs without the jjwt builder, e.g. through a {@link HmacTemplateSigner}
+     * <p>
+     * Must produce the same token the customizer would, {@code iat} and {@code exp}
+     * in epoch seconds written last.
+     *
+     * @return compact token, or null to build it with jjwt
+     */
+    protected String generateFast(T claims, Instant issuedAt, Instant expiration) {
+        return null;
+    }
+
+    /**
+     * Template signer for the HMAC key, null when signing with a key pair
+     *
+     * @param staticClaims string claims shared by every token, in payload order
+     */
+    protected HmacTemplateSigner createTemplateSigner(Map<String, String> staticClaims) {
+        SecretKey secretKey = getSecretKey();
+        return secretKey == null
+                ? null
+                : new HmacTemplateSigner(secretKey, (MacAlgorithm) keys.getAlgorithm(), staticClaims);
+    }
+
+    @Override
+    public T validate(String token) throws TokenValidationException {
+        return parse(token).principal();
+    }
+
+    @Override
+    public ParsedToken<T> parse(String token) throws TokenValidationException {
+        Claims claims = getClaims(token);
+        return new ParsedToken<>(claims,
+                toInstant(claims.getExpiration()),
+                toInstant(claims.getIssuedAt()),
+                mapPrincipal(claims));
+    }
+
+    /**
+     * Fans out over the common fork-join pool like {@link #generateAll(Collection)},
+     * each token going through {@link #parse(String)} with the shared key and parser
+     */
+    @Override
+    public List<ValidationResult<T>> validateAll(List<String> tokens) {
+        @SuppressWarnings("unchecked")
+        ValidationResult<T>[] results = new ValidationResult[tokens.size()];
+        IntStream indices = IntStream.range(0, tokens.size());
+        if (tokens.size() > PARALLEL_BATCH_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> {
+            try {
+                results[i] = ValidationResult.valid(parse(tokens.get(i)).principal());
+            } catch (Exception e) {
+                results[i] = ValidationResult.invalid(classify(e), e);
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Tells the jjwt exceptions apart as well
+     */
+    @Override
+    public ValidationFailure classify(Exception e) {
+        if (e instanceof TokenRevokedException) {
+            return ValidationFailure.REVOKED;
+        } else if (e instanceof TokenScreeningException screening) {
+            return screening.getFailure().getValidationFailure();
+        } else if (e instanceof ExpiredJwtException) {
+            return ValidationFailure.EXPIRED;
+        } else if (e instanceof SignatureException) {
+            return ValidationFailure.INVALID_SIGNATURE;
+        } else if (e instanceof MalformedJwtException || e instanceof IllegalArgumentException) {
+            return ValidationFailure.MALFORMED;
+        } else if (e instanceof UnsupportedJwtException || e instanceof SecurityException) {
+            return ValidationFailure.UNSUPPORTED;
+        } else if (e instanceof TokenValidationException || e instanceof JwtException) {
+            return ValidationFailure.REJECTED;
+        }
+        return ValidationFailure.ERROR;
+    }
+
+    /**
+     * Maps verified claims to the origin type
+     *
+     * @param claims verified claims
+     * @return {@link T} the origin type
+     * @throws TokenValidationException if the claims are rejected
+     */
+    protected abstract T mapPrincipal(Claims claims) throws TokenValidationException;
+
     @Override
     public Claims getClaims(String token) {
-        SecretKey secretKey = this.getSecretKey();
-        return Jwts.parser().verifyWith(secretKey).build()
-                .parseSignedClaims(token).getPayload();
+        if (fastPathEnabled && fastPathVerifier != null) {
+            Claims claims = fastPathVerifier.verify(token);
+            if (claims != null) {
+                return claims;
+            }
+        }
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     @Override
     public boolean isExpired(String token) {
         Claims claims = this.getClaims(token);
         Date expiration = claims.getExpiration();
-        return Instant.now().isAfter(expiration.toInstant());
+        return Instant.now().minus(allowedClockSkew).isAfter(expiration.toInstant());
     }
 
+    @Override
+    public Duration getAllowedClockSkew() {
+        return this.allowedClockSkew;
+    }
+
+    /**
+     * Set leeway for {@code exp} and {@code nbf}, applied by the parser and the fast path
+     * in whole seconds as jjwt does
+     * Default: none
+     */
+    public void setAllowedClockSkew(Duration allowedClockSkew) {
+        this.allowedClockSkew = Duration.ofSeconds(allowedClockSkew.toSeconds());
+        this.parser = buildParser(keys.getVerificationKey(), this.allowedClockSkew);
+        if (fastPathVerifier != null) {
+            fastPathVerifier.setAllowedClockSkew(this.allowedClockSkew);
+        }
+    }
+
+    /**
+     * HMAC key, null when signing with a key pair
+     */
     protected SecretKey getSecretKey() {
-        return Keys.hmacShaKeyFor(this.secret.getBytes(StandardCharsets.UTF_8));
+        return keys.getVerificationKey() instanceof SecretKey secretKey ? secretKey : null;
+    }
+
+    protected TokenKeys getKeys() {
+        return this.keys;
+    }
+
+    /**
+     * Parser verifying with {@link TokenKeys#getVerificationKey()}
+     */
+    protected JwtParser getParser() {
+        return this.parser;
+    }
+
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
+    }
+
+    private static JwtParser buildParser(Key verificationKey, Duration allowedClockSkew) {
+        JwtParserBuilder builder = Jwts.parser().clockSkewSeconds(allowedClockSkew.toSeconds());
+        if (verificationKey instanceof SecretKey secretKey) {
+            builder.verifyWith(secretKey);
+        } else {
+            builder.verifyWith((PublicKey) verificationKey);
+        }
+        return builder.build();
     }
 
 }
@@ -3,32 +3,62 @@ package xyz.catuns.spring.jwt.auth;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.lang.Strings;
+import lombok.Getter;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
+import xyz.catuns.spring.jwt.auth.authority.AuthorityDictionary;
+import xyz.catuns.spring.jwt.auth.cache.AuthorityListCache;
+import xyz.catuns.spring.jwt.auth.cache.RejectedTokenCache;
+import xyz.catuns.spring.jwt.auth.cache.VerifiedTokenCache;
+import xyz.catuns.spring.jwt.auth.claims.ClaimProjection;
+import xyz.catuns.spring.jwt.auth.crypto.HmacTemplateSigner;
+import xyz.catuns.spring.jwt.auth.key.TokenKeys;
 import xyz.catuns.spring.jwt.core.exception.MissingSecretException;
+import xyz.catuns.spring.jwt.core.exception.TokenRevokedException;
 import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
 import xyz.catuns.spring.jwt.core.model.JwtToken;
+import xyz.catuns.spring.jwt.core.model.ParsedToken;
+import xyz.catuns.spring.jwt.core.revocation.TokenVersionRegistry;
 import xyz.catuns.spring.jwt.core.validator.TokenValidator;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
- * Creates {@link Authentication} from secret string
+ * Creates {@link Authentication} from secret string or {@link TokenKeys}
  * <p>
  * Override {@link AuthTokenProvider#setCustomizer(JwtCustomizer)} to extend generator
  * Override {@link AuthTokenProvider#setValidator(TokenValidator)} to extend validator
+ * Set {@link AuthTokenProvider#setTokenCache(VerifiedTokenCache)} to reuse verified tokens until they expire
+ * Set {@link AuthTokenProvider#setRejectedTokenCache(RejectedTokenCache)} to reject retried bad tokens with one lookup
+ * Set {@link AuthTokenProvider#setAuthorityDictionary(AuthorityDictionary)} to encode authorities as a bitset
+ * Set {@link AuthTokenProvider#setAuthorityCache(AuthorityListCache)} to share decoded authority lists
+ * Set {@link AuthTokenProvider#setClaimProjection(ClaimProjection)} to write principal attributes as claims
+ * Set {@link AuthTokenProvider#setTokenIdGenerator(Supplier)} to write a {@code jti} claim, e.g. for revocation
+ * Set {@link AuthTokenProvider#setTokenVersionRegistry(TokenVersionRegistry)} to reject tokens of superseded versions
  */
+@Slf4j
 public class AuthTokenProvider extends AbstractTokenProvider<Authentication> {
 
     public static final String AUTHORITIES_CLAIM_KEY = "authorities";
+    public static final String AUTHORITY_BITS_CLAIM_KEY = "authority_bits";
     public static final String USER_CLAIM_KEY = "user";
+    public static final String TOKEN_VERSION_CLAIM_KEY = "ver";
 
     private final String issuer;
+    private final JwtCustomizer<Authentication> defaultCustomizer = this::customizeDefaults;
+    private final HmacTemplateSigner templateSigner;
 
     /**
      * Set customizer prior to token generation
@@ -36,26 +66,223 @@ public class AuthTokenProvider extends AbstractTokenProvider<Authentication> {
     @Setter
     private TokenValidator<Claims> validator = TokenValidator.withDefaults();
 
+    /**
+     * Optional cache of verified tokens, disabled when null
+     */
+    @Getter
+    @Setter
+    private VerifiedTokenCache<Authentication> tokenCache;
+
+    /**
+     * Optional cache of recently rejected tokens, disabled when null
+     */
+    @Getter
+    @Setter
+    private RejectedTokenCache rejectedTokenCache;
+
+    /**
+     * Optional dictionary encoding authorities as {@link #AUTHORITY_BITS_CLAIM_KEY},
+     * authorities missing from it are written as the comma separated {@link #AUTHORITIES_CLAIM_KEY}
+     */
+    @Getter
+    @Setter
+    private AuthorityDictionary authorityDictionary;
+
+    /**
+     * Optional cache of decoded {@link #AUTHORITIES_CLAIM_KEY} values, disabled when null
+     */
+    @Getter
+    @Setter
+    private AuthorityListCache authorityCache;
+
+    /**
+     * Principal attributes written next to the username, the principal itself is never serialized
+     */
+    @Getter
+    @Setter
+    private ClaimProjection claimProjection = ClaimProjection.none();
+
+    /**
+     * Generates the {@code jti} claim, omitted when null
+     */
+    @Getter
+    @Setter
+    private Supplier<String> tokenIdGenerator;
+
+    /**
+     * Optional per-user version written as {@link #TOKEN_VERSION_CLAIM_KEY} and checked on every
+     * validation, tokens without the claim count as version {@code 0}
+     */
+    @Getter
+    @Setter
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    /**
+     * Log a warning for tokens longer than this many bytes, disabled when not positive
+     */
+    @Getter
+    @Setter
+    private int tokenSizeBudget;
+
     public AuthTokenProvider(String secret, String issuer, Duration expiration) throws MissingSecretException {
         super(secret, expiration);
         this.issuer = issuer;
-        this.setCustomizer((jwt, auth) -> {
+        this.templateSigner = createTemplateSigner(issuerClaim(issuer));
+        this.setCustomizer(defaultCustomizer);
+    }
+
+    public AuthTokenProvider(TokenKeys keys, String issuer, Duration expiration) {
+        super(keys, expiration);
+        this.issuer = issuer;
+        this.templateSigner = createTemplateSigner(issuerClaim(issuer));
+        this.setCustomizer(defaultCustomizer);
+    }
+
+    private void customizeDefaults(JwtBuilder jwt, Authentication auth) {
+        String authorityBits = encodeAuthorities(auth);
+        jwt.issuer(this.issuer)
+            .subject(auth.getName())
+            .id(nextTokenId())
+            .claim(USER_CLAIM_KEY, auth.getName());
+        claimProjection.project(auth.getPrincipal(), jwt::claim);
+        if (authorityBits != null) {
+            jwt.claim(AUTHORITY_BITS_CLAIM_KEY, authorityBits);
+        } else {
             Set<String> authoritiesList = AuthorityUtils.authorityListToSet(auth.getAuthorities());
-            jwt.issuer(this.issuer)
-                .subject(auth.getName())
-                .claim(USER_CLAIM_KEY, auth.getPrincipal())
-                .claim(AUTHORITIES_CLAIM_KEY, String.join(",", authoritiesList));
+            jwt.claim(AUTHORITIES_CLAIM_KEY, String.join(",", authoritiesList));
+        }
+        jwt.claim(TOKEN_VERSION_CLAIM_KEY, tokenVersion(auth));
+    }
+
+    private String nextTokenId() {
+        Supplier<String> generator = this.tokenIdGenerator;
+        return generator == null ? null : generator.get();
+    }
+
+    private Long tokenVersion(Authentication auth) {
+        TokenVersionRegistry registry = this.tokenVersionRegistry;
+        return registry == null ? null : registry.currentVersion(auth.getName());
+    }
+
+    private String encodeAuthorities(Authentication auth) {
+        AuthorityDictionary dictionary = this.authorityDictionary;
+        return dictionary == null ? null : dictionary.encode(auth.getAuthorities());
+    }
+
+    /**
+     * Streams the default claims into the {@link HmacTemplateSigner}, the issuer being
+     * part of its static prefix. Registered claims without text are dropped like jjwt drops them.
+     */
+    @Override
+    protected String generateFast(Authentication auth, Instant issuedAt, Instant expiration) {
+        if (templateSigner == null || customizer != defaultCustomizer) {
+            return null;
+        }
+        String username = auth.getName();
+        String subject = registered(username);
+        String tokenId = registered(nextTokenId());
+        String authorityBits = encodeAuthorities(auth);
+        String authorities = authorityBits == null
+                ? String.join(",", AuthorityUtils.authorityListToSet(auth.getAuthorities()))
+                : null;
+        Long tokenVersion = tokenVersion(auth);
+        return templateSigner.sign(payload -> {
+            payload.string(Claims.SUBJECT, subject)
+                    .string(Claims.ID, tokenId)
+                    .string(USER_CLAIM_KEY, username);
+            claimProjection.project(auth.getPrincipal(), payload::string);
+            payload.string(AUTHORITY_BITS_CLAIM_KEY, authorityBits)
+                    .string(AUTHORITIES_CLAIM_KEY, authorities);
+            if (tokenVersion != null) {
+                payload.number(TOKEN_VERSION_CLAIM_KEY, tokenVersion);
+            }
+            payload.number(Claims.ISSUED_AT, issuedAt.getEpochSecond())
+                    .number(Claims.EXPIRATION, expiration.getEpochSecond());
         });
     }
 
     @Override
-    public Authentication validate(String token) throws TokenValidationException {
-        Claims claims = getClaims(token);
+    protected JwtToken generate(Authentication auth, Instant now) {
+        JwtToken token = super.generate(auth, now);
+        if (tokenSizeBudget > 0 && token.value().length() > tokenSizeBudget) {
+            log.warn("Token for {} is {} bytes, over the budget of {} bytes",
+                    auth.getName(), token.value().length(), tokenSizeBudget);
+        }
+        return token;
+    }
+
+    private static String registered(String value) {
+        return Strings.hasText(value) ? value : null;
+    }
+
+    private static Map<String, String> issuerClaim(String issuer) {
+        Map<String, String> claims = new LinkedHashMap<>();
+        claims.put(Claims.ISSUER, registered(issuer));
+        return claims;
+    }
+
+    @Override
+    public ParsedToken<Authentication> parse(String token) throws TokenValidationException {
+        RejectedTokenCache rejected = this.rejectedTokenCache;
+        if (rejected == null || token == null) {
+            return verify(token);
+        }
+        rejected.check(token);
+        try {
+            return verify(token);
+        } catch (TokenValidationException | RuntimeException e) {
+            rejected.put(token, e);
+            throw e;
+        }
+    }
+
+    private ParsedToken<Authentication> verify(String token) throws TokenValidationException {
+        ParsedToken<Authentication> parsed = tokenCache == null || token == null
+                ? super.parse(token)
+                : tokenCache.get(token, super::parse);
+        checkTokenVersion(parsed);
+        return parsed;
+    }
+
+    /**
+     * Runs after the verified token cache, so a bump also rejects tokens cached before it
+     */
+    private void checkTokenVersion(ParsedToken<Authentication> parsed) throws TokenValidationException {
+        TokenVersionRegistry registry = this.tokenVersionRegistry;
+        if (registry == null) {
+            return;
+        }
+        long tokenVersion = parsed.claims().get(TOKEN_VERSION_CLAIM_KEY) instanceof Number version
+                ? version.longValue()
+                : 0L;
+        String username = parsed.principal().getName();
+        if (tokenVersion < registry.currentVersion(username)) {
+            throw new TokenRevokedException("Token version " + tokenVersion + " of " + username + " is superseded");
+        }
+    }
+
+    @Override
+    protected Authentication mapPrincipal(Claims claims) throws TokenValidationException {
         String username = String.valueOf(claims.get(USER_CLAIM_KEY));
-        String authorities = String.valueOf(claims.get(AUTHORITIES_CLAIM_KEY));
         validator.validate(claims);
-        return new UsernamePasswordAuthenticationToken(username, null,
-                AuthorityUtils.commaSeparatedStringToAuthorityList(authorities));
+        return new UsernamePasswordAuthenticationToken(username, null, mapAuthorities(claims));
+    }
+
+    /**
+     * Reads dictionary encoded authorities, or the comma separated ones of tokens issued without a dictionary
+     */
+    protected List<GrantedAuthority> mapAuthorities(Claims claims) throws TokenValidationException {
+        if (claims.get(AUTHORITY_BITS_CLAIM_KEY) instanceof String authorityBits) {
+            if (authorityDictionary == null) {
+                throw new TokenValidationException("No authority dictionary to decode " + AUTHORITY_BITS_CLAIM_KEY);
+            }
+            return authorityDictionary.decode(authorityBits);
+        }
+        String authorities = String.valueOf(claims.get(AUTHORITIES_CLAIM_KEY));
+        AuthorityListCache cache = this.authorityCache;
+        return cache == null
+                ? AuthorityUtils.commaSeparatedStringToAuthorityList(authorities)
+                : cache.get(authorities);
     }
 
 }
@@ -0,0 +1,154 @@
+package xyz.catuns.spring.jwt.auth.authority;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
+import xyz.catuns.spring.jwt.core.util.Base64Url;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary of authority names, encoding a set of authorities as a bitset
+ * <p>
+ * The claim value is {@code <fingerprint>.<base64url bitset>}, bit {@code i} standing for
+ * the {@code i}-th name. Decoding yields shared immutable {@link GrantedAuthority}
+ * instances, so no authority is allocated per request.
+ * <p>
+ * The fingerprint is the first 32 bits of the SHA-256 digest of the names in order, in
+ * base64url. Instances with the same names agree on it without any configuration, and
+ * any change of the names, e.g. a role deleted or reinserted, changes it. Tokens of
+ * another fingerprint are rejected instead of being decoded against shifted positions,
+ * their holders log in again.
+ */
+public final class AuthorityDictionary {
+
+    private static final int FINGERPRINT_BYTES = 4;
+
+    @Getter
+    private final String fingerprint;
+    private final List<GrantedAuthority> authorities;
+    private final Map<String, Integer> indices;
+
+    private AuthorityDictionary(List<String> names) {
+        List<GrantedAuthority> authorities = new ArrayList<>(names.size());
+        Map<String, Integer> indices = new HashMap<>();
+        for (String name : names) {
+            if (indices.putIfAbsent(name, authorities.size()) != null) {
+                throw new IllegalArgumentException("Duplicate authority " + name);
+            }
+            authorities.add(new SimpleGrantedAuthority(name));
+        }
+        this.fingerprint = fingerprint(names);
+        this.authorities = Collections.unmodifiableList(authorities);
+        this.indices = indices;
+    }
+
+    /**
+     * @param names authority names, the position being the bit index
+     */
+    public static AuthorityDictionary of(List<String> names) {
+        return new AuthorityDictionary(List.copyOf(names));
+    }
+
+    /**
+     * Dictionary of the given authorities in iteration order, e.g. {@code RoleEntity}s ordered by id
+     */
+    public static AuthorityDictionary fromAuthorities(Collection<? extends GrantedAuthority> authorities) {
+        return new AuthorityDictionary(authorities.stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    /**
+     * Shared authorities in index order
+     */
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * Encodes authorities as a claim value
+     *
+     * @return encoded claim, or null if an authority is not in the dictionary
+     */
+    public String encode(Collection<? extends GrantedAuthority> granted) {
+        byte[] bits = new byte[(authorities.size() + 7) >>> 3];
+        for (GrantedAuthority authority : granted) {
+            Integer index = indices.get(authority.getAuthority());
+            if (index == null) {
+                return null;
+            }
+            bits[index >>> 3] |= (byte) (1 << (index & 7));
+        }
+        int length = bits.length;
+        while (length > 0 && bits[length - 1] == 0) {
+            length--;
+        }
+        byte[] encoded = new byte[Base64Url.encodedLength(length)];
+        Base64Url.encode(bits, 0, length, encoded, 0);
+        return fingerprint + "." + new String(encoded, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Decodes a claim value written by {@link #encode(Collection)}
+     *
+     * @return immutable list of shared authorities
+     * @throws TokenValidationException if the value is malformed or encoded with other names
+     */
+    public List<GrantedAuthority> decode(String claim) throws TokenValidationException {
+        int dot = claim.indexOf('.');
+        if (dot < 0) {
+            throw new TokenValidationException("Malformed authority claim");
+        }
+        if (dot != fingerprint.length() || !claim.startsWith(fingerprint)) {
+            throw new TokenValidationException("Authority claim of another dictionary");
+        }
+        int length = Base64Url.decodedLength(claim.length() - dot - 1);
+        byte[] bits = new byte[Math.max(length, 0)];
+        if (length < 0 || Base64Url.decode(claim, dot + 1, claim.length(), bits) < 0) {
+            throw new TokenValidationException("Malformed authority claim");
+        }
+
+        List<GrantedAuthority> granted = new ArrayList<>();
+        for (int i = 0; i < bits.length; i++) {
+            int b = bits[i] & 0xFF;
+            while (b != 0) {
+                int index = (i << 3) + Integer.numberOfTrailingZeros(b);
+                if (index >= authorities.size()) {
+                    throw new TokenValidationException("Unknown authority index " + index);
+                }
+                granted.add(authorities.get(index));
+                b &= b - 1;
+            }
+        }
+        return Collections.unmodifiableList(granted);
+    }
+
+    private static String fingerprint(List<String> names) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (String name : names) {
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        byte[] encoded = new byte[Base64Url.encodedLength(FINGERPRINT_BYTES)];
+        Base64Url.encode(digest.digest(), 0, FINGERPRINT_BYTES, encoded, 0);
+        return new String(encoded, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public String toString() {
+        return "AuthorityDictionary(fingerprint=" + fingerprint + ", size=" + authorities.size() + ")";
+    }
+}
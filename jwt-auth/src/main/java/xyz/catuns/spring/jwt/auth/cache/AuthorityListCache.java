@@ -0,0 +1,61 @@
+package xyz.catuns.spring.jwt.auth.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+
+/**
+ * Bounded cache from a raw comma separated authorities claim to its authority list
+ * <p>
+ * Tokens carry few distinct authority combinations, so decoding becomes a map lookup
+ * and concurrent {@link org.springframework.security.core.Authentication}s share the
+ * same immutable {@link GrantedAuthority} instances.
+ */
+public class AuthorityListCache {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 1_000;
+
+    private final Cache<String, List<GrantedAuthority>> cache;
+
+    public AuthorityListCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public AuthorityListCache(long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param authorities comma separated authorities claim
+     * @return immutable authority list
+     */
+    public List<GrantedAuthority> get(String authorities) {
+        return cache.get(authorities, AuthorityListCache::decode);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Hit, miss, load and eviction statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private static List<GrantedAuthority> decode(String authorities) {
+        return List.copyOf(AuthorityUtils.commaSeparatedStringToAuthorityList(authorities));
+    }
+}
@@ -0,0 +1,151 @@
+package xyz.catuns.spring.jwt.auth.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SecurityException;
+import io.jsonwebtoken.security.SignatureException;
+import xyz.catuns.spring.jwt.core.exception.TokenRevokedException;
+import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
+import xyz.catuns.spring.jwt.core.model.ValidationFailure;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+
+/**
+ * Bounded, time-limited cache of recently rejected tokens
+ * <p>
+ * Clients retrying the same bad token are rejected with one digest lookup instead of
+ * a full verification. Entries are keyed by the first 128 bits of the token's SHA-256
+ * digest and hold only the {@link ValidationFailure}, neither the token nor the
+ * exception it was rejected with. Every hit throws a new exception of the same type
+ * the verification threw, e.g. {@link ExpiredJwtException} for expired tokens, with
+ * a generic message.
+ * <p>
+ * Only failures that stay failures are remembered: bad signatures, malformed, expired
+ * or superseded tokens and rejected claims. Tokens that are not valid yet are not.
+ */
+public class RejectedTokenCache {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 1_000;
+    public static final Duration DEFAULT_EXPIRE_AFTER = Duration.ofMinutes(1);
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(RejectedTokenCache::sha256);
+
+    private final Cache<Fingerprint, ValidationFailure> cache;
+
+    public RejectedTokenCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_EXPIRE_AFTER);
+    }
+
+    /**
+     * @param maximumSize maximum number of remembered tokens
+     * @param expireAfter how long a rejection is remembered
+     */
+    public RejectedTokenCache(long maximumSize, Duration expireAfter) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfter)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Rejects a recently rejected token again, with a new exception of the original type
+     *
+     * @param token token value
+     * @throws TokenValidationException when the token was rejected with a {@link TokenValidationException}
+     */
+    public void check(String token) throws TokenValidationException {
+        ValidationFailure failure = cache.getIfPresent(Fingerprint.of(token));
+        if (failure == null) {
+            return;
+        }
+        String message = "Token was rejected recently: " + failure;
+        switch (failure) {
+            case EXPIRED -> throw new ExpiredJwtException(null, null, message);
+            case INVALID_SIGNATURE -> throw new SignatureException(message);
+            case MALFORMED -> throw new MalformedJwtException(message);
+            case UNSUPPORTED -> throw new UnsupportedJwtException(message);
+            case REVOKED -> throw new TokenRevokedException(message);
+            default -> throw new TokenValidationException(message);
+        }
+    }
+
+    /**
+     * Remembers the kind of failure if it is permanent for the token
+     *
+     * @param token   rejected token
+     * @param failure exception the token was rejected with
+     */
+    public void put(String token, Exception failure) {
+        ValidationFailure kind = permanentFailure(failure);
+        if (kind != null) {
+            cache.put(Fingerprint.of(token), kind);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Hit, miss and eviction statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * @return kind of a failure that stays a failure, null for any other
+     */
+    private static ValidationFailure permanentFailure(Exception failure) {
+        if (failure instanceof PrematureJwtException) {
+            return null;
+        } else if (failure instanceof TokenRevokedException) {
+            return ValidationFailure.REVOKED;
+        } else if (failure instanceof ExpiredJwtException) {
+            return ValidationFailure.EXPIRED;
+        } else if (failure instanceof SignatureException) {
+            return ValidationFailure.INVALID_SIGNATURE;
+        } else if (failure instanceof MalformedJwtException) {
+            return ValidationFailure.MALFORMED;
+        } else if (failure instanceof UnsupportedJwtException || failure instanceof SecurityException) {
+            return ValidationFailure.UNSUPPORTED;
+        } else if (failure instanceof TokenValidationException || failure instanceof JwtException) {
+            return ValidationFailure.REJECTED;
+        }
+        return null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * First 128 bits of a token's SHA-256 digest
+     */
+    private record Fingerprint(long high, long low) {
+
+        static Fingerprint of(String token) {
+            ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+            return new Fingerprint(digest.getLong(), digest.getLong());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package xyz.catuns.spring.jwt.auth.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import xyz.catuns.spring.jwt.auth.service.UserSnapshot;
+import xyz.catuns.spring.jwt.domain.entity.RoleEntity;
+import xyz.catuns.spring.jwt.domain.entity.UserEntity;
+import xyz.catuns.spring.jwt.domain.listener.DomainChangeSubscriber;
+import xyz.catuns.spring.jwt.domain.listener.DomainEntityListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of {@link UserSnapshot}s by username
+ * <p>
+ * Only users that were found are cached. Once {@link #listenForChanges() listening},
+ * a user updated or removed through JPA is invalidated under both its new and its
+ * cached username, and any role change invalidates every user. Other instances and
+ * bulk updates are covered by the expiry, or by calling {@link #invalidate(String)}.
+ * <p>
+ * A snapshot loaded while its user is invalidated is discarded, the invalidation waits
+ * for the load of the same username to finish.
+ */
+public class UserDetailsCache implements DomainChangeSubscriber, AutoCloseable {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    public static final Duration DEFAULT_EXPIRE_AFTER = Duration.ofMinutes(5);
+
+    private final Cache<String, UserSnapshot> cache;
+    private final Map<UUID, String> usernames = new ConcurrentHashMap<>();
+
+    public UserDetailsCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_EXPIRE_AFTER);
+    }
+
+    /**
+     * @param maximumSize maximum number of cached users
+     * @param expireAfter how long a snapshot is used before the user is read again
+     */
+    public UserDetailsCache(long maximumSize, Duration expireAfter) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfter)
+                .executor(Runnable::run)
+                .removalListener(this::removed)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param username username of the user
+     * @param loader   reads the user, throws if it is not found
+     * @return cached or loaded snapshot
+     */
+    public UserSnapshot get(String username, Function<String, UserSnapshot> loader) {
+        return cache.get(username, key -> {
+            UserSnapshot snapshot = loader.apply(key);
+            if (snapshot.getId() != null) {
+                usernames.put(snapshot.getId(), key);
+            }
+            return snapshot;
+        });
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * Invalidates the user under its current and its cached username
+     */
+    public void invalidate(UserEntity user) {
+        if (user.getId() != null) {
+            String cached = usernames.get(user.getId());
+            if (cached != null) {
+                cache.invalidate(cached);
+            }
+        }
+        if (user.getUsername() != null) {
+            cache.invalidate(user.getUsername());
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Starts invalidating users updated or removed through JPA, until {@link #close() closed}
+     */
+    public UserDetailsCache listenForChanges() {
+        DomainEntityListener.subscribe(this);
+        return this;
+    }
+
+    @Override
+    public void userChanged(UserEntity user) {
+        invalidate(user);
+    }
+
+    @Override
+    public void roleChanged(RoleEntity role) {
+        invalidateAll();
+    }
+
+    /**
+     * Stops listening for changes
+     */
+    @Override
+    public void close() {
+        DomainEntityListener.unsubscribe(this);
+    }
+
+    /**
+     * Hit, miss, load and eviction statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private void removed(String username, UserSnapshot snapshot, RemovalCause cause) {
+        if (snapshot != null && snapshot.getId() != null) {
+            usernames.remove(snapshot.getId(), username);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package xyz.catuns.spring.jwt.auth.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
+import xyz.catuns.spring.jwt.core.model.ParsedToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of verified tokens
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the token, so the raw bearer value is
+ * never retained, and live until the token's {@code exp}. Size is bounded with
+ * Caffeine's W-TinyLFU admission policy, which keeps a scan of one-off tokens from
+ * flushing the hot set. Concurrent lookups of the same uncached token share a single
+ * verification.
+ *
+ * @param <T> the origin type, e.g. {@link org.springframework.security.core.Authentication}
+ */
+public class VerifiedTokenCache<T> {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Cache<String, ParsedToken<T>> cache;
+
+    public VerifiedTokenCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public VerifiedTokenCache(long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilExpiration<T>())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached parse of the token, verifying it with the loader on a miss
+     *
+     * @param token  token value
+     * @param loader verifies the token, only invoked on a miss
+     * @return the verified token
+     * @throws TokenValidationException when the loader rejects the token
+     */
+    public ParsedToken<T> get(String token, Loader<T> loader) throws TokenValidationException {
+        try {
+            return cache.get(digest(token), key -> {
+                try {
+                    return loader.load(token);
+                } catch (TokenValidationException e) {
+                    throw new LoaderException(e);
+                }
+            });
+        } catch (LoaderException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Removes the token, if cached
+     */
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Hit, miss, load and eviction statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        byte[] hash = DIGEST.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        ParsedToken<T> load(String token) throws TokenValidationException;
+    }
+
+    private static final class LoaderException extends RuntimeException {
+        LoaderException(TokenValidationException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized TokenValidationException getCause() {
+            return (TokenValidationException) super.getCause();
+        }
+    }
+
+    private static final class UntilExpiration<T> implements Expiry<String, ParsedToken<T>> {
+
+        @Override
+        public long expireAfterCreate(String key, ParsedToken<T> entry, long currentTime) {
+            if (entry.expiration() == null) {
+                return 0;
+            }
+            long millis = entry.expiration().toEpochMilli() - System.currentTimeMillis();
+            return millis > 0 ? TimeUnit.MILLISECONDS.toNanos(millis) : 0;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ParsedToken<T> entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, ParsedToken<T> entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package xyz.catuns.spring.jwt.auth.claims;
+
+import xyz.catuns.spring.jwt.auth.service.UserSnapshot;
+import xyz.catuns.spring.jwt.domain.entity.UserEntity;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Declared projection of the principal into short string claims
+ * <p>
+ * Only the projected attributes are written next to the username, so a
+ * {@link UserEntity} principal is never serialized as a whole. Extractors must not
+ * touch lazy associations. Null values are omitted from the token.
+ */
+public final class ClaimProjection {
+
+    private static final ClaimProjection NONE = new ClaimProjection(Map.of());
+
+    private final Map<String, Function<Object, String>> claims;
+
+    private ClaimProjection(Map<String, Function<Object, String>> claims) {
+        this.claims = claims;
+    }
+
+    /**
+     * Projection writing the username only
+     */
+    public static ClaimProjection none() {
+        return NONE;
+    }
+
+    /**
+     * Projection of the given attributes under their short claim names
+     */
+    public static ClaimProjection of(Collection<Attribute> attributes) {
+        ClaimProjection projection = NONE;
+        for (Attribute attribute : attributes) {
+            projection = projection.with(attribute.getClaimName(), attribute.extractor);
+        }
+        return projection;
+    }
+
+    /**
+     * Copy of this projection that also writes {@code claimName}
+     *
+     * @param extractor reads the claim value from the principal, may return null
+     */
+    public ClaimProjection with(String claimName, Function<Object, String> extractor) {
+        Map<String, Function<Object, String>> claims = new LinkedHashMap<>(this.claims);
+        claims.put(Objects.requireNonNull(claimName), Objects.requireNonNull(extractor));
+        return new ClaimProjection(claims);
+    }
+
+    /**
+     * Writes the projected claims of the principal in declaration order
+     */
+    public void project(Object principal, BiConsumer<String, String> writer) {
+        claims.forEach((name, extractor) -> writer.accept(name, extractor.apply(principal)));
+    }
+
+    public boolean isEmpty() {
+        return claims.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ClaimProjection" + claims.keySet();
+    }
+
+    /**
+     * Built-in {@link UserEntity} and {@link UserSnapshot} attributes
+     */
+    public enum Attribute {
+        ID("uid", principal -> {
+            UUID id = principal instanceof UserEntity user ? user.getId()
+                    : principal instanceof UserSnapshot user ? user.getId() : null;
+            return id != null ? id.toString() : null;
+        }),
+        EMAIL("email", principal -> principal instanceof UserEntity user ? user.getEmail()
+                : principal instanceof UserSnapshot user ? user.getEmail() : null);
+
+        private final String claimName;
+        private final Function<Object, String> extractor;
+
+        Attribute(String claimName, Function<Object, String> extractor) {
+            this.claimName = claimName;
+            this.extractor = extractor;
+        }
+
+        public String getClaimName() {
+            return claimName;
+        }
+    }
+}
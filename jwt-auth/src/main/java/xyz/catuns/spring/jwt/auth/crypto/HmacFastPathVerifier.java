@@ -0,0 +1,160 @@
+package xyz.catuns.spring.jwt.auth.crypto;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.MacAlgorithm;
+import xyz.catuns.spring.jwt.core.util.Base64Url;
+import xyz.catuns.spring.jwt.core.util.FlatJsonReader;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Allocation-light verifier for the compact HMAC tokens this library generates
+ * <p>
+ * Only accepts tokens whose header is exactly the one jjwt writes for the key's
+ * algorithm, e.g. {@code {"alg":"HS256"}}, with a flat payload that is not expired
+ * and carries no {@code nbf} or {@code aud}. The signing input is copied into a per-thread buffer,
+ * signed with a per-thread {@link Mac}, and compared in constant time against the
+ * signature decoded into another per-thread buffer.
+ * <p>
+ * {@link #verify(String)} returns null for anything else, including invalid
+ * signatures, so the caller falls back to jjwt and reports the failure as before.
+ */
+public final class HmacFastPathVerifier {
+
+    private final String headerSegment;
+    private final MacPool macs;
+    private final ThreadLocal<Buffers> buffers;
+    private final LongSupplier currentTimeMillis;
+    private long clockSkewMillis;
+
+    public HmacFastPathVerifier(SecretKey key, MacAlgorithm algorithm) {
+        this(key, algorithm, System::currentTimeMillis);
+    }
+
+    HmacFastPathVerifier(SecretKey key, MacAlgorithm algorithm, LongSupplier currentTimeMillis) {
+        this.currentTimeMillis = currentTimeMillis;
+        String header = "{\"alg\":\"" + algorithm.getId() + "\"}";
+        this.headerSegment = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(header.getBytes(StandardCharsets.UTF_8));
+        this.macs = new MacPool(key);
+        int macLength = macs.getMacLength();
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(macLength));
+    }
+
+    /**
+     * Leeway on {@code exp}, the same the jjwt parser is given
+     */
+    public void setAllowedClockSkew(Duration clockSkew) {
+        this.clockSkewMillis = clockSkew.toMillis();
+    }
+
+    /**
+     * @param token compact token
+     * @return verified claims, or null when the token must take the jjwt path
+     */
+    public Claims verify(String token) {
+        int headerEnd = headerSegment.length();
+        if (token == null || !token.startsWith(headerSegment) || token.length() <= headerEnd || token.charAt(headerEnd) != '.') {
+            return null;
+        }
+        int payloadEnd = token.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            return null;
+        }
+
+        Buffers buf = buffers.get();
+        if (!verifySignature(token, payloadEnd, buf)) {
+            return null;
+        }
+
+        byte[] payload = buf.payload(Base64Url.decodedLength(payloadEnd - headerEnd - 1));
+        int length = Base64Url.decode(token, headerEnd + 1, payloadEnd, payload);
+        if (length < 0) {
+            return null;
+        }
+        Map<String, Object> claims = new LinkedHashMap<>();
+        if (!FlatJsonReader.read(payload, 0, length, claims) || !isCurrent(claims)) {
+            return null;
+        }
+        return Jwts.claims().add(claims).build();
+    }
+
+    private boolean verifySignature(String token, int payloadEnd, Buffers buf) {
+        byte[] input = buf.input(payloadEnd);
+        for (int i = 0; i < payloadEnd; i++) {
+            char c = token.charAt(i);
+            if (c >= 0x80) {
+                return false;
+            }
+            input[i] = (byte) c;
+        }
+        if (Base64Url.decode(token, payloadEnd + 1, token.length(), buf.actual) != buf.actual.length) {
+            return false;
+        }
+
+        Mac mac = macs.get();
+        mac.update(input, 0, payloadEnd);
+        try {
+            mac.doFinal(buf.expected, 0);
+        } catch (ShortBufferException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(buf.expected, buf.actual);
+    }
+
+    /**
+     * Mirrors jjwt's checks: numeric registered dates, not expired, no {@code nbf} to evaluate
+     * and no {@code aud}, which jjwt normalizes to a set
+     */
+    private boolean isCurrent(Map<String, Object> claims) {
+        if (claims.containsKey(Claims.NOT_BEFORE) || claims.containsKey(Claims.AUDIENCE)) {
+            return false;
+        }
+        Object issuedAt = claims.get(Claims.ISSUED_AT);
+        if (issuedAt != null && !(issuedAt instanceof Number)) {
+            return false;
+        }
+        Object expiration = claims.get(Claims.EXPIRATION);
+        if (expiration == null) {
+            return !claims.containsKey(Claims.EXPIRATION);
+        }
+        return expiration instanceof Number exp
+                && currentTimeMillis.getAsLong() - clockSkewMillis <= exp.longValue() * 1000;
+    }
+
+    private static final class Buffers {
+        private final byte[] expected;
+        private final byte[] actual;
+        private byte[] input = new byte[512];
+        private byte[] payload = new byte[512];
+
+        private Buffers(int macLength) {
+            this.expected = new byte[macLength];
+            this.actual = new byte[macLength];
+        }
+
+        byte[] input(int length) {
+            if (input.length < length) {
+                input = new byte[Math.max(length, input.length * 2)];
+            }
+            return input;
+        }
+
+        byte[] payload(int length) {
+            if (payload.length < length) {
+                payload = new byte[Math.max(length, payload.length * 2)];
+            }
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package xyz.catuns.spring.jwt.auth.crypto;
+
+import io.jsonwebtoken.security.MacAlgorithm;
+import xyz.catuns.spring.jwt.core.util.Base64Url;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Template-based signer producing the same compact HMAC tokens as jjwt
+ * <p>
+ * The encoded header segment and the JSON prefix of the static claims are
+ * rendered once. Each call streams only the dynamic claims into a per-thread
+ * buffer, base64url-encodes it next to the cached header and signs it with a
+ * per-thread {@link Mac}. String values are escaped the way Jackson escapes them,
+ * control characters and surrogates as {@code \\uXXXX}, everything else as UTF-8,
+ * so output is byte-identical to {@code Jwts.builder()...compact()} for the same
+ * claims in the same order.
+ */
+public final class HmacTemplateSigner {
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] headerSegment;
+    private final byte[] staticClaims;
+    private final MacPool macs;
+    private final ThreadLocal<PayloadWriter> writers;
+
+    /**
+     * @param key          HMAC key
+     * @param algorithm    algorithm written to the header
+     * @param staticClaims claims shared by every token, written first in iteration order, null values skipped
+     */
+    public HmacTemplateSigner(SecretKey key, MacAlgorithm algorithm, Map<String, String> staticClaims) {
+        String header = "{\"alg\":\"" + algorithm.getId() + "\"}";
+        this.headerSegment = (Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(header.getBytes(StandardCharsets.UTF_8)) + ".")
+                .getBytes(StandardCharsets.US_ASCII);
+        this.macs = new MacPool(key);
+
+        PayloadWriter prefix = new PayloadWriter(new byte[0]);
+        staticClaims.forEach(prefix::string);
+        if (!prefix.valid) {
+            throw new IllegalArgumentException("Static claims cannot be rendered");
+        }
+        this.staticClaims = prefix.toByteArray();
+        this.writers = ThreadLocal.withInitial(() -> new PayloadWriter(this.staticClaims));
+    }
+
+    /**
+     * Signs the static claims followed by the dynamic claims written by {@code claims}
+     *
+     * @return compact token, or null if a claim cannot be rendered and the caller must use jjwt
+     */
+    public String sign(Consumer<PayloadWriter> claims) {
+        PayloadWriter writer = writers.get();
+        writer.reset(staticClaims);
+        claims.accept(writer);
+        if (!writer.valid) {
+            return null;
+        }
+        if (writer.length == 0) {
+            writer.put((byte) '{');
+        }
+        writer.put((byte) '}');
+
+        int macLength = macs.getMacLength();
+        int payloadLength = Base64Url.encodedLength(writer.length);
+        int signatureOffset = headerSegment.length + payloadLength + 1;
+        byte[] out = writer.output(signatureOffset + Base64Url.encodedLength(macLength));
+        System.arraycopy(headerSegment, 0, out, 0, headerSegment.length);
+        int end = Base64Url.encode(writer.json, 0, writer.length, out, headerSegment.length);
+
+        Mac mac = macs.get();
+        mac.update(out, 0, end);
+        byte[] signature = writer.signature(macLength);
+        try {
+            mac.doFinal(signature, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        out[end++] = '.';
+        end = Base64Url.encode(signature, 0, macLength, out, end);
+        return new String(out, 0, end, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Appends claims to the JSON payload
+     */
+    public static final class PayloadWriter {
+
+        private byte[] json = new byte[256];
+        private byte[] output = new byte[512];
+        private byte[] signature = new byte[0];
+        private int length;
+        private boolean valid;
+
+        private PayloadWriter(byte[] prefix) {
+            reset(prefix);
+        }
+
+        /**
+         * Writes a string claim, skipped when the value is null like jjwt does for custom claims
+         */
+        public PayloadWriter string(String name, String value) {
+            if (value == null) {
+                return this;
+            }
+            name(name);
+            appendString(value);
+            return this;
+        }
+
+        /**
+         * Writes a numeric claim, e.g. {@code iat} or {@code exp} in epoch seconds
+         */
+        public PayloadWriter number(String name, long value) {
+            name(name);
+            appendAscii(Long.toString(value));
+            return this;
+        }
+
+        /**
+         * Marks the payload as not renderable, the caller falls back to jjwt
+         */
+        public PayloadWriter reject() {
+            valid = false;
+            return this;
+        }
+
+        private void name(String name) {
+            put(length == 0 ? (byte) '{' : (byte) ',');
+            appendString(name);
+            put((byte) ':');
+        }
+
+        private void appendString(String value) {
+            put((byte) '"');
+            int n = value.length();
+            for (int i = 0; i < n; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x20 && c < 0x80) {
+                    if (c == '"' || c == '\\') {
+                        put((byte) '\\');
+                    }
+                    put((byte) c);
+                } else if (c < 0x20) {
+                    appendControl(c);
+                } else if (c < 0x800) {
+                    put((byte) (0xC0 | c >> 6));
+                    put((byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isSurrogate(c)) {
+                    appendUnicodeEscape(c);
+                } else {
+                    put((byte) (0xE0 | c >> 12));
+                    put((byte) (0x80 | (c >> 6 & 0x3F)));
+                    put((byte) (0x80 | (c & 0x3F)));
+                }
+            }
+            put((byte) '"');
+        }
+
+        private void appendControl(char c) {
+            put((byte) '\\');
+            switch (c) {
+                case '\b' -> put((byte) 'b');
+                case '\t' -> put((byte) 't');
+                case '\n' -> put((byte) 'n');
+                case '\f' -> put((byte) 'f');
+                case '\r' -> put((byte) 'r');
+                default -> appendHex(c);
+            }
+        }
+
+        private void appendUnicodeEscape(char c) {
+            put((byte) '\\');
+            appendHex(c);
+        }
+
+        private void appendHex(char c) {
+            put((byte) 'u');
+            put(HEX[c >> 12]);
+            put(HEX[c >> 8 & 0xF]);
+            put(HEX[c >> 4 & 0xF]);
+            put(HEX[c & 0xF]);
+        }
+
+        private void appendAscii(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                put((byte) value.charAt(i));
+            }
+        }
+
+        private void put(byte b) {
+            if (length == json.length) {
+                json = Arrays.copyOf(json, json.length * 2);
+            }
+            json[length++] = b;
+        }
+
+        private void reset(byte[] prefix) {
+            if (json.length < prefix.length) {
+                json = new byte[prefix.length * 2];
+            }
+            System.arraycopy(prefix, 0, json, 0, prefix.length);
+            length = prefix.length;
+            valid = true;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(json, length);
+        }
+
+        private byte[] output(int size) {
+            if (output.length < size) {
+                output = new byte[Math.max(size, output.length * 2)];
+            }
+            return output;
+        }
+
+        private byte[] signature(int size) {
+            if (signature.length != size) {
+                signature = new byte[size];
+            }
+            return signature;
+        }
+    }
+}
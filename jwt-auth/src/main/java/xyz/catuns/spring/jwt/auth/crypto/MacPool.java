@@ -0,0 +1,45 @@
+package xyz.catuns.spring.jwt.auth.crypto;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+
+/**
+ * Per-thread {@link Mac} instances initialized with one key
+ * <p>
+ * {@link Mac} is not thread-safe and {@link Mac#getInstance(String)} walks the
+ * provider list, so each thread keeps its own initialized instance. A {@link Mac}
+ * resets itself after {@code doFinal}, so callers never need to reset it.
+ */
+public final class MacPool {
+
+    private final SecretKey key;
+    private final int macLength;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    public MacPool(SecretKey key) {
+        this.key = key;
+        this.macLength = newMac().getMacLength();
+    }
+
+    /**
+     * Initialized {@link Mac} owned by the calling thread
+     */
+    public Mac get() {
+        return macs.get();
+    }
+
+    public int getMacLength() {
+        return macLength;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(key.getAlgorithm());
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize " + key.getAlgorithm(), e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package xyz.catuns.spring.jwt.auth.key;
+
+import org.springframework.boot.ssl.pem.PemContent;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Loads asymmetric key material from PEM files or PKCS12 key stores
+ */
+public final class KeyLoader {
+
+    private static final String PUBLIC_KEY_HEADER = "-----BEGIN PUBLIC KEY-----";
+    private static final String PUBLIC_KEY_FOOTER = "-----END PUBLIC KEY-----";
+    private static final String[] KEY_ALGORITHMS = {"RSA", "EC", "Ed25519"};
+
+    private KeyLoader() {
+    }
+
+    /**
+     * Reads a PKCS#8, PKCS#1 or SEC1 PEM private key
+     *
+     * @param resource PEM resource
+     * @param password password of an encrypted key, null otherwise
+     */
+    public static PrivateKey loadPrivateKey(Resource resource, String password) {
+        try (InputStream in = resource.getInputStream()) {
+            PrivateKey key = PemContent.load(in).getPrivateKey(password);
+            if (key == null) {
+                throw new IllegalStateException("No private key found in " + resource);
+            }
+            return key;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read private key from " + resource, e);
+        }
+    }
+
+    /**
+     * Reads a PEM public key ({@code BEGIN PUBLIC KEY}) or the key of the first PEM certificate
+     *
+     * @param resource PEM resource
+     */
+    public static PublicKey loadPublicKey(Resource resource) {
+        String text;
+        try (InputStream in = resource.getInputStream()) {
+            text = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read public key from " + resource, e);
+        }
+
+        int start = text.indexOf(PUBLIC_KEY_HEADER);
+        if (start >= 0) {
+            int end = text.indexOf(PUBLIC_KEY_FOOTER, start);
+            if (end < 0) {
+                throw new IllegalStateException("Malformed PEM public key in " + resource);
+            }
+            String body = text.substring(start + PUBLIC_KEY_HEADER.length(), end).replaceAll("\\s", "");
+            return decodePublicKey(Base64.getDecoder().decode(body), resource);
+        }
+
+        List<X509Certificate> certificates = PemContent.of(text).getCertificates();
+        if (certificates.isEmpty()) {
+            throw new IllegalStateException("No public key or certificate found in " + resource);
+        }
+        return certificates.get(0).getPublicKey();
+    }
+
+    /**
+     * Reads a key pair from a key store
+     *
+     * @param resource      key store resource
+     * @param type          key store type, PKCS12 when null
+     * @param storePassword key store password
+     * @param alias         key alias, the first key entry when null
+     * @param keyPassword   key password, the store password when null
+     */
+    public static KeyPair loadKeyPair(Resource resource, String type, String storePassword,
+                                      String alias, String keyPassword) {
+        char[] storePwd = storePassword == null ? null : storePassword.toCharArray();
+        char[] keyPwd = keyPassword == null ? storePwd : keyPassword.toCharArray();
+        try (InputStream in = resource.getInputStream()) {
+            KeyStore keyStore = KeyStore.getInstance(type == null ? "PKCS12" : type);
+            keyStore.load(in, storePwd);
+            String entry = alias != null ? alias : firstKeyAlias(keyStore, resource);
+            Key key = keyStore.getKey(entry, keyPwd);
+            Certificate certificate = keyStore.getCertificate(entry);
+            if (!(key instanceof PrivateKey privateKey) || certificate == null) {
+                throw new IllegalStateException("No private key entry '%s' in %s".formatted(entry, resource));
+            }
+            return new KeyPair(certificate.getPublicKey(), privateKey);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to read key store " + resource, e);
+        }
+    }
+
+    private static String firstKeyAlias(KeyStore keyStore, Resource resource) throws KeyStoreException {
+        var aliases = keyStore.aliases();
+        while (aliases.hasMoreElements()) {
+            String alias = aliases.nextElement();
+            if (keyStore.isKeyEntry(alias)) {
+                return alias;
+            }
+        }
+        throw new IllegalStateException("No key entry found in " + resource);
+    }
+
+    private static PublicKey decodePublicKey(byte[] encoded, Resource resource) {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(encoded);
+        for (String algorithm : KEY_ALGORITHMS) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePublic(spec);
+            } catch (InvalidKeySpecException | NoSuchAlgorithmException ignored) {
+                // try the next algorithm
+            }
+        }
+        throw new IllegalStateException("Unsupported public key in " + resource);
+    }
+}
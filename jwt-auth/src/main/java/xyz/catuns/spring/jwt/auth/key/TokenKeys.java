@@ -0,0 +1,122 @@
+package xyz.catuns.spring.jwt.auth.key;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import lombok.Getter;
+import xyz.catuns.spring.jwt.core.exception.MissingSecretException;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.RSAKey;
+
+/**
+ * Key material and signature algorithm of a token provider
+ * <p>
+ * Either a shared HMAC secret, which both signs and verifies, or an asymmetric
+ * key pair (RSA, EC or Ed25519). A provider holding only the public key can
+ * verify tokens but not mint them.
+ */
+@Getter
+public final class TokenKeys {
+
+    /**
+     * Key used to sign tokens, null when verification only
+     */
+    private final Key signingKey;
+    /**
+     * Key used to verify tokens
+     */
+    private final Key verificationKey;
+    /**
+     * Signature algorithm, e.g. HS256, RS256, ES256 or EdDSA
+     */
+    private final SecureDigestAlgorithm<?, ?> algorithm;
+
+    private TokenKeys(Key signingKey, Key verificationKey, SecureDigestAlgorithm<?, ?> algorithm) {
+        this.signingKey = signingKey;
+        this.verificationKey = verificationKey;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Shared HMAC secret, HS256/HS384/HS512 depending on its length
+     */
+    public static TokenKeys hmac(String secret) throws MissingSecretException {
+        if (secret == null || secret.isEmpty()) {
+            throw new MissingSecretException();
+        }
+        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return new TokenKeys(key, key, algorithmFor(key));
+    }
+
+    /**
+     * Asymmetric key pair, algorithm inferred from the key
+     */
+    public static TokenKeys of(KeyPair keyPair) {
+        return of(keyPair.getPrivate(), keyPair.getPublic(), null);
+    }
+
+    /**
+     * Public key only, tokens can be verified but not generated
+     */
+    public static TokenKeys verifyOnly(PublicKey publicKey) {
+        return of(null, publicKey, null);
+    }
+
+    /**
+     * @param privateKey signing key, null when verification only
+     * @param publicKey  verification key
+     * @param algorithm  JWA algorithm id, inferred from the key when null
+     */
+    public static TokenKeys of(PrivateKey privateKey, PublicKey publicKey, String algorithm) {
+        if (publicKey == null) {
+            throw new IllegalArgumentException("A public key is required to verify tokens");
+        }
+        SecureDigestAlgorithm<?, ?> alg = algorithm == null || algorithm.isBlank()
+                ? algorithmFor(publicKey)
+                : Jwts.SIG.get().forKey(algorithm);
+        return new TokenKeys(privateKey, publicKey, alg);
+    }
+
+    public boolean canSign() {
+        return signingKey != null;
+    }
+
+    public boolean isSymmetric() {
+        return verificationKey instanceof SecretKey;
+    }
+
+    /**
+     * Resolves the algorithm jjwt would pick for the key,
+     * without repeating the lookup on every signature
+     */
+    static SecureDigestAlgorithm<?, ?> algorithmFor(Key key) {
+        if (key instanceof SecretKey) {
+            return switch (key.getAlgorithm()) {
+                case "HmacSHA512" -> Jwts.SIG.HS512;
+                case "HmacSHA384" -> Jwts.SIG.HS384;
+                default -> Jwts.SIG.HS256;
+            };
+        }
+        if (key instanceof RSAKey) {
+            return Jwts.SIG.RS256;
+        }
+        if (key instanceof ECKey ec) {
+            return switch (ec.getParams().getCurve().getField().getFieldSize()) {
+                case 521 -> Jwts.SIG.ES512;
+                case 384 -> Jwts.SIG.ES384;
+                default -> Jwts.SIG.ES256;
+            };
+        }
+        return switch (key.getAlgorithm()) {
+            case "EdDSA", "Ed25519", "Ed448" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalArgumentException("Unsupported key algorithm " + key.getAlgorithm());
+        };
+    }
+}
@@ -0,0 +1,218 @@
+package xyz.catuns.spring.jwt.auth.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import xyz.catuns.spring.jwt.core.TokenProvider;
+import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
+import xyz.catuns.spring.jwt.core.model.JwtToken;
+import xyz.catuns.spring.jwt.core.model.ParsedToken;
+import xyz.catuns.spring.jwt.core.model.TokenResult;
+import xyz.catuns.spring.jwt.core.model.ValidationFailure;
+import xyz.catuns.spring.jwt.core.model.ValidationResult;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TokenProvider} decorator recording Micrometer metrics
+ * <ul>
+ *     <li>{@value #GENERATE_TIMER} and {@value #VALIDATE_TIMER} timers, the latter tagged
+ *     {@code outcome=success|failure} since rejections are usually cheaper</li>
+ *     <li>{@value #VALIDATIONS_COUNTER} counter tagged with the outcome, {@code success} or
+ *     the lower-cased {@link ValidationFailure}</li>
+ *     <li>{@value #SIZE_SUMMARY} distribution of issued token lengths in bytes</li>
+ * </ul>
+ * Every meter is registered up front, so the hot path does no registry lookups and only
+ * updates the adder-based, contention-free counters of the meters. Tags are bounded by
+ * the {@link ValidationFailure} values.
+ */
+public class MeteredTokenProvider<T> implements TokenProvider<T> {
+
+    public static final String GENERATE_TIMER = "jwt.tokens.generate";
+    public static final String VALIDATE_TIMER = "jwt.tokens.validate";
+    public static final String GENERATE_BATCH_TIMER = "jwt.tokens.generate.batch";
+    public static final String VALIDATE_BATCH_TIMER = "jwt.tokens.validate.batch";
+    public static final String VALIDATIONS_COUNTER = "jwt.tokens.validations";
+    public static final String SIZE_SUMMARY = "jwt.tokens.size";
+    public static final String OUTCOME_TAG = "outcome";
+    public static final double[] DEFAULT_PERCENTILES = {0.5, 0.95, 0.99};
+
+    private static final String SUCCESS = "success";
+    private static final String FAILURE = "failure";
+
+    private final TokenProvider<T> delegate;
+    private final Timer generateTimer;
+    private final Timer validateSuccessTimer;
+    private final Timer validateFailureTimer;
+    private final Timer generateBatchTimer;
+    private final Timer validateBatchTimer;
+    private final DistributionSummary tokenSize;
+    private final Counter successes;
+    private final Map<ValidationFailure, Counter> failures = new EnumMap<>(ValidationFailure.class);
+
+    public MeteredTokenProvider(TokenProvider<T> delegate, MeterRegistry registry) {
+        this(delegate, registry, DEFAULT_PERCENTILES, false);
+    }
+
+    /**
+     * @param percentiles          client side percentiles of the timers and the size distribution
+     * @param percentileHistogram  also publish histogram buckets, for percentiles aggregated by the backend
+     */
+    public MeteredTokenProvider(
+            TokenProvider<T> delegate,
+            MeterRegistry registry,
+            double[] percentiles,
+            boolean percentileHistogram
+    ) {
+        this.delegate = delegate;
+        this.generateTimer = timer(GENERATE_TIMER, "Time to issue a token", null,
+                percentiles, percentileHistogram, registry);
+        this.validateSuccessTimer = timer(VALIDATE_TIMER, "Time to validate a token", SUCCESS,
+                percentiles, percentileHistogram, registry);
+        this.validateFailureTimer = timer(VALIDATE_TIMER, "Time to validate a token", FAILURE,
+                percentiles, percentileHistogram, registry);
+        this.generateBatchTimer = timer(GENERATE_BATCH_TIMER, "Time to issue a batch of tokens", null,
+                percentiles, percentileHistogram, registry);
+        this.validateBatchTimer = timer(VALIDATE_BATCH_TIMER, "Time to validate a batch of tokens", null,
+                percentiles, percentileHistogram, registry);
+        this.tokenSize = DistributionSummary.builder(SIZE_SUMMARY)
+                .description("Length of issued tokens")
+                .baseUnit("bytes")
+                .publishPercentiles(percentiles)
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry);
+        this.successes = counter(SUCCESS, registry);
+        for (ValidationFailure failure : ValidationFailure.values()) {
+            failures.put(failure, counter(failure.name().toLowerCase(Locale.ROOT), registry));
+        }
+    }
+
+    private static Timer timer(
+            String name,
+            String description,
+            String outcome,
+            double[] percentiles,
+            boolean percentileHistogram,
+            MeterRegistry registry
+    ) {
+        Timer.Builder builder = Timer.builder(name)
+                .description(description)
+                .publishPercentiles(percentiles)
+                .publishPercentileHistogram(percentileHistogram);
+        if (outcome != null) {
+            builder.tag(OUTCOME_TAG, outcome);
+        }
+        return builder.register(registry);
+    }
+
+    private static Counter counter(String outcome, MeterRegistry registry) {
+        return Counter.builder(VALIDATIONS_COUNTER)
+                .description("Token validations by outcome")
+                .tag(OUTCOME_TAG, outcome)
+                .register(registry);
+    }
+
+    @Override
+    public JwtToken generate(T claims) {
+        long start = System.nanoTime();
+        JwtToken token = delegate.generate(claims);
+        generateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        tokenSize.record(token.value().length());
+        return token;
+    }
+
+    @Override
+    public List<TokenResult<JwtToken>> generateAll(Collection<T> claims) {
+        long start = System.nanoTime();
+        List<TokenResult<JwtToken>> results = delegate.generateAll(claims);
+        generateBatchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        for (TokenResult<JwtToken> result : results) {
+            if (result.isSuccess()) {
+                tokenSize.record(result.value().value().length());
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public T validate(String token) throws TokenValidationException {
+        long start = System.nanoTime();
+        try {
+            T principal = delegate.validate(token);
+            accepted(start);
+            return principal;
+        } catch (TokenValidationException | RuntimeException e) {
+            rejected(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public ParsedToken<T> parse(String token) throws TokenValidationException {
+        long start = System.nanoTime();
+        try {
+            ParsedToken<T> parsed = delegate.parse(token);
+            accepted(start);
+            return parsed;
+        } catch (TokenValidationException | RuntimeException e) {
+            rejected(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<ValidationResult<T>> validateAll(List<String> tokens) {
+        long start = System.nanoTime();
+        List<ValidationResult<T>> results = delegate.validateAll(tokens);
+        validateBatchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        for (ValidationResult<T> result : results) {
+            if (result.isValid()) {
+                successes.increment();
+            } else {
+                failures.get(result.failure()).increment();
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public ValidationFailure classify(Exception e) {
+        return delegate.classify(e);
+    }
+
+    @Override
+    public Map<String, Object> getClaims(String token) {
+        return delegate.getClaims(token);
+    }
+
+    @Override
+    public boolean isExpired(String token) {
+        return delegate.isExpired(token);
+    }
+
+    @Override
+    public Duration getAllowedClockSkew() {
+        return delegate.getAllowedClockSkew();
+    }
+
+    public TokenProvider<T> getDelegate() {
+        return delegate;
+    }
+
+    private void accepted(long start) {
+        validateSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        successes.increment();
+    }
+
+    private void rejected(long start, Exception e) {
+        validateFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        failures.get(delegate.classify(e)).increment();
+    }
+}
@@ -0,0 +1,63 @@
+package xyz.catuns.spring.jwt.auth.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import xyz.catuns.spring.jwt.core.revocation.TokenRevocationStore;
+
+import java.time.Instant;
+
+/**
+ * {@link TokenRevocationStore} decorator counting revocations and verified tokens
+ * rejected by their {@code jti}
+ * <p>
+ * The validator filters check the store after {@link MeteredTokenProvider} counted the
+ * token as validated, so {@value #REVOKED_COUNTER} is published next to its outcomes.
+ * The autoconfiguration meters the in-memory store through its own counters; wrap a
+ * custom store in this decorator to publish the same counters. Closing the decorator
+ * closes the delegate.
+ */
+public class MeteredTokenRevocationStore implements TokenRevocationStore, AutoCloseable {
+
+    public static final String REVOKED_COUNTER = "jwt.tokens.revoked";
+    public static final String REVOCATIONS_COUNTER = "jwt.tokens.revocations";
+
+    private final TokenRevocationStore delegate;
+    private final Counter revoked;
+    private final Counter revocations;
+
+    public MeteredTokenRevocationStore(TokenRevocationStore delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.revoked = Counter.builder(REVOKED_COUNTER)
+                .description("Verified tokens rejected by their revoked jti")
+                .register(registry);
+        this.revocations = Counter.builder(REVOCATIONS_COUNTER)
+                .description("Tokens revoked by jti")
+                .register(registry);
+    }
+
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        delegate.revoke(tokenId, expiresAt);
+        revocations.increment();
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        boolean isRevoked = delegate.isRevoked(tokenId);
+        if (isRevoked) {
+            revoked.increment();
+        }
+        return isRevoked;
+    }
+
+    public TokenRevocationStore getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
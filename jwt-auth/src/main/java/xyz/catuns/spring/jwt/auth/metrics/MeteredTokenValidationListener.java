@@ -0,0 +1,58 @@
+package xyz.catuns.spring.jwt.auth.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import xyz.catuns.spring.jwt.core.model.ValidationFailure;
+import xyz.catuns.spring.jwt.core.model.ValidationStage;
+import xyz.catuns.spring.jwt.core.validator.TokenValidationListener;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TokenValidationListener} recording the validator filter stages as
+ * {@value #STAGES_TIMER} timers tagged with the lower-cased {@link ValidationStage} and
+ * the outcome, {@code success} or the lower-cased {@link ValidationFailure}
+ * <p>
+ * {@link MeteredTokenProvider} only sees the parse stage, so tokens screened out before
+ * it or revoked by their {@code jti} after it are told apart here, e.g. as
+ * {@code stage=revocation, outcome=revoked}. Every timer is registered up front.
+ */
+public class MeteredTokenValidationListener implements TokenValidationListener {
+
+    public static final String STAGES_TIMER = "jwt.tokens.stages";
+    public static final String STAGE_TAG = "stage";
+
+    private static final String SUCCESS = "success";
+
+    private final Timer[] passed = new Timer[ValidationStage.values().length];
+    private final Timer[][] rejected = new Timer[ValidationStage.values().length][ValidationFailure.values().length];
+
+    public MeteredTokenValidationListener(MeterRegistry registry) {
+        for (ValidationStage stage : ValidationStage.values()) {
+            passed[stage.ordinal()] = timer(stage, SUCCESS, registry);
+            for (ValidationFailure failure : ValidationFailure.values()) {
+                rejected[stage.ordinal()][failure.ordinal()] =
+                        timer(stage, failure.name().toLowerCase(Locale.ROOT), registry);
+            }
+        }
+    }
+
+    private static Timer timer(ValidationStage stage, String outcome, MeterRegistry registry) {
+        return Timer.builder(STAGES_TIMER)
+                .description("Time spent in each token validation stage of the filters")
+                .tag(STAGE_TAG, stage.name().toLowerCase(Locale.ROOT))
+                .tag(MeteredTokenProvider.OUTCOME_TAG, outcome)
+                .register(registry);
+    }
+
+    @Override
+    public void passed(ValidationStage stage, long durationNanos) {
+        passed[stage.ordinal()].record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void rejected(ValidationStage stage, ValidationFailure failure, long durationNanos) {
+        rejected[stage.ordinal()][failure.ordinal()].record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,30 @@
+package xyz.catuns.spring.jwt.auth.observation;
+
+/**
+ * Observation names and key names of the login path
+ * <p>
+ * Every observation carries an {@value #OUTCOME} low cardinality key, usernames are
+ * never tagged.
+ */
+public final class JwtAuthObservations {
+
+    /**
+     * User lookup of {@code UserEntityService}
+     */
+    public static final String USER_LOOKUP = "jwt.user.lookup";
+    /**
+     * Password hash comparison of {@code UsernamePwdAuthenticationProvider}
+     */
+    public static final String PASSWORD_CHECK = "jwt.password.check";
+
+    public static final String OUTCOME = "outcome";
+
+    public static final String FOUND = "found";
+    public static final String NOT_FOUND = "not_found";
+    public static final String MATCH = "match";
+    public static final String MISMATCH = "mismatch";
+    public static final String ERROR = "error";
+
+    private JwtAuthObservations() {
+    }
+}
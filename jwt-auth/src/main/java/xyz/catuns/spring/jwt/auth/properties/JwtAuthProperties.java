@@ -3,6 +3,8 @@ package xyz.catuns.spring.jwt.auth.properties;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 /**
  * Jwt Authentication manager properties
  *
@@ -22,4 +24,30 @@ public class JwtAuthProperties {
      * Enable use of UserEntityService
      */
     private boolean useEntityService = true;
+    /**
+     * Read users with one query selecting their credentials and role names,
+     * when the user entity allows it. The principal is then a UserSnapshot,
+     * not an instance of the user entity
+     */
+    private boolean useCredentialsQuery = false;
+    /**
+     * Cache of users found by UserEntityService
+     */
+    private UserCacheConfig userCache = new UserCacheConfig();
+
+    @Data
+    public static class UserCacheConfig {
+        /**
+         * Answer user lookups from immutable snapshots, invalidated on JPA updates
+         */
+        private boolean enabled = false;
+        /**
+         * Maximum number of cached users
+         */
+        private long maximumSize = 10_000;
+        /**
+         * How long a user is cached before it is read again
+         */
+        private Duration expireAfter = Duration.ofMinutes(5);
+    }
 }
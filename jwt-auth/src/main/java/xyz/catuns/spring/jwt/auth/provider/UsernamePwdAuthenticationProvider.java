@@ -1,5 +1,8 @@
 package xyz.catuns.spring.jwt.auth.provider;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.Setter;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -9,10 +12,18 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import static xyz.catuns.spring.jwt.auth.observation.JwtAuthObservations.*;
+
 public class UsernamePwdAuthenticationProvider implements AuthenticationProvider {
 
     private final UserDetailsService userDetailsService;
     private final PasswordEncoder passwordEncoder;
+    /**
+     * Set to observe password checks as {@code jwt.password.check}
+     * Default: no-op
+     */
+    @Setter
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
 
     public UsernamePwdAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
         this.userDetailsService = userDetailsService;
@@ -30,13 +41,27 @@ public class UsernamePwdAuthenticationProvider implements AuthenticationProvider
         String password = (String) authentication.getCredentials();
 
         UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-        if (passwordEncoder.matches(password, userDetails.getPassword())) {
+        if (matches(password, userDetails.getPassword())) {
             return new UsernamePasswordAuthenticationToken(userDetails, password, userDetails.getAuthorities());
         } else {
             throw new BadCredentialsException("Bad credentials");
         }
     }
 
+    private boolean matches(String password, String encodedPassword) {
+        Observation observation = Observation.start(PASSWORD_CHECK, observationRegistry);
+        try (Observation.Scope ignored = observation.openScope()) {
+            boolean matches = passwordEncoder.matches(password, encodedPassword);
+            observation.lowCardinalityKeyValue(OUTCOME, matches ? MATCH : MISMATCH);
+            return matches;
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue(OUTCOME, ERROR).error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
     /**
      * @param authentication authentication type to support
      * @return whether authentication type supported
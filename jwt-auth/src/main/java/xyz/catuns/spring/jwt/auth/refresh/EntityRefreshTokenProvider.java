@@ -0,0 +1,104 @@
+package xyz.catuns.spring.jwt.auth.refresh;
+
+import lombok.extern.slf4j.Slf4j;
+import xyz.catuns.spring.jwt.core.RefreshTokenProvider;
+import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
+import xyz.catuns.spring.jwt.core.model.JwtToken;
+import xyz.catuns.spring.jwt.domain.entity.TokenEntity;
+import xyz.catuns.spring.jwt.domain.repository.TokenEntityRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+/**
+ * {@link RefreshTokenProvider} persisting refresh tokens as {@link TokenEntity}
+ * <p>
+ * Tokens are 256 random bits, only their SHA-256 digest is stored. Each token is
+ * consumed by an atomic update, so two concurrent refreshes with the same token
+ * cannot both succeed. A consumed token is kept until it expires to detect reuse,
+ * which revokes every token of the identifier.
+ *
+ * @param <E> concrete token entity
+ */
+@Slf4j
+public class EntityRefreshTokenProvider<E extends TokenEntity> implements RefreshTokenProvider {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final TokenEntityRepository<E> repository;
+    private final Supplier<E> entityFactory;
+    private final Duration expiration;
+
+    /**
+     * @param repository    token repository
+     * @param entityFactory creates empty token entities
+     * @param expiration    refresh token lifetime
+     */
+    public EntityRefreshTokenProvider(TokenEntityRepository<E> repository, Supplier<E> entityFactory, Duration expiration) {
+        this.repository = repository;
+        this.entityFactory = entityFactory;
+        this.expiration = expiration;
+    }
+
+    @Override
+    public JwtToken issue(String identifier) {
+        Instant now = Instant.now();
+        Instant expires = now.plus(expiration);
+        repository.deleteAllByIdentifierAndExpiresBefore(identifier, now);
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = ENCODER.encodeToString(bytes);
+
+        E entity = entityFactory.get();
+        entity.setIdentifier(identifier);
+        entity.setToken(digest(token));
+        entity.setIssuedAt(now);
+        entity.setExpires(expires);
+        repository.save(entity);
+        return new JwtToken(token, expires, now);
+    }
+
+    @Override
+    public String consume(String refreshToken) throws TokenValidationException {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            throw new TokenValidationException("Missing refresh token");
+        }
+        E entity = repository.findByToken(digest(refreshToken))
+                .orElseThrow(() -> new TokenValidationException("Unknown refresh token"));
+        if (entity.isExpired()) {
+            throw new TokenValidationException("Refresh token expired");
+        }
+        if (entity.isConsumed() || repository.markConsumed(entity.getId(), Instant.now()) == 0) {
+            log.warn("Refresh token reuse detected for {}, revoking all refresh tokens", entity.getIdentifier());
+            revokeAll(entity.getIdentifier());
+            throw new TokenValidationException("Refresh token already used");
+        }
+        return entity.getIdentifier();
+    }
+
+    @Override
+    public void revokeAll(String identifier) {
+        repository.deleteAllByIdentifier(identifier);
+    }
+
+    private static String digest(String token) {
+        byte[] hash = DIGEST.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return ENCODER.encodeToString(hash);
+    }
+}
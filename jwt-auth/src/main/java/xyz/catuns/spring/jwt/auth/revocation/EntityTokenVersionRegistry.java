@@ -0,0 +1,66 @@
+package xyz.catuns.spring.jwt.auth.revocation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import xyz.catuns.spring.jwt.core.revocation.TokenVersionRegistry;
+import xyz.catuns.spring.jwt.domain.entity.UserEntity;
+import xyz.catuns.spring.jwt.domain.repository.UserEntityRepository;
+
+import java.time.Duration;
+
+/**
+ * Token versions stored on {@link UserEntity#getTokenVersion()}, cached in a bounded map
+ * <p>
+ * Validation reads the cached version, so the database is only hit once per user and
+ * refresh interval. A bump is applied to this instance at once, other instances pick
+ * it up when their cached entry expires.
+ */
+@Slf4j
+public class EntityTokenVersionRegistry<E extends UserEntity> implements TokenVersionRegistry {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
+    private final UserEntityRepository<E> repository;
+    private final Cache<String, Long> versions;
+
+    public EntityTokenVersionRegistry(UserEntityRepository<E> repository) {
+        this(repository, DEFAULT_MAXIMUM_SIZE, DEFAULT_REFRESH_INTERVAL);
+    }
+
+    public EntityTokenVersionRegistry(UserEntityRepository<E> repository, long maximumSize, Duration refreshInterval) {
+        this.repository = repository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(refreshInterval)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public long currentVersion(String username) {
+        return versions.get(username, this::load);
+    }
+
+    @Override
+    public long bump(String username) {
+        if (repository.incrementTokenVersion(username) == 0) {
+            log.debug("No user {} to bump the token version of", username);
+        }
+        versions.invalidate(username);
+        return currentVersion(username);
+    }
+
+    /**
+     * Hit, miss, load and eviction statistics
+     */
+    public CacheStats stats() {
+        return versions.stats();
+    }
+
+    private long load(String username) {
+        return repository.findTokenVersionByEmail(username).orElse(0L);
+    }
+}
@@ -1,15 +1,45 @@
 package xyz.catuns.spring.jwt.auth.service;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import xyz.catuns.spring.jwt.auth.cache.UserDetailsCache;
 import xyz.catuns.spring.jwt.domain.entity.UserEntity;
+import xyz.catuns.spring.jwt.domain.projection.UserCredentialsQuery;
 import xyz.catuns.spring.jwt.domain.repository.UserEntityRepository;
 import xyz.catuns.spring.jwt.auth.exception.EmailNotFoundException;
 
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static xyz.catuns.spring.jwt.auth.observation.JwtAuthObservations.*;
+
 @Slf4j
 public class UserEntityService<E extends UserEntity> implements UserDetailsService {
 
     protected final UserEntityRepository<E> userEntityRepository;
+    /**
+     * Set to observe lookups as {@code jwt.user.lookup}
+     * Default: no-op
+     */
+    @Setter
+    protected ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+    /**
+     * Set to answer lookups from cached {@link UserSnapshot}s instead of entities
+     * Default: none, every lookup reads the repository
+     */
+    @Setter
+    protected UserDetailsCache userCache;
+    /**
+     * Set to read users as {@link UserSnapshot}s of their credentials, in one query.
+     * Authenticated principals are then snapshots, casts to the user entity fail
+     * Default: none, the entity is loaded with its roles
+     */
+    @Setter
+    protected UserCredentialsQuery credentialsQuery;
 
     public UserEntityService(UserEntityRepository<E> userEntityRepository) {
         this.userEntityRepository = userEntityRepository;
@@ -18,13 +48,58 @@ public class UserEntityService<E extends UserEntity> implements UserDetailsServi
 
     /**
      * @param email the `email` identifying the user
-     * @return UserDetails
+     * @return the user entity, or its snapshot when a cache or credentials query is set
      * @throws EmailNotFoundException if email is not found
      */
     @Override
-    public UserEntity loadUserByUsername(String email) throws EmailNotFoundException {
-        return userEntityRepository.findByEmail(email).orElseThrow(
-                () -> new EmailNotFoundException(email)
-        );
+    public UserDetails loadUserByUsername(String email) throws EmailNotFoundException {
+        if (userCache != null) {
+            return userCache.get(email, this::findSnapshot);
+        }
+        if (credentialsQuery != null) {
+            return findSnapshot(email);
+        }
+        return findUser(email);
+    }
+
+    /**
+     * Reads the user entity from the repository, bypassing the cache and credentials query.
+     * Use this where {@link #loadUserByUsername} used to return the entity
+     *
+     * @param email the `email` identifying the user
+     * @return the user entity
+     * @throws EmailNotFoundException if email is not found
+     */
+    public E findUser(String email) throws EmailNotFoundException {
+        return observeLookup(() -> userEntityRepository.findByEmail(email))
+                .orElseThrow(() -> new EmailNotFoundException(email));
+    }
+
+    /**
+     * @param email the `email` identifying the user
+     * @return snapshot of the user, read with the credentials query when set
+     * @throws EmailNotFoundException if email is not found
+     */
+    protected UserSnapshot findSnapshot(String email) throws EmailNotFoundException {
+        if (credentialsQuery == null) {
+            return UserSnapshot.of(findUser(email));
+        }
+        return observeLookup(() -> credentialsQuery.find(email))
+                .map(UserSnapshot::of)
+                .orElseThrow(() -> new EmailNotFoundException(email));
+    }
+
+    private <T> Optional<T> observeLookup(Supplier<Optional<T>> lookup) {
+        Observation observation = Observation.start(USER_LOOKUP, observationRegistry);
+        try (Observation.Scope ignored = observation.openScope()) {
+            Optional<T> user = lookup.get();
+            observation.lowCardinalityKeyValue(OUTCOME, user.isPresent() ? FOUND : NOT_FOUND);
+            return user;
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue(OUTCOME, ERROR).error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
     }
 }
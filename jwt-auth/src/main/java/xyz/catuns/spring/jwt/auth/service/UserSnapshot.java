@@ -0,0 +1,124 @@
+package xyz.catuns.spring.jwt.auth.service;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import xyz.catuns.spring.jwt.domain.entity.UserEntity;
+import xyz.catuns.spring.jwt.domain.projection.UserCredentials;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Detached, immutable copy of a {@link UserEntity} for authentication
+ * <p>
+ * Holds no reference to the entity, its roles or their persistence context, so it can
+ * be shared between threads and outlive the session it was read in. Unlike
+ * {@link org.springframework.security.core.userdetails.User} it is not a
+ * {@link org.springframework.security.core.CredentialsContainer}: erasing the
+ * credentials of an authentication does not clear the password of a cached snapshot.
+ */
+public final class UserSnapshot implements UserDetails {
+
+    private final UUID id;
+    private final String username;
+    private final String password;
+    private final List<GrantedAuthority> authorities;
+    private final boolean accountNonExpired;
+    private final boolean accountNonLocked;
+    private final boolean credentialsNonExpired;
+    private final boolean enabled;
+
+    public UserSnapshot(
+            UUID id,
+            String username,
+            String password,
+            Collection<? extends GrantedAuthority> authorities,
+            boolean accountNonExpired,
+            boolean accountNonLocked,
+            boolean credentialsNonExpired,
+            boolean enabled
+    ) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.authorities = authorities.stream()
+                .<GrantedAuthority>map(authority -> new SimpleGrantedAuthority(authority.getAuthority()))
+                .toList();
+        this.accountNonExpired = accountNonExpired;
+        this.accountNonLocked = accountNonLocked;
+        this.credentialsNonExpired = credentialsNonExpired;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Copies the user, reading its roles
+     */
+    public static UserSnapshot of(UserEntity user) {
+        return new UserSnapshot(user.getId(), user.getUsername(), user.getPassword(), user.getAuthorities(),
+                user.isAccountNonExpired(), user.isAccountNonLocked(), user.isCredentialsNonExpired(), user.isEnabled());
+    }
+
+    /**
+     * Copies projected credentials, their role names becoming the authorities
+     */
+    public static UserSnapshot of(UserCredentials credentials) {
+        List<GrantedAuthority> authorities = credentials.roles().stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        return new UserSnapshot(credentials.id(), credentials.email(), credentials.password(), authorities,
+                true, true, true, true);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Same as the username, users are identified by email
+     */
+    public String getEmail() {
+        return username;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return accountNonExpired;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return accountNonLocked;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return credentialsNonExpired;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSnapshot[" + username + ", " + authorities + "]";
+    }
+}
@@ -0,0 +1,83 @@
+package xyz.catuns.spring.jwt.auth.authority;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import xyz.catuns.spring.jwt.auth.AuthTokenProvider;
+import xyz.catuns.spring.jwt.core.exception.MissingSecretException;
+import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthorityDictionaryTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final AuthorityDictionary roles = AuthorityDictionary.of(List.of("ROLE_USER", "ROLE_ADMIN", "ROLE_AUDITOR"));
+
+    @Test
+    void decodesWhatItEncodes() throws TokenValidationException {
+        String claim = roles.encode(AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_AUDITOR"));
+
+        assertThat(roles.decode(claim)).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER", "ROLE_AUDITOR");
+    }
+
+    @Test
+    void sameNamesHaveTheSameFingerprint() {
+        AuthorityDictionary otherInstance = AuthorityDictionary.of(List.of("ROLE_USER", "ROLE_ADMIN", "ROLE_AUDITOR"));
+
+        assertThat(otherInstance.getFingerprint()).isEqualTo(roles.getFingerprint());
+    }
+
+    @Test
+    void reorderedNamesHaveAnotherFingerprint() {
+        AuthorityDictionary reinserted = AuthorityDictionary.of(List.of("ROLE_ADMIN", "ROLE_AUDITOR", "ROLE_USER"));
+
+        assertThat(reinserted.getFingerprint()).isNotEqualTo(roles.getFingerprint());
+    }
+
+    @Test
+    void claimsOfADeletedRoleAreRejectedNotShifted() {
+        String user = roles.encode(AuthorityUtils.createAuthorityList("ROLE_USER"));
+        // ROLE_USER deleted, ROLE_ADMIN would now take bit 0
+        AuthorityDictionary afterDelete = AuthorityDictionary.of(List.of("ROLE_ADMIN", "ROLE_AUDITOR"));
+
+        assertThatThrownBy(() -> afterDelete.decode(user))
+                .isInstanceOf(TokenValidationException.class)
+                .hasMessageContaining("another dictionary");
+    }
+
+    @Test
+    void tokensIssuedBeforeARoleWasDeletedAreRejected() throws MissingSecretException {
+        AuthTokenProvider before = provider(roles);
+        AuthTokenProvider after = provider(AuthorityDictionary.of(List.of("ROLE_ADMIN", "ROLE_AUDITOR")));
+        Authentication user = new UsernamePasswordAuthenticationToken(
+                "user@catuns.xyz", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+        String token = before.generate(user).value();
+
+        assertThatThrownBy(() -> after.validate(token)).isInstanceOf(TokenValidationException.class);
+    }
+
+    @Test
+    void rejectsMalformedClaims() {
+        assertThatThrownBy(() -> roles.decode("no-separator")).isInstanceOf(TokenValidationException.class);
+        assertThatThrownBy(() -> roles.decode(roles.getFingerprint() + ".!!"))
+                .isInstanceOf(TokenValidationException.class);
+        assertThatThrownBy(() -> roles.decode(roles.getFingerprint() + ".CA"))
+                .hasMessageContaining("Unknown authority index");
+    }
+
+    private static AuthTokenProvider provider(AuthorityDictionary dictionary) throws MissingSecretException {
+        AuthTokenProvider provider = new AuthTokenProvider(SECRET, "catuns", Duration.ofMinutes(5));
+        provider.setAuthorityDictionary(dictionary);
+        return provider;
+    }
+}
@@ -0,0 +1,54 @@
+package xyz.catuns.spring.jwt.auth.cache;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import xyz.catuns.spring.jwt.core.exception.TokenRevokedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class RejectedTokenCacheTest {
+
+    private final RejectedTokenCache cache = new RejectedTokenCache();
+
+    @Test
+    void hitThrowsNewExceptionOfTheOriginalType() {
+        ExpiredJwtException original = new ExpiredJwtException(null, null, "expired at 12:00");
+        cache.put("expired.token.value", original);
+
+        Throwable first = catchThrowable(() -> cache.check("expired.token.value"));
+        Throwable second = catchThrowable(() -> cache.check("expired.token.value"));
+
+        assertThat(first).isInstanceOf(ExpiredJwtException.class).isNotSameAs(original);
+        assertThat(second).isInstanceOf(ExpiredJwtException.class).isNotSameAs(first);
+        assertThat(first.getMessage()).doesNotContain("expired.token.value");
+    }
+
+    @Test
+    void keepsTheKindOfFailure() {
+        cache.put("forged", new SignatureException("bad signature"));
+        cache.put("superseded", new TokenRevokedException("superseded"));
+
+        assertThat(catchThrowable(() -> cache.check("forged"))).isInstanceOf(SignatureException.class);
+        assertThat(catchThrowable(() -> cache.check("superseded"))).isInstanceOf(TokenRevokedException.class);
+    }
+
+    @Test
+    void doesNotRememberTokensThatBecomeValid() {
+        cache.put("premature", new PrematureJwtException(null, null, "not yet valid"));
+        cache.put("unexpected", new IllegalStateException("unexpected"));
+
+        assertThat(cache.estimatedSize()).isZero();
+        assertThatCode(() -> cache.check("premature")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void otherTokensMiss() {
+        cache.put("rejected", new SignatureException("bad signature"));
+
+        assertThatCode(() -> cache.check("another")).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,332 @@
+package xyz.catuns.spring.jwt.auth.crypto;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.DeserializationException;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.jackson.io.JacksonDeserializer;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import xyz.catuns.spring.jwt.core.util.Base64Url;
+import xyz.catuns.spring.jwt.core.util.FlatJsonReader;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.io.InputStreamReader;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the fast path against jjwt: whatever the fast path accepts, jjwt accepts with the
+ * same claims, and the fast path never accepts a token jjwt rejects
+ */
+class HmacFastPathVerifierTest {
+
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(
+            "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+    private static final String HEADER = encode("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8));
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long NOW_SECONDS = NOW / 1000;
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+
+    private final HmacFastPathVerifier verifier = new HmacFastPathVerifier(KEY, Jwts.SIG.HS256, () -> NOW);
+    private final JwtParser parser = Jwts.parser()
+            .verifyWith(KEY)
+            .clock(() -> new Date(NOW))
+            .clockSkewSeconds(CLOCK_SKEW.toSeconds())
+            .build();
+
+    HmacFastPathVerifierTest() {
+        verifier.setAllowedClockSkew(CLOCK_SKEW);
+    }
+
+    @Test
+    void acceptsWhatJjwtAcceptsWithTheSameClaims() {
+        String token = token("{\"sub\":\"alice\",\"iss\":\"catuns\",\"iat\":%d,\"exp\":%d,\"roles\":\"USER\"}"
+                .formatted(NOW_SECONDS, NOW_SECONDS + 300));
+
+        assertFastPathAccepts(token);
+    }
+
+    @Test
+    void tamperedSignaturesAreRejected() {
+        String token = token("{\"sub\":\"alice\",\"exp\":%d}".formatted(NOW_SECONDS + 300));
+        int signature = token.lastIndexOf('.') + 1;
+
+        for (int i = signature; i < token.length(); i += 7) {
+            assertBothReject(replaceAt(token, i));
+        }
+        assertBothReject(token.substring(0, signature));
+        assertBothReject(token.substring(0, token.length() - 4));
+    }
+
+    @Test
+    void tamperedPayloadsAreRejected() {
+        String token = token("{\"sub\":\"alice\",\"exp\":%d}".formatted(NOW_SECONDS + 300));
+        String other = token("{\"sub\":\"admin\",\"exp\":%d}".formatted(NOW_SECONDS + 300));
+        String[] parts = token.split("\\.");
+
+        assertBothReject(parts[0] + "." + other.split("\\.")[1] + "." + parts[2]);
+        assertBothReject(replaceAt(token, HEADER.length() + 3));
+    }
+
+    @Test
+    void nonCanonicalBase64UrlTakesTheJjwtPath() {
+        String payload = "{\"sub\":\"alice\",\"exp\":%d}".formatted(NOW_SECONDS + 300);
+        String token = token(payload);
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        String unsigned = token.substring(0, token.lastIndexOf('.'));
+
+        // The HS256 signature ends in a character whose two low bits are not decoded
+        assertFastPathFallsBack(unsigned + "." + flipUnusedBits(signature));
+        assertFastPathFallsBack(unsigned + "." + signature + "=");
+        String padded = payload;
+        while ((encode(bytes(padded)).length() & 3) == 0) {
+            padded += " ";
+        }
+        assertFastPathFallsBack(sign(HEADER + "." + flipUnusedBits(encode(bytes(padded)))));
+        assertFastPathFallsBack(sign(HEADER + "." + encode(bytes(payload)) + "="));
+        String standardAlphabet = sign(HEADER + "." + encode(bytes(payload.replace("alice", "al>>?ice")))
+                .replace('-', '+').replace('_', '/'));
+        assertFastPathFallsBack(standardAlphabet);
+    }
+
+    @Test
+    void expirationBoundaryMatchesJjwtWithClockSkew() {
+        long lastAccepted = NOW_SECONDS - CLOCK_SKEW.toSeconds();
+
+        assertFastPathAccepts(token("{\"sub\":\"alice\",\"exp\":%d}".formatted(lastAccepted)));
+        assertBothReject(token("{\"sub\":\"alice\",\"exp\":%d}".formatted(lastAccepted - 1)));
+    }
+
+    @Test
+    void expirationBoundaryWithinASecond() {
+        HmacFastPathVerifier lateVerifier = new HmacFastPathVerifier(KEY, Jwts.SIG.HS256, () -> NOW + 999);
+        JwtParser lateParser = Jwts.parser().verifyWith(KEY).clock(() -> new Date(NOW + 999)).build();
+        String expiresNow = token("{\"sub\":\"alice\",\"exp\":%d}".formatted(NOW_SECONDS));
+
+        assertThat(lateVerifier.verify(expiresNow)).isNull();
+        assertThat(jjwt(lateParser, expiresNow)).isNull();
+    }
+
+    @Test
+    void notBeforeAndAudienceTakeTheJjwtPath() {
+        String notBefore = token("{\"sub\":\"alice\",\"nbf\":%d,\"exp\":%d}".formatted(NOW_SECONDS - 10, NOW_SECONDS + 300));
+        String audience = token("{\"sub\":\"alice\",\"aud\":\"api\",\"exp\":%d}".formatted(NOW_SECONDS + 300));
+        String future = token("{\"sub\":\"alice\",\"nbf\":%d,\"exp\":%d}".formatted(NOW_SECONDS + 120, NOW_SECONDS + 300));
+
+        assertFastPathFallsBack(notBefore);
+        assertThat(jjwt(notBefore)).isNotNull();
+        assertFastPathFallsBack(audience);
+        assertThat(jjwt(audience).getAudience()).containsExactly("api");
+        assertBothReject(future);
+    }
+
+    @Test
+    void duplicateMembersTakeTheJjwtPath() {
+        String token = token("{\"sub\":\"alice\",\"exp\":%d,\"sub\":\"admin\"}".formatted(NOW_SECONDS + 300));
+        String expiry = token("{\"sub\":\"alice\",\"exp\":%d,\"exp\":%d}".formatted(NOW_SECONDS + 300, NOW_SECONDS - 300));
+
+        assertFastPathFallsBack(token);
+        assertFastPathFallsBack(expiry);
+    }
+
+    @Test
+    void nonAsciiAndEscapesDecodeLikeJjwt() {
+        assertFastPathAccepts(token(("{\"sub\":\"\u00e5lice \u2713 \uD83D\uDE00\","
+                + "\"note\":\"q\\\" b\\\\ s\\/ \\b\\f\\n\\r\\t \\u00e9 \\uD83D\\uDE00 \\u0000\",\"exp\":%d}")
+                .formatted(NOW_SECONDS + 300)));
+        assertNeverLooserThanJjwt(token("{\"sub\":\"\\ud800\",\"exp\":%d}".formatted(NOW_SECONDS + 300)));
+    }
+
+    @Test
+    void malformedJsonNeverDisagreesWithJjwt() {
+        long exp = NOW_SECONDS + 300;
+        List<String> payloads = List.of(
+                "{\"sub\":\"alice\",\"exp\":%d,}",
+                "{\"sub\":\"al\nice\",\"exp\":%d}",
+                "{\"sub\":\"\\x\",\"exp\":%d}",
+                "{\"sub\":\"\\u12\",\"exp\":%d}",
+                "{\"sub\":alice,\"exp\":%d}",
+                "{\"sub\":\"alice\",\"exp\":0%d}",
+                "{\"sub\":\"alice\",\"exp\":%d}x",
+                "[\"alice\",%d]");
+        for (String payload : payloads) {
+            assertNeverLooserThanJjwt(token(payload.formatted(exp)));
+        }
+        byte[] invalidUtf8 = bytes("{\"sub\":\"al\u0000ice\",\"exp\":%d}".formatted(exp));
+        invalidUtf8[11] = (byte) 0xC3;
+        assertNeverLooserThanJjwt(sign(HEADER + "." + encode(invalidUtf8)));
+    }
+
+    @Test
+    void base64UrlMatchesJjwt() {
+        Random random = new Random(42);
+        for (int length = 0; length < 70; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            byte[] encoded = new byte[Base64Url.encodedLength(length)];
+            Base64Url.encode(data, 0, length, encoded, 0);
+            String text = new String(encoded, StandardCharsets.US_ASCII);
+
+            assertThat(text).isEqualTo(Encoders.BASE64URL.encode(data));
+            byte[] decoded = new byte[length];
+            assertThat(Base64Url.decode(text, 0, text.length(), decoded)).isEqualTo(length);
+            assertThat(decoded).isEqualTo(Decoders.BASE64URL.decode(text));
+        }
+    }
+
+    @Test
+    void base64UrlRejectsWhatItCannotRoundTrip() {
+        byte[] dst = new byte[8];
+        for (String text : List.of("A", "AB=", "AB+/", "AB/", "QR", "QUJ", "ABC\u00e9", "AB.C")) {
+            int length = Base64Url.decode(text, 0, text.length(), dst);
+            if (length >= 0) {
+                byte[] decoded = Arrays.copyOf(dst, length);
+                assertThat(Encoders.BASE64URL.encode(decoded)).isEqualTo(text);
+            }
+        }
+        assertThat(Base64Url.decode("QR", 0, 2, dst)).isEqualTo(-1);
+        assertThat(Base64Url.decode("QUJ", 0, 3, dst)).isEqualTo(-1);
+        assertThat(Base64Url.decode("QQ", 0, 2, dst)).isEqualTo(1);
+    }
+
+    @Test
+    void flatJsonReaderMatchesJackson() {
+        List<String> documents = List.of(
+                "{}",
+                " { \"a\" : 1 , \"b\" : -1 } ",
+                "{\"int\":2147483647,\"long\":2147483648,\"negative\":-2147483649}",
+                "{\"fraction\":1.5,\"exponent\":1e3,\"both\":-2.5E-3,\"zero\":0}",
+                "{\"t\":true,\"f\":false,\"n\":null}",
+                "{\"s\":\"\\u00e9\\n\\\"\",\"u\":\"\u00e5\u2713\"}");
+        for (String document : documents) {
+            Map<String, Object> fast = new LinkedHashMap<>();
+            assertThat(FlatJsonReader.read(bytes(document), 0, bytes(document).length, fast))
+                    .as(document).isTrue();
+            assertThat(fast).as(document).isEqualTo(jackson(document));
+        }
+    }
+
+    @Test
+    void flatJsonReaderLeavesTheRestToJackson() {
+        List<String> documents = List.of(
+                "{\"nested\":{\"a\":1}}",
+                "{\"array\":[1,2]}",
+                "{\"big\":9223372036854775808}",
+                "{\"a\":1}{",
+                "{\"a\":01}",
+                "{\"a\":1.}",
+                "{\"a\":tru}");
+        for (String document : documents) {
+            Map<String, Object> fast = new LinkedHashMap<>();
+            if (FlatJsonReader.read(bytes(document), 0, bytes(document).length, fast)) {
+                assertThat(fast).as(document).isEqualTo(jackson(document));
+            }
+        }
+    }
+
+    private void assertFastPathAccepts(String token) {
+        Claims fast = verifier.verify(token);
+        Claims full = jjwt(token);
+
+        assertThat(fast).as("fast path").isNotNull();
+        assertThat(full).as("jjwt").isNotNull();
+        assertThat(new LinkedHashMap<>(fast)).isEqualTo(new LinkedHashMap<>(full));
+    }
+
+    private void assertFastPathFallsBack(String token) {
+        assertThat(verifier.verify(token)).as("fast path").isNull();
+        assertNeverLooserThanJjwt(token);
+    }
+
+    private void assertBothReject(String token) {
+        assertThat(verifier.verify(token)).as("fast path").isNull();
+        assertThat(jjwt(token)).as("jjwt").isNull();
+    }
+
+    private void assertNeverLooserThanJjwt(String token) {
+        Claims fast = verifier.verify(token);
+        if (fast != null) {
+            Claims full = jjwt(token);
+            assertThat(full).as("jjwt accepts what the fast path accepted").isNotNull();
+            assertThat(new LinkedHashMap<>(fast)).isEqualTo(new LinkedHashMap<>(full));
+        }
+    }
+
+    private Claims jjwt(String token) {
+        return jjwt(parser, token);
+    }
+
+    private static Claims jjwt(JwtParser parser, String token) {
+        try {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, ?> jackson(String document) {
+        try {
+            return new JacksonDeserializer<Map<String, ?>>().deserialize(
+                    new InputStreamReader(new ByteArrayInputStream(bytes(document)), StandardCharsets.UTF_8));
+        } catch (DeserializationException e) {
+            return null;
+        }
+    }
+
+    private static String token(String payload) {
+        return sign(HEADER + "." + encode(bytes(payload)));
+    }
+
+    private static String sign(String signingInput) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(KEY);
+            return signingInput + "." + encode(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Flips a bit the last character of an unpadded segment carries but that is not decoded
+     */
+    private static String flipUnusedBits(String segment) {
+        int unusedBits = switch (segment.length() & 3) {
+            case 2 -> 4;
+            case 3 -> 2;
+            default -> throw new IllegalArgumentException("Segment has no unused bits: " + segment);
+        };
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        int last = alphabet.indexOf(segment.charAt(segment.length() - 1));
+        int flipped = last ^ (1 << (unusedBits - 1));
+        return segment.substring(0, segment.length() - 1) + alphabet.charAt(flipped);
+    }
+
+    private static String replaceAt(String token, int index) {
+        char c = token.charAt(index);
+        return token.substring(0, index) + (c == 'A' ? 'B' : 'A') + token.substring(index + 1);
+    }
+
+    private static String encode(byte[] bytes) {
+        return Encoders.BASE64URL.encode(bytes);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,105 @@
+package xyz.catuns.spring.jwt.auth.provider;
+
+import io.micrometer.observation.tck.TestObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import static io.micrometer.observation.tck.TestObservationRegistryAssert.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static xyz.catuns.spring.jwt.auth.observation.JwtAuthObservations.*;
+
+class UsernamePwdAuthenticationProviderObservationTest {
+
+    private final InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(
+            User.withUsername("user@catuns.xyz").password("secret").roles("USER").build());
+
+    private TestObservationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = TestObservationRegistry.create();
+    }
+
+    @Test
+    void matchingPasswordIsObservedAsMatch() {
+        provider(new PlainPasswordEncoder()).authenticate(login("secret"));
+
+        assertThat(registry)
+                .hasNumberOfObservationsEqualTo(1)
+                .hasSingleObservationThat()
+                .hasNameEqualTo(PASSWORD_CHECK)
+                .hasLowCardinalityKeyValue(OUTCOME, MATCH)
+                .doesNotHaveError()
+                .hasBeenStopped();
+    }
+
+    @Test
+    void wrongPasswordIsObservedAsMismatch() {
+        UsernamePwdAuthenticationProvider provider = provider(new PlainPasswordEncoder());
+
+        assertThatThrownBy(() -> provider.authenticate(login("guess"))).isInstanceOf(BadCredentialsException.class);
+        assertThat(registry)
+                .hasSingleObservationThat()
+                .hasNameEqualTo(PASSWORD_CHECK)
+                .hasLowCardinalityKeyValue(OUTCOME, MISMATCH)
+                .doesNotHaveError()
+                .hasBeenStopped();
+    }
+
+    @Test
+    void failingEncoderIsObservedAsError() {
+        IllegalStateException failure = new IllegalStateException("encoder unavailable");
+        UsernamePwdAuthenticationProvider provider = provider(new PlainPasswordEncoder() {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                throw failure;
+            }
+        });
+
+        assertThatThrownBy(() -> provider.authenticate(login("secret"))).isSameAs(failure);
+        assertThat(registry)
+                .hasSingleObservationThat()
+                .hasNameEqualTo(PASSWORD_CHECK)
+                .hasLowCardinalityKeyValue(OUTCOME, ERROR)
+                .hasError(failure)
+                .hasBeenStopped();
+    }
+
+    @Test
+    void usernameIsNeverTagged() {
+        provider(new PlainPasswordEncoder()).authenticate(login("secret"));
+
+        assertThat(registry)
+                .hasSingleObservationThat()
+                .doesNotHaveLowCardinalityKeyValueWithKey("username")
+                .doesNotHaveHighCardinalityKeyValueWithKey("username");
+    }
+
+    private UsernamePwdAuthenticationProvider provider(PasswordEncoder passwordEncoder) {
+        UsernamePwdAuthenticationProvider provider = new UsernamePwdAuthenticationProvider(users, passwordEncoder);
+        provider.setObservationRegistry(registry);
+        return provider;
+    }
+
+    private static UsernamePasswordAuthenticationToken login(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated("user@catuns.xyz", password);
+    }
+
+    private static class PlainPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package xyz.catuns.spring.jwt.autoconfigure;
+
+import org.springframework.web.cors.CorsConfiguration;
+import xyz.catuns.spring.jwt.security.properties.JwtSecurityProperties;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CORS configuration shared by the servlet and reactive configuration sources
+ */
+final class CorsConfigurations {
+
+    private CorsConfigurations() {
+    }
+
+    static CorsConfiguration of(JwtSecurityProperties.CorsConfig cors) {
+        CorsConfiguration config = new CorsConfiguration();
+
+        if (cors.getAllowedOrigins().length > 0) {
+            config.setAllowedOrigins(Arrays.asList(cors.getAllowedOrigins()));
+        } else {
+            config.setAllowedOriginPatterns(List.of("*"));
+        }
+
+        config.setAllowedMethods(Arrays.asList(cors.getAllowedMethods()));
+
+        if (cors.getAllowedHeaders().length > 0) {
+            config.setAllowedHeaders(Arrays.asList(cors.getAllowedHeaders()));
+        } else {
+            config.setAllowedHeaders(List.of("*"));
+        }
+
+        config.setAllowCredentials(cors.isAllowCredentials());
+        config.setMaxAge(cors.getMaxAge());
+        return config;
+    }
+}
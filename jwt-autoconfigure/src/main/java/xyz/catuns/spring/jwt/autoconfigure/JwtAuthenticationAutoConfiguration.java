@@ -1,6 +1,12 @@
 package xyz.catuns.spring.jwt.autoconfigure;
 
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
@@ -9,33 +15,54 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import xyz.catuns.spring.jwt.auth.cache.UserDetailsCache;
 import xyz.catuns.spring.jwt.auth.properties.JwtAuthProperties;
 import xyz.catuns.spring.jwt.auth.provider.UsernamePwdAuthenticationProvider;
+import xyz.catuns.spring.jwt.auth.refresh.EntityRefreshTokenProvider;
+import xyz.catuns.spring.jwt.auth.revocation.EntityTokenVersionRegistry;
 import xyz.catuns.spring.jwt.auth.service.UserEntityService;
+import xyz.catuns.spring.jwt.autoconfigure.properties.JwtProperties;
+import xyz.catuns.spring.jwt.core.RefreshTokenProvider;
+import xyz.catuns.spring.jwt.core.revocation.TokenVersionRegistry;
 import xyz.catuns.spring.jwt.domain.DomainMetadata;
+import xyz.catuns.spring.jwt.domain.entity.TokenEntity;
+import xyz.catuns.spring.jwt.domain.entity.UserEntity;
+import xyz.catuns.spring.jwt.domain.projection.UserCredentialsQuery;
+import xyz.catuns.spring.jwt.domain.repository.TokenEntityRepository;
 import xyz.catuns.spring.jwt.domain.repository.UserEntityRepository;
 
+import java.time.Duration;
+import java.util.Optional;
+
 /**
  * JWT Authentication Auto-Configuration with domain support
  */
 @Slf4j
-@AutoConfiguration
+@AutoConfiguration(
+        before = UserDetailsServiceAutoConfiguration.class,
+        afterName = "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration"
+)
 @EnableConfigurationProperties(JwtAuthProperties.class)
 @ConditionalOnClass(AuthenticationManager.class)
 @ConditionalOnProperty(prefix = "jwt.auth", name = "enabled", havingValue = "true", matchIfMissing = true)
 @ImportAutoConfiguration(exclude = UserDetailsServiceAutoConfiguration.class)
 public class JwtAuthenticationAutoConfiguration {
 
+    private final JwtAuthProperties properties;
+
     public JwtAuthenticationAutoConfiguration(JwtAuthProperties  properties) {
+        this.properties = properties;
         log.debug("Registering JwtAuthenticationAutoConfiguration {}", properties);
     }
 
@@ -51,6 +78,18 @@ public class JwtAuthenticationAutoConfiguration {
        return configuration.getAuthenticationManager();
     }
 
+    /**
+     * Cache of user snapshots, invalidated on JPA updates of users and roles
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "jwt.auth.user-cache", name = "enabled", havingValue = "true")
+    public UserDetailsCache userDetailsCache() {
+        JwtAuthProperties.UserCacheConfig userCache = properties.getUserCache();
+        log.debug("Registering UserDetailsCache {}", userCache);
+        return new UserDetailsCache(userCache.getMaximumSize(), userCache.getExpireAfter()).listenForChanges();
+    }
+
     /**
      * UserEntityService bean when domain is configured
      *
@@ -67,7 +106,10 @@ public class JwtAuthenticationAutoConfiguration {
     )
     public UserEntityService<?> userEntityService(
             UserEntityRepository<?> userEntityRepository,
-            DomainMetadata domainMetadata
+            DomainMetadata domainMetadata,
+            ObjectProvider<ObservationRegistry> observationRegistry,
+            ObjectProvider<UserDetailsCache> userCache,
+            ObjectProvider<EntityManagerFactory> entityManagerFactory
     ) {
         Class<?> domainClazz = domainMetadata.getUserRepositoryClass();
 //        if (domainClazz == Object.class) {
@@ -85,7 +127,25 @@ public class JwtAuthenticationAutoConfiguration {
         }
 
         log.info("Registering UserEntityService");
-        return new UserEntityService<>(userEntityRepository);
+        UserEntityService<?> service = new UserEntityService<>(userEntityRepository);
+        observationRegistry.ifAvailable(service::setObservationRegistry);
+        userCache.ifAvailable(service::setUserCache);
+        if (properties.isUseCredentialsQuery()) {
+            entityManagerFactory.ifAvailable(factory -> credentialsQuery(factory, domainMetadata.getUserEntityClass())
+                    .ifPresent(service::setCredentialsQuery));
+        }
+        return service;
+    }
+
+    private static Optional<UserCredentialsQuery> credentialsQuery(EntityManagerFactory factory, Class<?> userClass) {
+        if (!UserEntity.class.isAssignableFrom(userClass)) {
+            return Optional.empty();
+        }
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(factory);
+        Optional<UserCredentialsQuery> query =
+                UserCredentialsQuery.of(entityManager, userClass.asSubclass(UserEntity.class));
+        query.ifPresent(q -> log.debug("Reading users with {}", q.getJpql()));
+        return query;
     }
 
     /**
@@ -96,9 +156,66 @@ public class JwtAuthenticationAutoConfiguration {
     @ConditionalOnBean({UserEntityService.class})
     public AuthenticationProvider usernamePasswordAuthenticationProvider(
             UserEntityService<?> userDetailsService,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            ObjectProvider<ObservationRegistry> observationRegistry) {
         log.debug("Registering UsernamePwdAuthenticationProvider");
-        return new UsernamePwdAuthenticationProvider(userDetailsService, passwordEncoder);
+        UsernamePwdAuthenticationProvider provider =
+                new UsernamePwdAuthenticationProvider(userDetailsService, passwordEncoder);
+        observationRegistry.ifAvailable(provider::setObservationRegistry);
+        return provider;
+    }
+
+    /**
+     * Refresh tokens persisted through the application's TokenEntityRepository
+     */
+    @Bean
+    @ConditionalOnMissingBean(RefreshTokenProvider.class)
+    @ConditionalOnBean(TokenEntityRepository.class)
+    @ConditionalOnProperty(prefix = "jwt.security.refresh", name = "enabled", havingValue = "true")
+    public RefreshTokenProvider entityRefreshTokenProvider(
+            TokenEntityRepository<?> tokenEntityRepository,
+            EntityManagerFactory entityManagerFactory,
+            JwtProperties jwtProperties
+    ) {
+        Class<? extends TokenEntity> entityClass = entityManagerFactory.getMetamodel().getEntities().stream()
+                .map(EntityType::getJavaType)
+                .filter(TokenEntity.class::isAssignableFrom)
+                .map(type -> type.asSubclass(TokenEntity.class))
+                .reduce((a, b) -> {
+                    throw new IllegalStateException("Multiple TokenEntity classes found: %s, %s"
+                            .formatted(a.getName(), b.getName()));
+                })
+                .orElseThrow(() -> new IllegalStateException("No TokenEntity class found for refresh tokens"));
+
+        log.debug("Registering EntityRefreshTokenProvider for {}", entityClass.getName());
+        return entityRefreshTokenProvider(tokenEntityRepository, entityClass, jwtProperties.getRefreshExpiration());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends TokenEntity> RefreshTokenProvider entityRefreshTokenProvider(
+            TokenEntityRepository<E> repository,
+            Class<? extends TokenEntity> entityClass,
+            Duration expiration
+    ) {
+        Class<E> type = (Class<E>) entityClass;
+        return new EntityRefreshTokenProvider<>(repository, () -> BeanUtils.instantiateClass(type), expiration);
+    }
+
+    /**
+     * Per-user token versions stored on the application's UserEntity
+     */
+    @Bean
+    @ConditionalOnMissingBean(TokenVersionRegistry.class)
+    @ConditionalOnBean(UserEntityRepository.class)
+    @ConditionalOnProperty(prefix = "jwt.token-version", name = "enabled", havingValue = "true")
+    public TokenVersionRegistry entityTokenVersionRegistry(
+            UserEntityRepository<?> userEntityRepository,
+            JwtProperties jwtProperties
+    ) {
+        JwtProperties.TokenVersionConfig tokenVersion = jwtProperties.getTokenVersion();
+        log.debug("Registering EntityTokenVersionRegistry {}", tokenVersion);
+        return new EntityTokenVersionRegistry<>(userEntityRepository,
+                tokenVersion.getMaximumSize(), tokenVersion.getRefreshInterval());
     }
 
     /**
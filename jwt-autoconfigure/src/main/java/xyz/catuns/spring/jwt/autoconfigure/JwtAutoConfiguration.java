@@ -1,13 +1,35 @@
 package xyz.catuns.spring.jwt.autoconfigure;
 
 import lombok.extern.slf4j.Slf4j;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import xyz.catuns.spring.jwt.auth.AuthTokenProvider;
+import xyz.catuns.spring.jwt.auth.authority.AuthorityDictionary;
+import xyz.catuns.spring.jwt.auth.cache.AuthorityListCache;
+import xyz.catuns.spring.jwt.auth.cache.RejectedTokenCache;
+import xyz.catuns.spring.jwt.auth.cache.VerifiedTokenCache;
+import xyz.catuns.spring.jwt.auth.claims.ClaimProjection;
+import xyz.catuns.spring.jwt.auth.key.KeyLoader;
+import xyz.catuns.spring.jwt.auth.key.TokenKeys;
 import xyz.catuns.spring.jwt.autoconfigure.properties.JwtProperties;
 import xyz.catuns.spring.jwt.core.exception.MissingSecretException;
+import xyz.catuns.spring.jwt.core.revocation.InMemoryTokenRevocationStore;
+import xyz.catuns.spring.jwt.core.revocation.TokenRevocationStore;
+import xyz.catuns.spring.jwt.core.revocation.TokenVersionRegistry;
+import xyz.catuns.spring.jwt.core.util.TokenIds;
+import xyz.catuns.spring.jwt.domain.DomainMetadata;
+import xyz.catuns.spring.jwt.domain.entity.RoleEntity;
+
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.List;
 
 /**
  * <h1>JWT Auto-Configuration</h1>
@@ -35,8 +57,110 @@ public class JwtAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean(AuthTokenProvider.class)
-    public AuthTokenProvider defaultJwtUtil() throws MissingSecretException {
-        return new AuthTokenProvider(properties.getSecret(), properties.getIssuer(), properties.getExpiration());
+    public AuthTokenProvider defaultJwtUtil(
+            ObjectProvider<AuthorityDictionary> authorityDictionary,
+            ObjectProvider<TokenRevocationStore> revocationStore,
+            ObjectProvider<TokenVersionRegistry> tokenVersionRegistry
+    ) throws MissingSecretException {
+        AuthTokenProvider provider = new AuthTokenProvider(tokenKeys(), properties.getIssuer(), properties.getExpiration());
+        provider.setFastPathEnabled(properties.isFastPath());
+        provider.setAllowedClockSkew(properties.getClockSkew());
+        authorityDictionary.ifAvailable(provider::setAuthorityDictionary);
+        JwtProperties.ClaimsConfig claims = properties.getClaims();
+        provider.setClaimProjection(ClaimProjection.of(claims.getInclude()));
+        provider.setTokenSizeBudget(Math.toIntExact(claims.getTokenSizeBudget().toBytes()));
+        if (revocationStore.getIfAvailable() != null) {
+            provider.setTokenIdGenerator(TokenIds::random);
+        }
+        tokenVersionRegistry.ifAvailable(provider::setTokenVersionRegistry);
+        JwtProperties.CacheConfig cache = properties.getCache();
+        if (cache.isEnabled()) {
+            log.debug("Enabling verified token cache (maximumSize={})", cache.getMaximumSize());
+            provider.setTokenCache(new VerifiedTokenCache<>(cache.getMaximumSize()));
+        }
+        JwtProperties.RejectedCacheConfig rejectedCache = properties.getRejectedCache();
+        if (rejectedCache.isEnabled()) {
+            log.debug("Enabling rejected token cache (maximumSize={}, expireAfter={})",
+                    rejectedCache.getMaximumSize(), rejectedCache.getExpireAfter());
+            provider.setRejectedTokenCache(new RejectedTokenCache(rejectedCache.getMaximumSize(),
+                    rejectedCache.getExpireAfter()));
+        }
+        JwtProperties.AuthorityCacheConfig authorityCache = properties.getAuthorityCache();
+        if (authorityCache.isEnabled()) {
+            log.debug("Enabling authority list cache (maximumSize={})", authorityCache.getMaximumSize());
+            provider.setAuthorityCache(new AuthorityListCache(authorityCache.getMaximumSize()));
+        }
+        return provider;
+    }
+
+    /**
+     * In-memory revocation of tokens by jti
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "jwt.revocation", name = "enabled", havingValue = "true")
+    public TokenRevocationStore tokenRevocationStore() {
+        JwtProperties.RevocationConfig revocation = properties.getRevocation();
+        log.debug("Registering InMemoryTokenRevocationStore {}", revocation);
+        return new InMemoryTokenRevocationStore(revocation.getExpectedRevocations(),
+                revocation.getFalsePositiveRate(), revocation.getTick());
+    }
+
+    /**
+     * Authority dictionary from the configured names, or from the role entity ordered by id
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "jwt.authority-dictionary", name = "enabled", havingValue = "true")
+    public AuthorityDictionary authorityDictionary(
+            ObjectProvider<DomainMetadata> domainMetadata,
+            ObjectProvider<EntityManagerFactory> entityManagerFactory
+    ) {
+        JwtProperties.AuthorityDictionaryConfig config = properties.getAuthorityDictionary();
+        if (!config.getNames().isEmpty()) {
+            log.debug("Registering AuthorityDictionary from {} configured names", config.getNames().size());
+            return AuthorityDictionary.of(config.getNames());
+        }
+
+        DomainMetadata metadata = domainMetadata.getIfAvailable();
+        EntityManagerFactory emf = entityManagerFactory.getIfAvailable();
+        if (metadata == null || !metadata.hasRoleEntity() || emf == null) {
+            throw new IllegalStateException(
+                    "jwt.authority-dictionary.names or a roleEntityClass in @EnableJwtDomain is required");
+        }
+        List<? extends RoleEntity> roles = loadRoles(emf, metadata.getRoleEntityClass().asSubclass(RoleEntity.class));
+        log.debug("Registering AuthorityDictionary from {} roles", roles.size());
+        return AuthorityDictionary.fromAuthorities(roles);
+    }
+
+    private static <R extends RoleEntity> List<R> loadRoles(EntityManagerFactory emf, Class<R> roleClass) {
+        String entityName = emf.getMetamodel().entity(roleClass).getName();
+        try (EntityManager entityManager = emf.createEntityManager()) {
+            return entityManager
+                    .createQuery("select r from " + entityName + " r order by r.id", roleClass)
+                    .getResultList();
+        }
+    }
+
+    private TokenKeys tokenKeys() throws MissingSecretException {
+        JwtProperties.KeyConfig key = properties.getKey();
+        if (!key.isConfigured()) {
+            return TokenKeys.hmac(properties.getSecret());
+        }
+
+        if (key.getKeyStore() != null) {
+            log.debug("Loading token key pair from {}", key.getKeyStore());
+            KeyPair keyPair = KeyLoader.loadKeyPair(key.getKeyStore(), key.getKeyStoreType(),
+                    key.getKeyStorePassword(), key.getKeyAlias(), key.getKeyPassword());
+            return TokenKeys.of(keyPair.getPrivate(), keyPair.getPublic(), key.getAlgorithm());
+        }
+
+        log.debug("Loading token keys from {} and {}", key.getPrivateKey(), key.getPublicKey());
+        PublicKey publicKey = KeyLoader.loadPublicKey(key.getPublicKey());
+        PrivateKey privateKey = key.getPrivateKey() != null
+                ? KeyLoader.loadPrivateKey(key.getPrivateKey(), key.getPrivateKeyPassword())
+                : null;
+        return TokenKeys.of(privateKey, publicKey, key.getAlgorithm());
     }
 
 }
@@ -0,0 +1,167 @@
+package xyz.catuns.spring.jwt.autoconfigure;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.Authentication;
+import xyz.catuns.spring.jwt.auth.AuthTokenProvider;
+import xyz.catuns.spring.jwt.auth.metrics.MeteredTokenProvider;
+import xyz.catuns.spring.jwt.auth.metrics.MeteredTokenValidationListener;
+import xyz.catuns.spring.jwt.autoconfigure.properties.JwtProperties;
+import xyz.catuns.spring.jwt.core.revocation.InMemoryTokenRevocationStore;
+import xyz.catuns.spring.jwt.core.revocation.TokenRevocationStore;
+import xyz.catuns.spring.jwt.core.screening.ScreeningFailure;
+import xyz.catuns.spring.jwt.core.screening.TokenScreener;
+import xyz.catuns.spring.jwt.core.throttle.LoginThrottle;
+import xyz.catuns.spring.jwt.core.validator.TokenValidationListener;
+
+import java.util.Locale;
+
+import static xyz.catuns.spring.jwt.auth.metrics.MeteredTokenRevocationStore.REVOCATIONS_COUNTER;
+import static xyz.catuns.spring.jwt.auth.metrics.MeteredTokenRevocationStore.REVOKED_COUNTER;
+
+/**
+ * <h1>JWT Metrics Auto-Configuration</h1>
+ *
+ * <p>
+ * Publishes token metrics to the application's {@link MeterRegistry}:
+ * <ul>
+ *      <li>Issue and validation latency, validations by outcome and token size</li>
+ *      <li>Time spent in each validator filter stage, by outcome</li>
+ *      <li>Tokens rejected by their revoked jti</li>
+ *      <li>Tokens passed or rejected by screening, by reason</li>
+ *      <li>Login attempts allowed or throttled, by account or address</li>
+ * </ul>
+ * The metered provider is registered as the primary {@code TokenProvider<Authentication>},
+ * the filters pick it up while the {@link AuthTokenProvider} bean itself stays unchanged.
+ * Only applies when Micrometer is on classpath, a MeterRegistry bean exists and
+ * {@code jwt.metrics.enabled} is not false.
+ * </p>
+ */
+@Slf4j
+@AutoConfiguration(
+        after = JwtAutoConfiguration.class,
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"
+)
+@EnableConfigurationProperties(JwtProperties.class)
+@ConditionalOnClass({MeterRegistry.class, MeteredTokenProvider.class})
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "jwt.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JwtMetricsAutoConfiguration {
+
+    private final JwtProperties properties;
+
+    public JwtMetricsAutoConfiguration(JwtProperties properties) {
+        this.properties = properties;
+        log.debug("Registering JwtMetricsAutoConfiguration {}", properties.getMetrics());
+    }
+
+    /**
+     * Metered view of the token provider used by the filters
+     */
+    @Bean
+    @Primary
+    @ConditionalOnBean(AuthTokenProvider.class)
+    @ConditionalOnMissingBean(MeteredTokenProvider.class)
+    public MeteredTokenProvider<Authentication> meteredTokenProvider(
+            AuthTokenProvider authTokenProvider,
+            MeterRegistry meterRegistry
+    ) {
+        log.debug("Registering MeteredTokenProvider");
+        JwtProperties.MetricsConfig metrics = properties.getMetrics();
+        return new MeteredTokenProvider<>(authTokenProvider, meterRegistry,
+                metrics.getPercentiles(), metrics.isPercentileHistogram());
+    }
+
+    /**
+     * Times the screen, parse and revocation stages of the validator filters
+     */
+    @Bean
+    @ConditionalOnMissingBean(TokenValidationListener.class)
+    public MeteredTokenValidationListener meteredTokenValidationListener(MeterRegistry meterRegistry) {
+        log.debug("Registering MeteredTokenValidationListener");
+        return new MeteredTokenValidationListener(meterRegistry);
+    }
+
+    /**
+     * Publishes the {@link InMemoryTokenRevocationStore} counters as {@code jwt.tokens.revocations}
+     * and {@code jwt.tokens.revoked}, leaving the store bean itself unchanged
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "tokenRevocationStoreMetrics")
+    public MeterBinder tokenRevocationStoreMetrics(ObjectProvider<TokenRevocationStore> revocationStore) {
+        return registry -> revocationStore.ifAvailable(store -> {
+            if (!(store instanceof InMemoryTokenRevocationStore inMemory)) {
+                log.debug("Not metering {}, wrap it in MeteredTokenRevocationStore to publish its counters",
+                        store.getClass().getName());
+                return;
+            }
+            log.debug("Registering TokenRevocationStore metrics");
+            FunctionCounter.builder(REVOCATIONS_COUNTER, inMemory, InMemoryTokenRevocationStore::getRevocations)
+                    .description("Tokens revoked by jti")
+                    .register(registry);
+            FunctionCounter.builder(REVOKED_COUNTER, inMemory, InMemoryTokenRevocationStore::getRevokedHits)
+                    .description("Verified tokens rejected by their revoked jti")
+                    .register(registry);
+        });
+    }
+
+    /**
+     * Publishes the {@link TokenScreener} counters as {@code jwt.tokens.screened{outcome, reason}}
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "tokenScreenerMetrics")
+    public MeterBinder tokenScreenerMetrics(ObjectProvider<TokenScreener> tokenScreener) {
+        return registry -> tokenScreener.ifAvailable(screener -> {
+            log.debug("Registering TokenScreener metrics");
+            FunctionCounter.builder("jwt.tokens.screened", screener, TokenScreener::getPassed)
+                    .description("Tokens screened before signature verification")
+                    .tag("outcome", "passed")
+                    .tag("reason", "none")
+                    .register(registry);
+            for (ScreeningFailure failure : ScreeningFailure.values()) {
+                FunctionCounter.builder("jwt.tokens.screened", screener, s -> s.getRejected(failure))
+                        .description("Tokens screened before signature verification")
+                        .tag("outcome", "rejected")
+                        .tag("reason", failure.name().toLowerCase(Locale.ROOT))
+                        .register(registry);
+            }
+        });
+    }
+
+    /**
+     * Publishes the {@link LoginThrottle} counters as {@code jwt.logins.throttle{outcome, reason}}
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "loginThrottleMetrics")
+    public MeterBinder loginThrottleMetrics(ObjectProvider<LoginThrottle> loginThrottle) {
+        return registry -> loginThrottle.ifAvailable(throttle -> {
+            log.debug("Registering LoginThrottle metrics");
+            FunctionCounter.builder("jwt.logins.throttle", throttle, LoginThrottle::getAllowed)
+                    .description("Login attempts checked against the throttle")
+                    .tag("outcome", "allowed")
+                    .tag("reason", "none")
+                    .register(registry);
+            FunctionCounter.builder("jwt.logins.throttle", throttle, LoginThrottle::getThrottledAccounts)
+                    .description("Login attempts checked against the throttle")
+                    .tag("outcome", "throttled")
+                    .tag("reason", "account")
+                    .register(registry);
+            FunctionCounter.builder("jwt.logins.throttle", throttle, LoginThrottle::getThrottledAddresses)
+                    .description("Login attempts checked against the throttle")
+                    .tag("outcome", "throttled")
+                    .tag("reason", "address")
+                    .register(registry);
+        });
+    }
+}
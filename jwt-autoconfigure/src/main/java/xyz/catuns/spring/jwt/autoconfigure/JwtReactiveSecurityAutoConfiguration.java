@@ -0,0 +1,287 @@
+package xyz.catuns.spring.jwt.autoconfigure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveSecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.authorization.ServerAccessDeniedHandler;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import xyz.catuns.spring.jwt.core.TokenProvider;
+import xyz.catuns.spring.jwt.core.revocation.TokenRevocationStore;
+import xyz.catuns.spring.jwt.core.revocation.TokenVersionRegistry;
+import xyz.catuns.spring.jwt.core.screening.TokenScreener;
+import xyz.catuns.spring.jwt.core.throttle.KeyedRateLimiter;
+import xyz.catuns.spring.jwt.core.throttle.LoginThrottle;
+import xyz.catuns.spring.jwt.core.validator.TokenValidationListener;
+import xyz.catuns.spring.jwt.security.properties.JwtSecurityProperties;
+import xyz.catuns.spring.jwt.security.reactive.ReactiveTokenProvider;
+import xyz.catuns.spring.jwt.security.reactive.configurer.JwtReactiveFilterConfigurer;
+import xyz.catuns.spring.jwt.security.reactive.handler.JwtServerAccessDeniedHandler;
+import xyz.catuns.spring.jwt.security.reactive.handler.JwtServerAuthenticationEntryPoint;
+import xyz.catuns.spring.jwt.security.reactive.handler.JwtServerErrorWriter;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * <h1>JWT Reactive Security Auto-Configuration</h1>
+ *
+ * <p>
+ * WebFlux counterpart of {@link JwtSecurityAutoConfiguration}, conditionally configures:
+ * <ul>
+ *      <li>Security web filter chain</li>
+ *      <li>Reactive filter configurer and token provider</li>
+ *      <li>Reactive authentication manager over the UserDetailsService</li>
+ *      <li>Exception handling</li>
+ *      <li>CORS</li>
+ * </ul>
+ * Only applies when:
+ * <ul>
+ *      <li>This is a reactive web application</li>
+ *      <li>jwt-security-reactive is on classpath</li>
+ *      <li>JWT security is enabled via properties</li>
+ * </ul>
+ * </p>
+ */
+@Slf4j
+@AutoConfiguration(before = {ReactiveSecurityAutoConfiguration.class, ReactiveUserDetailsServiceAutoConfiguration.class})
+@EnableWebFluxSecurity
+@EnableConfigurationProperties(JwtSecurityProperties.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnClass({ServerHttpSecurity.class, JwtReactiveFilterConfigurer.class})
+@ConditionalOnProperty(prefix = "jwt.security", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JwtReactiveSecurityAutoConfiguration {
+
+    private final JwtSecurityProperties properties;
+
+    public JwtReactiveSecurityAutoConfiguration(JwtSecurityProperties properties) {
+        this.properties = properties;
+        log.debug("Registering JwtReactiveSecurityAutoConfiguration {}", properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JwtServerErrorWriter jwtServerErrorWriter() {
+        return new JwtServerErrorWriter(properties);
+    }
+
+    /**
+     * Default JWT authentication entry point
+     * Handles 401 Unauthorized responses
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "jwtServerAuthenticationEntryPoint")
+    public ServerAuthenticationEntryPoint jwtServerAuthenticationEntryPoint(JwtServerErrorWriter errorWriter) {
+        log.debug("Registering ServerAuthenticationEntryPoint");
+        return new JwtServerAuthenticationEntryPoint(errorWriter);
+    }
+
+    /**
+     * Default JWT access denied handler
+     * Handles 403 Forbidden responses
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "jwtServerAccessDeniedHandler")
+    public ServerAccessDeniedHandler jwtServerAccessDeniedHandler(JwtServerErrorWriter errorWriter) {
+        log.debug("Registering ServerAccessDeniedHandler");
+        return new JwtServerAccessDeniedHandler(errorWriter);
+    }
+
+    /**
+     * Token provider adapter verifying tokens off the event loop, on the bounded elastic
+     * scheduler when a token version registry or revocation store may block verification
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ReactiveTokenProvider<Authentication> reactiveTokenProvider(
+            TokenProvider<Authentication> tokenProvider,
+            ObjectProvider<TokenVersionRegistry> tokenVersionRegistry,
+            ObjectProvider<TokenRevocationStore> revocationStore
+    ) {
+        if (tokenVersionRegistry.getIfAvailable() != null || revocationStore.getIfAvailable() != null) {
+            log.debug("Registering ReactiveTokenProvider on the bounded elastic scheduler");
+            return new ReactiveTokenProvider<>(tokenProvider, Schedulers.boundedElastic());
+        }
+        log.debug("Registering ReactiveTokenProvider");
+        return new ReactiveTokenProvider<>(tokenProvider);
+    }
+
+    /**
+     * Authenticates logins against the blocking UserDetailsService on the bounded elastic scheduler
+     */
+    @Bean
+    @ConditionalOnMissingBean({ReactiveAuthenticationManager.class, ReactiveUserDetailsService.class})
+    @ConditionalOnBean(UserDetailsService.class)
+    public ReactiveAuthenticationManager jwtReactiveAuthenticationManager(
+            UserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder
+    ) {
+        log.debug("Registering ReactiveAuthenticationManager");
+        ReactiveUserDetailsService reactiveUserDetailsService = username -> Mono
+                .fromCallable(() -> userDetailsService.loadUserByUsername(username))
+                .subscribeOn(Schedulers.boundedElastic());
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(reactiveUserDetailsService);
+        manager.setPasswordEncoder(passwordEncoder);
+        return manager;
+    }
+
+    /**
+     * Default CORS configuration source
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "jwt.security.cors", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public CorsConfigurationSource reactiveCorsConfigurationSource() {
+        log.debug("Registering reactive CorsConfigurationSource");
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", CorsConfigurations.of(properties.getCors()));
+        return source;
+    }
+
+    /**
+     * Structural token screening ahead of the validator, with the clock skew of the token provider
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "jwt.security.screening", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TokenScreener tokenScreener(ObjectProvider<TokenProvider<Authentication>> tokenProvider) {
+        log.debug("Registering TokenScreener");
+        JwtSecurityProperties.ScreeningConfig screening = properties.getScreening();
+        TokenProvider<Authentication> provider = tokenProvider.getIfAvailable();
+        Duration clockSkew = provider != null ? provider.getAllowedClockSkew() : Duration.ZERO;
+        return new TokenScreener(screening.getMaxLength(), List.of(screening.getAlgorithms()),
+                List.of(screening.getKeyIds()), List.of(screening.getIssuers()), clockSkew);
+    }
+
+    /**
+     * Throttling of HTTP basic logins per account and client address
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "jwt.security.login-throttle", name = "enabled", havingValue = "true")
+    public LoginThrottle loginThrottle() {
+        log.debug("Registering LoginThrottle");
+        JwtSecurityProperties.LoginThrottleConfig throttle = properties.getLoginThrottle();
+        return new LoginThrottle(
+                new KeyedRateLimiter(throttle.getAccountCapacity(), throttle.getAccountRefillPeriod(), throttle.getMaxKeys()),
+                new KeyedRateLimiter(throttle.getAddressCapacity(), throttle.getAddressRefillPeriod(), throttle.getMaxKeys()));
+    }
+
+    /**
+     * Default reactive JWT Filter configurer
+     */
+    @Bean
+    @ConditionalOnMissingBean(JwtReactiveFilterConfigurer.class)
+    public JwtReactiveFilterConfigurer reactiveFilterConfigurer(
+            ReactiveTokenProvider<Authentication> reactiveTokenProvider,
+            ServerAuthenticationEntryPoint jwtServerAuthenticationEntryPoint,
+            ServerAccessDeniedHandler jwtServerAccessDeniedHandler,
+            JwtServerErrorWriter errorWriter,
+            ObjectProvider<TokenRevocationStore> revocationStore,
+            ObjectProvider<TokenScreener> tokenScreener,
+            ObjectProvider<TokenValidationListener> validationListener,
+            ObjectProvider<LoginThrottle> loginThrottle
+    ) {
+        log.debug("Registering JwtReactiveFilterConfigurer");
+        JwtReactiveFilterConfigurer configurer = new JwtReactiveFilterConfigurer(reactiveTokenProvider);
+        revocationStore.ifAvailable(configurer::revocationStore);
+        tokenScreener.ifAvailable(configurer::tokenScreener);
+        validationListener.ifAvailable(configurer::validationListener);
+        loginThrottle.ifAvailable(configurer::loginThrottle);
+        JwtSecurityProperties.FilterConfig filter = properties.getFilter();
+        if (!filter.isValidator()) {
+            configurer.disableValidator();
+        }
+        if (!filter.isGenerator()) {
+            configurer.disableGenerator();
+        }
+        if (!filter.isExceptionHandler()) {
+            configurer.disableExceptionHandler();
+        }
+        return configurer
+                .validatorHeaderName(properties.getValidation().getHeaderName())
+                .validatorTokenPrefix(properties.getValidation().getTokenPrefix())
+                .generatorTokenHeader(properties.getGeneration().getHeaderName())
+                .generatorTokenPrefix(properties.getGeneration().getTokenPrefix())
+                .generatorExpirationHeader(properties.getGeneration().getExpirationHeaderName())
+                .loginPaths(List.of(properties.getGeneration().getLoginPaths()))
+                .authenticationEntryPoint(jwtServerAuthenticationEntryPoint)
+                .accessDeniedHandler(jwtServerAccessDeniedHandler)
+                .errorWriter(errorWriter);
+    }
+
+    /**
+     * Default JWT Security Web Filter Chain
+     * Stateless, HTTP basic logins receive a token from the generator filter when enabled
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "jwtSecurityWebFilterChain")
+    @ConditionalOnProperty(prefix = "jwt.security.filter", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SecurityWebFilterChain jwtSecurityWebFilterChain(
+            ServerHttpSecurity http,
+            JwtReactiveFilterConfigurer filterConfigurer,
+            ServerAuthenticationEntryPoint jwtServerAuthenticationEntryPoint,
+            ServerAccessDeniedHandler jwtServerAccessDeniedHandler,
+            ObjectProvider<ReactiveAuthenticationManager> authenticationManager,
+            ObjectProvider<CorsConfigurationSource> corsConfigurationSource
+    ) {
+        log.debug("Registering SecurityWebFilterChain");
+        // HTTP basic logins only when enabled, services without an authentication manager
+        // only validate tokens
+        ReactiveAuthenticationManager manager = properties.getHttpBasic().isEnabled()
+                ? authenticationManager.getIfAvailable() : null;
+        if (manager == null) {
+            filterConfigurer.disableLoginThrottle();
+        }
+        filterConfigurer.configure(http);
+
+        if (properties.getCors().isEnabled() && corsConfigurationSource.getIfAvailable() != null) {
+            http.cors(cors -> cors.configurationSource(corsConfigurationSource.getObject()));
+        } else {
+            http.cors(ServerHttpSecurity.CorsSpec::disable);
+        }
+
+        http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(jwtServerAuthenticationEntryPoint)
+                        .accessDeniedHandler(jwtServerAccessDeniedHandler));
+
+        if (manager != null) {
+            http.httpBasic(basic -> basic
+                    .authenticationManager(manager)
+                    .authenticationEntryPoint(jwtServerAuthenticationEntryPoint));
+        } else {
+            http.httpBasic(ServerHttpSecurity.HttpBasicSpec::disable);
+        }
+
+        http.authorizeExchange(exchanges -> {
+            String[] publicPaths = properties.getPublicPaths();
+            if (publicPaths.length > 0) {
+                exchanges.pathMatchers(publicPaths).permitAll();
+            }
+            exchanges.anyExchange().authenticated();
+        });
+        return http.build();
+    }
+}
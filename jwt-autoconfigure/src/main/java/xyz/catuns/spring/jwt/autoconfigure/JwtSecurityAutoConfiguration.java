@@ -1,33 +1,44 @@
 package xyz.catuns.spring.jwt.autoconfigure;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.DefaultSecurityFilterChain;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.AccessDeniedHandler;
-import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import xyz.catuns.spring.jwt.security.properties.JwtSecurityProperties;
 import xyz.catuns.spring.jwt.security.OrderedSecurityFilterChain;
+import xyz.catuns.spring.jwt.core.RefreshTokenProvider;
 import xyz.catuns.spring.jwt.core.TokenProvider;
+import xyz.catuns.spring.jwt.core.revocation.TokenRevocationStore;
+import xyz.catuns.spring.jwt.core.screening.TokenScreener;
+import xyz.catuns.spring.jwt.core.throttle.KeyedRateLimiter;
+import xyz.catuns.spring.jwt.core.throttle.LoginThrottle;
+import xyz.catuns.spring.jwt.core.validator.TokenValidationListener;
 import xyz.catuns.spring.jwt.security.exception.handler.JwtAccessDeniedHandler;
 import xyz.catuns.spring.jwt.security.exception.handler.JwtAuthenticationEntryPoint;
+import xyz.catuns.spring.jwt.security.exception.handler.JwtErrorResponseWriter;
 import xyz.catuns.spring.jwt.security.configurer.JwtExceptionHandlingConfigurer;
 import xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer;
 import xyz.catuns.spring.jwt.security.configurer.JwtSecurityConfigurer;
 
-import java.util.Arrays;
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -43,7 +54,7 @@ import java.util.List;
  * </ul>
  * Only applies when:
  * <ul>
- *      <li>This is a web application</li>
+ *      <li>This is a servlet web application</li>
  *      <li>Spring Security is on classpath</li>
  *      <li>JWT security is enabled via properties</li>
  *      <li>JwtUtil bean exists</li>
@@ -51,9 +62,9 @@ import java.util.List;
  * </p>
  */
 @Slf4j
-@AutoConfiguration
+@AutoConfiguration(before = {SecurityAutoConfiguration.class, UserDetailsServiceAutoConfiguration.class})
 @EnableConfigurationProperties(JwtSecurityProperties.class)
-@ConditionalOnWebApplication
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @ConditionalOnClass(HttpSecurity.class)
 @ConditionalOnProperty(prefix = "jwt.security", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class JwtSecurityAutoConfiguration {
@@ -65,15 +76,24 @@ public class JwtSecurityAutoConfiguration {
         log.debug("Registering JwtSecurityAutoConfiguration {}", properties);
     }
 
+    /**
+     * Writes JSON error responses from pre-encoded bodies
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public JwtErrorResponseWriter jwtErrorResponseWriter() {
+        return new JwtErrorResponseWriter(properties);
+    }
+
     /**
      * Default JWT authentication entry point
      * Handles 401 Unauthorized responses
      */
     @Bean
     @ConditionalOnMissingBean(name = "jwtAuthenticationEntryPoint")
-    public AuthenticationEntryPoint jwtAuthenticationEntryPoint(ObjectMapper objectMapper) {
+    public AuthenticationEntryPoint jwtAuthenticationEntryPoint(JwtErrorResponseWriter errorWriter) {
         log.debug("Registering AuthenticationEntryPoint");
-        return new JwtAuthenticationEntryPoint(objectMapper, properties);
+        return new JwtAuthenticationEntryPoint(errorWriter);
     }
 
     /**
@@ -82,48 +102,57 @@ public class JwtSecurityAutoConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean(name = "jwtAccessDeniedHandler")
-    public AccessDeniedHandler jwtAccessDeniedHandler(ObjectMapper objectMapper) {
+    public AccessDeniedHandler jwtAccessDeniedHandler(JwtErrorResponseWriter errorWriter) {
         log.debug("Registering AccessDeniedHandler");
-        return new JwtAccessDeniedHandler(objectMapper, properties);
+        return new JwtAccessDeniedHandler(errorWriter);
     }
 
     /**
-     * Default CORS configuration source
+     * Default CORS configuration source, backs off on a bean of the name the filter chain
+     * injects only. Spring MVC's handler mapping introspector is a CorsConfigurationSource too
      */
     @Bean
-    @ConditionalOnMissingBean
+    @ConditionalOnMissingBean(name = "corsConfigurationSource")
     @ConditionalOnProperty(prefix = "jwt.security.cors", name = "enabled", havingValue = "true", matchIfMissing = true)
     public CorsConfigurationSource corsConfigurationSource(JwtSecurityProperties properties) {
         if (!properties.getCors().isEnabled()) {
             return request -> null;
         }
         log.debug("Registering CorsConfigurationSource");
-        CorsConfiguration config = new CorsConfiguration();
-
-        JwtSecurityProperties.CorsConfig cors = properties.getCors();
-
-        if (cors.getAllowedOrigins().length > 0) {
-            config.setAllowedOrigins(Arrays.asList(cors.getAllowedOrigins()));
-        } else {
-            config.setAllowedOriginPatterns(List.of("*"));
-        }
-
-        config.setAllowedMethods(Arrays.asList(cors.getAllowedMethods()));
-
-        if (cors.getAllowedHeaders().length > 0) {
-            config.setAllowedHeaders(Arrays.asList(cors.getAllowedHeaders()));
-        } else {
-            config.setAllowedHeaders(List.of("*"));
-        }
-
-        config.setAllowCredentials(cors.isAllowCredentials());
-        config.setMaxAge(cors.getMaxAge());
-
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        source.registerCorsConfiguration("/**", config);
+        source.registerCorsConfiguration("/**", CorsConfigurations.of(properties.getCors()));
         return source;
     }
 
+    /**
+     * Structural token screening ahead of the validator, with the clock skew of the token provider
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "jwt.security.screening", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TokenScreener tokenScreener(ObjectProvider<TokenProvider<Authentication>> tokenProvider) {
+        log.debug("Registering TokenScreener");
+        JwtSecurityProperties.ScreeningConfig screening = properties.getScreening();
+        TokenProvider<Authentication> provider = tokenProvider.getIfAvailable();
+        Duration clockSkew = provider != null ? provider.getAllowedClockSkew() : Duration.ZERO;
+        return new TokenScreener(screening.getMaxLength(), List.of(screening.getAlgorithms()),
+                List.of(screening.getKeyIds()), List.of(screening.getIssuers()), clockSkew);
+    }
+
+    /**
+     * Throttling of HTTP basic logins per account and client address
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "jwt.security.login-throttle", name = "enabled", havingValue = "true")
+    public LoginThrottle loginThrottle() {
+        log.debug("Registering LoginThrottle");
+        JwtSecurityProperties.LoginThrottleConfig throttle = properties.getLoginThrottle();
+        return new LoginThrottle(
+                new KeyedRateLimiter(throttle.getAccountCapacity(), throttle.getAccountRefillPeriod(), throttle.getMaxKeys()),
+                new KeyedRateLimiter(throttle.getAddressCapacity(), throttle.getAddressRefillPeriod(), throttle.getMaxKeys()));
+    }
+
     /**
      * Default JWT Filter configurer
      */
@@ -131,16 +160,41 @@ public class JwtSecurityAutoConfiguration {
     @ConditionalOnMissingBean(JwtFilterConfigurer.class)
     public JwtFilterConfigurer filterConfigurer(
             TokenProvider<Authentication> tokenProvider,
-            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver,
+            JwtErrorResponseWriter errorWriter,
+            ObjectProvider<RefreshTokenProvider> refreshTokenProvider,
+            ObjectProvider<UserDetailsService> userDetailsService,
+            ObjectProvider<TokenRevocationStore> revocationStore,
+            ObjectProvider<TokenScreener> tokenScreener,
+            ObjectProvider<TokenValidationListener> validationListener,
+            ObjectProvider<LoginThrottle> loginThrottle,
+            ObjectProvider<ObservationRegistry> observationRegistry
     ) {
         log.debug("Registering JwtFilterConfigurer");
-        return new JwtFilterConfigurer(tokenProvider)
+        JwtFilterConfigurer configurer = new JwtFilterConfigurer(tokenProvider);
+        revocationStore.ifAvailable(configurer::revocationStore);
+        tokenScreener.ifAvailable(configurer::tokenScreener);
+        validationListener.ifAvailable(configurer::validationListener);
+        loginThrottle.ifAvailable(configurer::loginThrottle);
+        observationRegistry.ifAvailable(configurer::observationRegistry);
+        JwtSecurityProperties.RefreshConfig refresh = properties.getRefresh();
+        if (refresh.isEnabled()) {
+            configurer.refreshTokenProvider(refreshTokenProvider.getObject())
+                    .userDetailsService(userDetailsService.getObject())
+                    .refreshPath(refresh.getPath())
+                    .refreshHeaderName(refresh.getHeaderName())
+                    .refreshExpirationHeader(refresh.getExpirationHeaderName());
+        }
+        return configurer
                 .validatorHeaderName(properties.getValidation().getHeaderName())
                 .validatorTokenPrefix(properties.getValidation().getTokenPrefix())
                 .generatorTokenHeader(properties.getGeneration().getHeaderName())
                 .generatorTokenPrefix(properties.getGeneration().getTokenPrefix())
                 .generatorExpirationHeader(properties.getGeneration().getExpirationHeaderName())
-                .exceptionResolver(resolver);
+                .loginPaths(List.of(properties.getGeneration().getLoginPaths()))
+                .exceptionResolver(resolver)
+                .errorWriter(errorWriter)
+                .directWrite(properties.getException().isDirectWrite());
     }
 
     /**
@@ -150,11 +204,13 @@ public class JwtSecurityAutoConfiguration {
     @ConditionalOnMissingBean(JwtExceptionHandlingConfigurer.class)
     public JwtExceptionHandlingConfigurer JwtExceptionHandlingConfigurer(
             AccessDeniedHandler jwtAccessDeniedHandler,
-            AuthenticationEntryPoint jwtAuthenticationEntryPoint
+            AuthenticationEntryPoint jwtAuthenticationEntryPoint,
+            JwtErrorResponseWriter errorWriter
     ) {
         log.debug("Registering JwtExceptionHandlingConfigurer");
         return new JwtExceptionHandlingConfigurer()
                 .properties(properties)
+                .errorWriter(errorWriter)
                 .accessDeniedHandler(jwtAccessDeniedHandler)
                 .authenticationEntryPoint(jwtAuthenticationEntryPoint);
     }
@@ -168,10 +224,13 @@ public class JwtSecurityAutoConfiguration {
             HttpSecurity http,
             JwtFilterConfigurer filterConfigurer,
             JwtExceptionHandlingConfigurer exceptionConfigurer,
-            @Qualifier("corsConfigurationSource") CorsConfigurationSource corsConfigurationSource
+            @Qualifier("corsConfigurationSource") CorsConfigurationSource corsConfigurationSource,
+            AuthenticationEntryPoint jwtAuthenticationEntryPoint
     ) throws Exception {
 
         log.debug("Registering SecurityFilterChain");
+        // HTTP basic logins receive a token from the generator filter, only when enabled
+        boolean httpBasic = properties.getHttpBasic().isEnabled();
         // Apply JWT configurer
         http.with(JwtSecurityConfigurer.jwt(), jwt -> {
             jwt.exceptionConfigurer(() -> exceptionConfigurer);
@@ -186,8 +245,17 @@ public class JwtSecurityAutoConfiguration {
             if (!properties.getFilter().isExceptionHandler()) {
                 jwt.disableExceptionHandler();
             }
+            if (httpBasic) {
+                jwt.generatorAfter(BasicAuthenticationFilter.class);
+            } else {
+                jwt.disableLoginThrottle();
+            }
         });
 
+        if (httpBasic) {
+            http.httpBasic(basic -> basic.authenticationEntryPoint(jwtAuthenticationEntryPoint));
+        }
+
 
         if (properties.getCors().isEnabled()) {
             http.cors(cors -> cors
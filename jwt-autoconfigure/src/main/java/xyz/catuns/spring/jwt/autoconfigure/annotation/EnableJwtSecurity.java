@@ -1,7 +1,8 @@
 package xyz.catuns.spring.jwt.autoconfigure.annotation;
 
-import org.springframework.context.annotation.Import;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import xyz.catuns.spring.jwt.autoconfigure.JwtAuthenticationAutoConfiguration;
+import xyz.catuns.spring.jwt.autoconfigure.JwtReactiveSecurityAutoConfiguration;
 import xyz.catuns.spring.jwt.autoconfigure.JwtSecurityAutoConfiguration;
 
 import java.lang.annotation.*;
@@ -24,9 +25,10 @@ import java.lang.annotation.*;
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Import({
+@ImportAutoConfiguration({
         JwtSecurityAutoConfiguration.class,
-        JwtAuthenticationAutoConfiguration.class
+        JwtAuthenticationAutoConfiguration.class,
+        JwtReactiveSecurityAutoConfiguration.class
 })
 public @interface EnableJwtSecurity {
 }
@@ -2,8 +2,14 @@ package xyz.catuns.spring.jwt.autoconfigure.properties;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+import xyz.catuns.spring.jwt.auth.cache.RejectedTokenCache;
+import xyz.catuns.spring.jwt.auth.claims.ClaimProjection;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Properties for Jwt
@@ -27,9 +33,219 @@ public class JwtProperties {
      * Jwt secret key
      */
     private String secret;
+    /**
+     * Asymmetric signing key configuration, takes precedence over {@link #secret}
+     */
+    private KeyConfig key = new KeyConfig();
     /**
      * Expiration duration of auth tokens
      */
     private Duration expiration = Duration.ofHours(10);
+    /**
+     * Expiration duration of refresh tokens
+     */
+    private Duration refreshExpiration = Duration.ofDays(7);
+    /**
+     * Leeway on exp and nbf when validating tokens, in whole seconds, also applied by screening
+     */
+    private Duration clockSkew = Duration.ZERO;
+    /**
+     * Verify HMAC tokens on the allocation-light fast path, falling back to jjwt for anything unusual
+     */
+    private boolean fastPath = true;
+    /**
+     * Verified token cache configuration
+     */
+    private CacheConfig cache = new CacheConfig();
+    /**
+     * Rejected token cache configuration
+     */
+    private RejectedCacheConfig rejectedCache = new RejectedCacheConfig();
+    /**
+     * Authority dictionary configuration
+     */
+    private AuthorityDictionaryConfig authorityDictionary = new AuthorityDictionaryConfig();
+    /**
+     * Decoded authority list cache configuration
+     */
+    private AuthorityCacheConfig authorityCache = new AuthorityCacheConfig();
+    /**
+     * Principal claim projection
+     */
+    private ClaimsConfig claims = new ClaimsConfig();
+    /**
+     * Token revocation configuration
+     */
+    private RevocationConfig revocation = new RevocationConfig();
+    /**
+     * Per-user token version configuration
+     */
+    private TokenVersionConfig tokenVersion = new TokenVersionConfig();
+    /**
+     * Micrometer metrics configuration
+     */
+    private MetricsConfig metrics = new MetricsConfig();
+
+    @Data
+    public static class KeyConfig {
+        /**
+         * Signature algorithm (RS256, ES256, EdDSA, ...), inferred from the key when not set
+         */
+        private String algorithm;
+        /**
+         * PEM encoded private key, omit to only verify tokens
+         */
+        private Resource privateKey;
+        /**
+         * Password of an encrypted PEM private key
+         */
+        private String privateKeyPassword;
+        /**
+         * PEM encoded public key or certificate
+         */
+        private Resource publicKey;
+        /**
+         * Key store holding the key pair, used instead of PEM files
+         */
+        private Resource keyStore;
+        /**
+         * Key store type
+         */
+        private String keyStoreType = "PKCS12";
+        /**
+         * Key store password
+         */
+        private String keyStorePassword;
+        /**
+         * Alias of the key pair, the first key entry when not set
+         */
+        private String keyAlias;
+        /**
+         * Password of the key entry, the key store password when not set
+         */
+        private String keyPassword;
+
+        public boolean isConfigured() {
+            return keyStore != null || publicKey != null;
+        }
+    }
+
+    @Data
+    public static class CacheConfig {
+        /**
+         * Cache verified tokens until they expire
+         */
+        private boolean enabled = false;
+        /**
+         * Maximum number of cached tokens
+         */
+        private long maximumSize = 10_000;
+    }
+
+    @Data
+    public static class RejectedCacheConfig {
+        /**
+         * Reject retries of recently rejected tokens with one lookup
+         */
+        private boolean enabled = false;
+        /**
+         * Maximum number of remembered tokens
+         */
+        private long maximumSize = RejectedTokenCache.DEFAULT_MAXIMUM_SIZE;
+        /**
+         * How long a rejection is remembered
+         */
+        private Duration expireAfter = RejectedTokenCache.DEFAULT_EXPIRE_AFTER;
+    }
+
+    @Data
+    public static class AuthorityDictionaryConfig {
+        /**
+         * Encode authorities as a bitset against a dictionary of names. Tokens carry a
+         * fingerprint of the names and are rejected once the names change
+         */
+        private boolean enabled = false;
+        /**
+         * Authority names in bit order, loaded from the role entity ordered by id when empty
+         */
+        private List<String> names = new ArrayList<>();
+    }
+
+    @Data
+    public static class AuthorityCacheConfig {
+        /**
+         * Share decoded authority lists between tokens with the same authorities claim
+         */
+        private boolean enabled = true;
+        /**
+         * Maximum number of distinct authorities claims
+         */
+        private long maximumSize = 1_000;
+    }
+
+    @Data
+    public static class ClaimsConfig {
+        /**
+         * Principal attributes written as claims next to the username
+         */
+        private List<ClaimProjection.Attribute> include = new ArrayList<>();
+        /**
+         * Log a warning for larger tokens, disabled when zero
+         */
+        private DataSize tokenSizeBudget = DataSize.ofKilobytes(4);
+    }
+
+    @Data
+    public static class RevocationConfig {
+        /**
+         * Write a jti claim and reject revoked tokens, revocations are local to each instance
+         */
+        private boolean enabled = false;
+        /**
+         * Live revocations the Bloom filter is sized for
+         */
+        private long expectedRevocations = 10_000;
+        /**
+         * Bloom filter false positive rate
+         */
+        private double falsePositiveRate = 0.001;
+        /**
+         * Resolution of revocation expiry
+         */
+        private Duration tick = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class TokenVersionConfig {
+        /**
+         * Write a per-user version claim, bumping the version invalidates every token of the user
+         */
+        private boolean enabled = false;
+        /**
+         * Maximum number of cached user versions
+         */
+        private long maximumSize = 10_000;
+        /**
+         * How long a cached version is trusted before it is read again, bounds how late
+         * other instances see a bump
+         */
+        private Duration refreshInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class MetricsConfig {
+        /**
+         * Record token metrics when a MeterRegistry is available
+         */
+        private boolean enabled = true;
+        /**
+         * Client side percentiles published for the timers and the token size
+         */
+        private double[] percentiles = {0.5, 0.95, 0.99};
+        /**
+         * Publish histogram buckets so the monitoring system can aggregate percentiles
+         */
+        private boolean percentileHistogram = false;
+    }
 
 }
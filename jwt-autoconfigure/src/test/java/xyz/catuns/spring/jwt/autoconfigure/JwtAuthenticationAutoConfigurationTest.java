@@ -0,0 +1,111 @@
+package xyz.catuns.spring.jwt.autoconfigure;
+
+import jakarta.persistence.Entity;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import xyz.catuns.spring.jwt.auth.service.UserEntityService;
+import xyz.catuns.spring.jwt.autoconfigure.annotation.EnableJwtDomain;
+import xyz.catuns.spring.jwt.autoconfigure.annotation.EnableJwtSecurity;
+import xyz.catuns.spring.jwt.domain.DomainMetadata;
+import xyz.catuns.spring.jwt.domain.entity.RoleEntity;
+import xyz.catuns.spring.jwt.domain.entity.UserEntity;
+import xyz.catuns.spring.jwt.domain.repository.UserEntityRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationAutoConfigurationTest {
+
+    // Imported like auto-configuration is, so that it is ordered together with @EnableJwtSecurity
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withUserConfiguration(BootAutoConfiguration.class)
+            .withPropertyValues("jwt.secret=0123456789abcdef0123456789abcdef");
+
+    @Test
+    void domainRepositoryBacksTheUserDetailsService() {
+        contextRunner.withUserConfiguration(DomainApplication.class).run(context -> {
+            assertThat(context).hasSingleBean(DomainMetadata.class);
+            assertThat(context).getBean(UserDetailsService.class).isInstanceOf(UserEntityService.class);
+            assertThat(context).hasSingleBean(SecurityFilterChain.class);
+        });
+    }
+
+    @Test
+    void corsSourceOfAnotherNameKeepsTheDefault() {
+        contextRunner.withUserConfiguration(DomainApplication.class, ApiCorsConfiguration.class).run(context -> {
+            assertThat(context).hasBean("corsConfigurationSource");
+            assertThat(context).hasSingleBean(SecurityFilterChain.class);
+        });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({
+            JwtAutoConfiguration.class,
+            SecurityAutoConfiguration.class,
+            UserDetailsServiceAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class
+    })
+    static class BootAutoConfiguration {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableJwtSecurity
+    @EnableJwtDomain(
+            userEntityClass = TestUser.class,
+            roleEntityClass = TestRole.class,
+            userRepositoryClass = TestUserRepository.class
+    )
+    static class DomainApplication {
+
+        @Bean
+        TestUserRepository testUserRepository() {
+            return (TestUserRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{TestUserRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        case "toString" -> "TestUserRepository";
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ApiCorsConfiguration {
+
+        @Bean
+        CorsConfigurationSource apiCorsConfigurationSource() {
+            return new UrlBasedCorsConfigurationSource();
+        }
+    }
+
+    interface TestUserRepository extends UserEntityRepository<TestUser> {
+    }
+
+    @Entity
+    static class TestUser extends UserEntity {
+
+        @Override
+        public Collection<TestRole> getRoles() {
+            return List.of();
+        }
+    }
+
+    @Entity
+    static class TestRole extends RoleEntity {
+    }
+}
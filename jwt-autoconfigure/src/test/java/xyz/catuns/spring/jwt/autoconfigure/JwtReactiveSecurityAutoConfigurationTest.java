@@ -0,0 +1,226 @@
+package xyz.catuns.spring.jwt.autoconfigure;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.codec.CodecsAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveSecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.WebFluxAutoConfiguration;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import xyz.catuns.spring.jwt.auth.AuthTokenProvider;
+import xyz.catuns.spring.jwt.autoconfigure.annotation.EnableJwtSecurity;
+import xyz.catuns.spring.jwt.core.revocation.TokenRevocationStore;
+import xyz.catuns.spring.jwt.core.revocation.TokenVersionRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtReactiveSecurityAutoConfigurationTest {
+
+    // Imported like auto-configuration is, so that it is ordered together with @EnableJwtSecurity
+    private final ReactiveWebApplicationContextRunner contextRunner = new ReactiveWebApplicationContextRunner()
+            .withUserConfiguration(BootAutoConfiguration.class, TestApplication.class)
+            .withPropertyValues(
+                    "jwt.secret=0123456789abcdef0123456789abcdef",
+                    "jwt.issuer=catuns",
+                    "jwt.security.http-basic.enabled=true");
+
+    @Test
+    void validTokenSetsTheReactiveSecurityContext() {
+        contextRunner.run(context -> {
+            String token = login(client(context));
+
+            client(context).get().uri("/api/me")
+                    .header("Authorization", token)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class).isEqualTo("alice");
+        });
+    }
+
+    @Test
+    void loginWritesTheTokenHeaders() {
+        contextRunner.run(context -> client(context).post().uri("/auth/login")
+                .headers(headers -> headers.setBasicAuth("alice", "secret"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueMatches("Authorization", "Bearer .+")
+                .expectHeader().exists("x-token-expiration"));
+    }
+
+    @Test
+    void expiredTokenIsUnauthorized() {
+        contextRunner.run(context -> {
+            AuthTokenProvider expired = new AuthTokenProvider(
+                    "0123456789abcdef0123456789abcdef", "catuns", Duration.ofMinutes(-5));
+            String token = expired.generate(new UsernamePasswordAuthenticationToken(
+                    "alice", null, AuthorityUtils.createAuthorityList("ROLE_USER"))).value();
+
+            expectUnauthorized(client(context), "Bearer " + token);
+        });
+    }
+
+    @Test
+    void tamperedTokenIsUnauthorized() {
+        contextRunner.run(context -> {
+            String token = login(client(context));
+            String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+            expectUnauthorized(client(context), tampered);
+        });
+    }
+
+    @Test
+    void revokedTokenIsUnauthorized() {
+        contextRunner.withPropertyValues("jwt.revocation.enabled=true").run(context -> {
+            String token = login(client(context));
+            Object tokenId = context.getBean(AuthTokenProvider.class)
+                    .getClaims(token.substring("Bearer ".length())).get("jti");
+            context.getBean(TokenRevocationStore.class).revoke(tokenId.toString(), Instant.now().plusSeconds(60));
+
+            expectUnauthorized(client(context), token);
+        });
+    }
+
+    @Test
+    void tokensAreVerifiedOnBoundedElasticWithATokenVersionRegistry() {
+        contextRunner.withUserConfiguration(TokenVersionConfiguration.class).run(context -> {
+            RecordingTokenVersionRegistry registry = context.getBean(RecordingTokenVersionRegistry.class);
+            String token = login(client(context));
+            registry.lookupThread = null;
+
+            client(context).get().uri("/api/me")
+                    .header("Authorization", token)
+                    .exchange()
+                    .expectStatus().isOk();
+
+            assertThat(registry.lookupThread).startsWith("boundedElastic-");
+        });
+    }
+
+    private static String login(WebTestClient client) {
+        return client.post().uri("/auth/login")
+                .headers(headers -> headers.setBasicAuth("alice", "secret"))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getFirst("Authorization");
+    }
+
+    private static void expectUnauthorized(WebTestClient client, String authorization) {
+        client.get().uri("/api/me")
+                .header("Authorization", authorization)
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody(JsonNode.class)
+                .consumeWith(result -> {
+                    JsonNode body = result.getResponseBody();
+                    assertThat(body.get("status").asInt()).isEqualTo(401);
+                    assertThat(body.get("path").asText()).isEqualTo("/api/me");
+                });
+    }
+
+    private static WebTestClient client(ApplicationContext context) {
+        return WebTestClient.bindToApplicationContext(context).build();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({
+            JwtAutoConfiguration.class,
+            ReactiveSecurityAutoConfiguration.class,
+            ReactiveUserDetailsServiceAutoConfiguration.class,
+            JacksonAutoConfiguration.class,
+            CodecsAutoConfiguration.class,
+            WebFluxAutoConfiguration.class
+    })
+    static class BootAutoConfiguration {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableJwtSecurity
+    static class TestApplication {
+
+        @Bean
+        UserDetailsService userDetailsService() {
+            return new InMemoryUserDetailsManager(User.withUsername("alice")
+                    .password("{noop}secret")
+                    .roles("USER")
+                    .build());
+        }
+
+        @Bean
+        TestController testController() {
+            return new TestController();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class TokenVersionConfiguration {
+
+        @Bean
+        RecordingTokenVersionRegistry tokenVersionRegistry() {
+            return new RecordingTokenVersionRegistry();
+        }
+    }
+
+    static class RecordingTokenVersionRegistry implements TokenVersionRegistry {
+
+        private final Map<String, Long> versions = new ConcurrentHashMap<>();
+        volatile String lookupThread;
+
+        @Override
+        public long currentVersion(String username) {
+            lookupThread = Thread.currentThread().getName();
+            return versions.getOrDefault(username, 0L);
+        }
+
+        @Override
+        public long bump(String username) {
+            return versions.merge(username, 1L, Long::sum);
+        }
+    }
+
+    @RestController
+    static class TestController {
+
+        @PostMapping("/auth/login")
+        Mono<String> login() {
+            return principalName();
+        }
+
+        @GetMapping("/api/me")
+        Mono<String> me() {
+            return principalName();
+        }
+
+        private static Mono<String> principalName() {
+            return ReactiveSecurityContextHolder.getContext()
+                    .map(SecurityContext::getAuthentication)
+                    .map(authentication -> authentication.getName());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package xyz.catuns.spring.jwt.autoconfigure;
+
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import xyz.catuns.spring.jwt.autoconfigure.annotation.EnableJwtSecurity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+class JwtSecurityAutoConfigurationTest {
+
+    private static final String BASIC = "Basic " + Base64.getEncoder()
+            .encodeToString("alice:secret".getBytes(StandardCharsets.UTF_8));
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    JwtAutoConfiguration.class,
+                    SecurityAutoConfiguration.class,
+                    JacksonAutoConfiguration.class,
+                    HttpMessageConvertersAutoConfiguration.class,
+                    DispatcherServletAutoConfiguration.class,
+                    WebMvcAutoConfiguration.class))
+            .withUserConfiguration(TestApplication.class)
+            .withPropertyValues(
+                    "jwt.secret=0123456789abcdef0123456789abcdef",
+                    "jwt.issuer=catuns");
+
+    @Test
+    void httpBasicLoginsReceiveATokenWhenEnabled() {
+        contextRunner.withPropertyValues("jwt.security.http-basic.enabled=true").run(context -> {
+            MockMvc mvc = mockMvc(context);
+
+            MvcResult login = mvc.perform(post("/auth/login").header("Authorization", BASIC)).andReturn();
+            String token = login.getResponse().getHeader("Authorization");
+
+            assertThat(login.getResponse().getStatus()).isEqualTo(200);
+            assertThat(token).startsWith("Bearer ");
+            MvcResult resource = mvc.perform(get("/api/me").header("Authorization", token)).andReturn();
+            assertThat(resource.getResponse().getStatus()).isEqualTo(200);
+            assertThat(resource.getResponse().getContentAsString()).isEqualTo("alice");
+        });
+    }
+
+    @Test
+    void httpBasicIsOffByDefault() {
+        contextRunner.run(context -> {
+            MvcResult login = mockMvc(context)
+                    .perform(post("/auth/login").header("Authorization", BASIC))
+                    .andReturn();
+
+            assertThat(login.getResponse().getStatus()).isEqualTo(401);
+            assertThat(login.getResponse().getHeader("Authorization")).isNull();
+        });
+    }
+
+    private static MockMvc mockMvc(WebApplicationContext context) {
+        return MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableJwtSecurity
+    static class TestApplication {
+
+        @Bean
+        UserDetailsService userDetailsService() {
+            return new InMemoryUserDetailsManager(User.withUsername("alice")
+                    .password("{noop}secret")
+                    .roles("USER")
+                    .build());
+        }
+
+        @Bean
+        TestController testController() {
+            return new TestController();
+        }
+    }
+
+    @RestController
+    static class TestController {
+
+        @PostMapping("/auth/login")
+        String login(Authentication authentication) {
+            return authentication.getName();
+        }
+
+        @GetMapping("/api/me")
+        String me(Authentication authentication) {
+            return authentication.getName();
+        }
+    }
+}
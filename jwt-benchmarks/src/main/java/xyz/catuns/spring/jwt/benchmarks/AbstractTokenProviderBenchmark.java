@@ -0,0 +1,93 @@
+package xyz.catuns.spring.jwt.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import xyz.catuns.spring.jwt.auth.AuthTokenProvider;
+import xyz.catuns.spring.jwt.core.exception.MissingSecretException;
+import xyz.catuns.spring.jwt.core.model.JwtToken;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cached key/parser of {@link xyz.catuns.spring.jwt.auth.AbstractTokenProvider}
+ * against deriving them on every call, and the HMAC fast paths against jjwt.
+ * <p>
+ * Run with {@code java -jar jwt-benchmarks/target/benchmarks.jar AbstractTokenProviderBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AbstractTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final Duration EXPIRATION = Duration.ofHours(1);
+
+    private AuthTokenProvider provider;
+    private AuthTokenProvider jjwtProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setup() throws MissingSecretException {
+        provider = new AuthTokenProvider(SECRET, "benchmark", EXPIRATION);
+        jjwtProvider = new AuthTokenProvider(SECRET, "benchmark", EXPIRATION);
+        jjwtProvider.setFastPathEnabled(false);
+        authentication = new UsernamePasswordAuthenticationToken("user@catuns.xyz", null,
+                AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+        token = provider.generate(authentication).value();
+    }
+
+    @Benchmark
+    public Claims getClaims() {
+        return provider.getClaims(token);
+    }
+
+    @Benchmark
+    public Claims getClaimsWithoutFastPath() {
+        return jjwtProvider.getClaims(token);
+    }
+
+    @Benchmark
+    public Claims getClaimsDerivingParser() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public JwtToken generate() {
+        return provider.generate(authentication);
+    }
+
+    @Benchmark
+    public JwtToken generateWithoutFastPath() {
+        return jjwtProvider.generate(authentication);
+    }
+
+    @Benchmark
+    public String generateDerivingKey() {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .issuer("benchmark")
+                .subject(authentication.getName())
+                .claim(AuthTokenProvider.USER_CLAIM_KEY, authentication.getPrincipal())
+                .claim(AuthTokenProvider.AUTHORITIES_CLAIM_KEY, "ROLE_USER,ROLE_ADMIN")
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(EXPIRATION)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -0,0 +1,115 @@
+package xyz.catuns.spring.jwt.benchmarks;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+import xyz.catuns.spring.jwt.auth.AuthTokenProvider;
+import xyz.catuns.spring.jwt.core.exception.MissingSecretException;
+import xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet JWT filters driven with mock requests, in the order {@code JwtSecurityConfigurer}
+ * installs them: exception handler, validator, login authentication and generator.
+ * <p>
+ * {@code scenario} selects the request: a valid bearer token, a token with a broken
+ * signature, no token at all, or a login that receives a new token. Each invocation
+ * includes building the mock request, response and chain.
+ * <p>
+ * Run with {@code java -jar jwt-benchmarks/target/benchmarks.jar FilterChainBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterChainBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    @Param({"valid", "invalid", "anonymous", "login"})
+    private String scenario;
+
+    private Filter[] filters;
+    private HttpServlet servlet;
+    private String path;
+    private String authorization;
+
+    @Setup
+    public void setup() throws MissingSecretException {
+        AuthTokenProvider provider = new AuthTokenProvider(SECRET, "benchmark", Duration.ofHours(1));
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user@catuns.xyz", null,
+                AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+        String token = provider.generate(authentication).value();
+
+        HandlerExceptionResolver resolver = (request, response, handler, ex) -> {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return new ModelAndView();
+        };
+        JwtFilterConfigurer configurer = new JwtFilterConfigurer(provider).exceptionResolver(resolver);
+        Filter login = (request, response, chain) -> {
+            if (((HttpServletRequest) request).getRequestURI().equals("/auth/login")) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+            chain.doFilter(request, response);
+        };
+        filters = new Filter[]{
+                configurer.buildExceptionHandler(),
+                configurer.buildValidator(),
+                login,
+                configurer.buildGenerator()
+        };
+        servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                resp.setStatus(HttpServletResponse.SC_OK);
+            }
+        };
+
+        path = scenario.equals("login") ? "/auth/login" : "/api/resource";
+        authorization = switch (scenario) {
+            case "valid" -> JwtFilterConfigurer.BEARER_TOKEN_PREFIX + token;
+            case "invalid" -> JwtFilterConfigurer.BEARER_TOKEN_PREFIX + tamperSignature(token);
+            case "anonymous", "login" -> null;
+            default -> throw new IllegalArgumentException(scenario);
+        };
+    }
+
+    private static String tamperSignature(String token) {
+        char[] chars = token.toCharArray();
+        int i = chars.length - 10;
+        chars[i] = chars[i] == 'A' ? 'B' : 'A';
+        return new String(chars);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterChain() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (authorization != null) {
+            request.addHeader(JwtFilterConfigurer.AUTHORIZATION_KEY, authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            new MockFilterChain(servlet, filters).doFilter(request, response);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
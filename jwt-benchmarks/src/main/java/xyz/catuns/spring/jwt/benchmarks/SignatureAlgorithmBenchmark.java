@@ -0,0 +1,67 @@
+package xyz.catuns.spring.jwt.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import xyz.catuns.spring.jwt.auth.AuthTokenProvider;
+import xyz.catuns.spring.jwt.auth.key.TokenKeys;
+import xyz.catuns.spring.jwt.core.exception.MissingSecretException;
+import xyz.catuns.spring.jwt.core.model.JwtToken;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify cost per signature algorithm.
+ * <p>
+ * Weigh the results by the issuer-to-verifier traffic ratio: RSA verifies cheaply
+ * but signs slowly, EC and EdDSA sign faster but verify slower.
+ * <p>
+ * Run with {@code java -jar jwt-benchmarks/target/benchmarks.jar SignatureAlgorithmBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignatureAlgorithmBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secre";
+
+    @Param({"HS256", "RS256", "ES256", "EdDSA"})
+    private String algorithm;
+
+    private AuthTokenProvider provider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setup() throws MissingSecretException {
+        TokenKeys keys = switch (algorithm) {
+            case "HS256" -> TokenKeys.hmac(SECRET);
+            case "RS256" -> TokenKeys.of(Jwts.SIG.RS256.keyPair().build());
+            case "ES256" -> TokenKeys.of(Jwts.SIG.ES256.keyPair().build());
+            case "EdDSA" -> TokenKeys.of(Jwks.CRV.Ed25519.keyPair().build());
+            default -> throw new IllegalArgumentException(algorithm);
+        };
+        provider = new AuthTokenProvider(keys, "benchmark", Duration.ofHours(1));
+        authentication = new UsernamePasswordAuthenticationToken("user@catuns.xyz", null,
+                AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+        token = provider.generate(authentication).value();
+    }
+
+    @Benchmark
+    public JwtToken sign() {
+        return provider.generate(authentication);
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return provider.getClaims(token);
+    }
+}
@@ -0,0 +1,82 @@
+package xyz.catuns.spring.jwt.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import xyz.catuns.spring.jwt.auth.AuthTokenProvider;
+import xyz.catuns.spring.jwt.auth.claims.ClaimProjection;
+import xyz.catuns.spring.jwt.core.exception.MissingSecretException;
+import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
+import xyz.catuns.spring.jwt.core.model.JwtToken;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Public {@link xyz.catuns.spring.jwt.core.TokenProvider} operations of the default
+ * {@link AuthTokenProvider} across token sizes and authority counts.
+ * <p>
+ * {@code padding} adds a claim of that many characters, {@code authorities} sets the
+ * number of granted authorities. The verified token cache is left disabled so every
+ * validation pays for the signature check.
+ * <p>
+ * Run with {@code java -jar jwt-benchmarks/target/benchmarks.jar TokenProviderBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    @Param({"0", "1024", "4096"})
+    private int padding;
+
+    @Param({"1", "10", "50"})
+    private int authorities;
+
+    private AuthTokenProvider provider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setup() throws MissingSecretException {
+        provider = new AuthTokenProvider(SECRET, "benchmark", Duration.ofHours(1));
+        if (padding > 0) {
+            String pad = "x".repeat(padding);
+            provider.setClaimProjection(ClaimProjection.none().with("pad", principal -> pad));
+        }
+        String[] names = IntStream.range(0, authorities)
+                .mapToObj(i -> "ROLE_AUTHORITY_" + i)
+                .toArray(String[]::new);
+        authentication = new UsernamePasswordAuthenticationToken("user@catuns.xyz", null,
+                AuthorityUtils.createAuthorityList(names));
+        token = provider.generate(authentication).value();
+    }
+
+    @Benchmark
+    public JwtToken generate() {
+        return provider.generate(authentication);
+    }
+
+    @Benchmark
+    public Authentication validate() throws TokenValidationException {
+        return provider.validate(token);
+    }
+
+    @Benchmark
+    public Map<String, Object> getClaims() {
+        return provider.getClaims(token);
+    }
+
+    @Benchmark
+    public boolean isExpired() {
+        return provider.isExpired(token);
+    }
+}
@@ -0,0 +1,273 @@
+package xyz.catuns.spring.jwt.benchmarks.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of {@link LoadTestApplication} on an embedded Tomcat
+ * <p>
+ * Seeds generated users, then drives the server with {@code concurrency} closed-loop
+ * clients. Each client logs in once for a token and then issues either a login, with
+ * probability {@code login-ratio}, or an authenticated request per iteration. Latencies
+ * recorded during {@code warmup} are discarded. Throughput and the p50/p99/p999
+ * latencies of the {@code duration} are printed per operation.
+ * <p>
+ * Closed-loop clients wait for each response, so latencies under saturation understate
+ * what an open arrival rate would see; compare runs at equal concurrency.
+ * <p>
+ * Run with {@code mvn -B package -pl jwt-benchmarks -am -Ploadtest -Dloadtest.args="--concurrency=64"}
+ * <pre>
+ * --users=10000        generated users
+ * --roles=5            generated roles, every user gets two
+ * --concurrency=32     concurrent clients
+ * --login-ratio=0.1    share of iterations that log in
+ * --warmup=10s         discarded warmup
+ * --duration=30s       measured run
+ * </pre>
+ */
+public final class LoadTest {
+
+    static final String PASSWORD = "load-test-password";
+    private static final String SECRET = "load-test-secret-load-test-secret-load-test-secret";
+
+    private final Options options;
+    private final HttpClient client;
+    private final URI loginUri;
+    private final URI resourceUri;
+    private final List<String> credentials;
+
+    private final Recorder loginLatency = new Recorder(3);
+    private final Recorder requestLatency = new Recorder(3);
+    private final LongAdder loginErrors = new LongAdder();
+    private final LongAdder requestErrors = new LongAdder();
+    private volatile boolean running = true;
+
+    private LoadTest(Options options, int port, List<String> credentials) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.loginUri = URI.create("http://localhost:" + port + "/auth/login");
+        this.resourceUri = URI.create("http://localhost:" + port + "/api/resource");
+        this.credentials = credentials;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        System.out.println("Load test " + options);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LoadTestApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + Math.max(200, options.concurrency()),
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=500",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn",
+                        "jwt.security.http-basic.enabled=true",
+                        // All clients log in from one address
+                        "jwt.security.login-throttle.enabled=false",
+                        "jwt.secret=" + SECRET)
+                .run(args)) {
+            List<String> credentials = seed(context, options);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            new LoadTest(options, port, credentials).run();
+        }
+    }
+
+    /**
+     * Stores generated users sharing one password hash, hashing every password would
+     * dominate the setup
+     *
+     * @return HTTP basic credentials of every user
+     */
+    private static List<String> seed(ConfigurableApplicationContext context, Options options) {
+        LoadTestUserRepository users = context.getBean(LoadTestUserRepository.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<LoadTestRole> roles = new ArrayList<>(options.roles());
+        for (int i = 0; i < options.roles(); i++) {
+            LoadTestRole role = new LoadTestRole();
+            role.setName("role " + i);
+            roles.add(role);
+        }
+        roles = context.getBean(LoadTestRoleRepository.class).saveAll(roles);
+
+        List<String> credentials = new ArrayList<>(options.users());
+        for (int start = 0; start < options.users(); start += 1_000) {
+            int end = Math.min(start + 1_000, options.users());
+            List<LoadTestUser> batch = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                LoadTestUser user = new LoadTestUser();
+                user.setEmail("user" + i + "@loadtest.catuns.xyz");
+                user.setPassword(passwordHash);
+                user.getRoles().add(roles.get(i % roles.size()));
+                user.getRoles().add(roles.get((i + 1) % roles.size()));
+                batch.add(user);
+                credentials.add("Basic " + Base64.getEncoder().encodeToString(
+                        (user.getEmail() + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8)));
+            }
+            users.saveAll(batch);
+        }
+        System.out.printf("Seeded %d users, %d roles%n", options.users(), options.roles());
+        return credentials;
+    }
+
+    private void run() throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(options.concurrency());
+        for (int i = 0; i < options.concurrency(); i++) {
+            int id = i;
+            clients.execute(() -> client(id));
+        }
+
+        TimeUnit.NANOSECONDS.sleep(options.warmup().toNanos());
+        loginLatency.reset();
+        requestLatency.reset();
+        loginErrors.reset();
+        requestErrors.reset();
+        long start = System.nanoTime();
+        TimeUnit.NANOSECONDS.sleep(options.duration().toNanos());
+        Histogram logins = loginLatency.getIntervalHistogram();
+        Histogram requests = requestLatency.getIntervalHistogram();
+        long elapsed = System.nanoTime() - start;
+        long loginFailures = loginErrors.sum();
+        long requestFailures = requestErrors.sum();
+
+        running = false;
+        clients.shutdown();
+        clients.awaitTermination(30, TimeUnit.SECONDS);
+
+        Histogram total = new Histogram(3);
+        total.add(logins);
+        total.add(requests);
+        double seconds = elapsed / 1e9;
+        System.out.printf("%n%-8s %10s %8s %12s %10s %10s %10s %10s%n",
+                "op", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        report("login", logins, loginFailures, seconds);
+        report("request", requests, requestFailures, seconds);
+        report("total", total, loginFailures + requestFailures, seconds);
+    }
+
+    private static void report(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf("%-8s %10d %8d %12.1f %10.3f %10.3f %10.3f %10.3f%n",
+                name, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private void client(int id) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String token = null;
+        while (running && token == null) {
+            token = login(credentials.get(id % credentials.size()));
+        }
+        while (running) {
+            if (random.nextDouble() < options.loginRatio()) {
+                String refreshed = login(credentials.get(random.nextInt(credentials.size())));
+                if (refreshed != null) {
+                    token = refreshed;
+                }
+            } else {
+                request(token);
+            }
+        }
+    }
+
+    /**
+     * @return the issued authorization header, null on failure
+     */
+    private String login(String basicCredentials) {
+        HttpRequest request = HttpRequest.newBuilder(loginUri)
+                .header(JwtFilterConfigurer.AUTHORIZATION_KEY, basicCredentials)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<Void> response = send(request);
+        loginLatency.recordValue(System.nanoTime() - start);
+        Optional<String> token = response == null || response.statusCode() != 200
+                ? Optional.empty()
+                : response.headers().firstValue(JwtFilterConfigurer.AUTHORIZATION_KEY);
+        if (token.isEmpty()) {
+            loginErrors.increment();
+        }
+        return token.orElse(null);
+    }
+
+    private void request(String authorization) {
+        HttpRequest request = HttpRequest.newBuilder(resourceUri)
+                .header(JwtFilterConfigurer.AUTHORIZATION_KEY, authorization)
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<Void> response = send(request);
+        requestLatency.recordValue(System.nanoTime() - start);
+        if (response == null || response.statusCode() != 200) {
+            requestErrors.increment();
+        }
+    }
+
+    private HttpResponse<Void> send(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    record Options(
+            int users,
+            int roles,
+            int concurrency,
+            double loginRatio,
+            Duration warmup,
+            Duration duration
+    ) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (arg.startsWith("--") && arg.contains("=")) {
+                    int split = arg.indexOf('=');
+                    values.put(arg.substring(2, split), arg.substring(split + 1));
+                }
+            }
+            return new Options(
+                    Integer.parseInt(values.getOrDefault("users", "10000")),
+                    Integer.parseInt(values.getOrDefault("roles", "5")),
+                    Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                    Double.parseDouble(values.getOrDefault("login-ratio", "0.1")),
+                    DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                    DurationStyle.detectAndParse(values.getOrDefault("duration", "30s"))
+            );
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package xyz.catuns.spring.jwt.benchmarks.load;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import xyz.catuns.spring.jwt.autoconfigure.annotation.EnableJwtDomain;
+import xyz.catuns.spring.jwt.autoconfigure.annotation.EnableJwtSecurity;
+
+import java.util.Map;
+
+/**
+ * Application under load: the auto-configured JWT filter chain in front of two endpoints,
+ * users and roles stored in an embedded H2 database.
+ * <p>
+ * Logins post HTTP basic credentials to {@code /auth/login} and receive a token from the
+ * generator filter, {@code /api/resource} requires a bearer token. The default
+ * {@code jwtSecurityFilterChain} is configured through properties only, see {@link LoadTest}.
+ */
+@SpringBootApplication
+@EnableJpaRepositories
+@EnableJwtSecurity
+@EnableJwtDomain(
+        userEntityClass = LoadTestUser.class,
+        roleEntityClass = LoadTestRole.class,
+        userRepositoryClass = LoadTestUserRepository.class
+)
+public class LoadTestApplication {
+
+    @RestController
+    static class LoadTestController {
+
+        @PostMapping("/auth/login")
+        public Map<String, String> login(Authentication authentication) {
+            return Map.of("username", authentication.getName());
+        }
+
+        @GetMapping("/api/resource")
+        public Map<String, Object> resource(Authentication authentication) {
+            return Map.of("username", authentication.getName(),
+                    "authorities", authentication.getAuthorities().size());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package xyz.catuns.spring.jwt.benchmarks.load;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import xyz.catuns.spring.jwt.domain.entity.RoleEntity;
+
+@Entity
+@Table(name = "roles")
+public class LoadTestRole extends RoleEntity {
+}
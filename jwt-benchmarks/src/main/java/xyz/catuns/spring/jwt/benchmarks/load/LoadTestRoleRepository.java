@@ -0,0 +1,6 @@
+package xyz.catuns.spring.jwt.benchmarks.load;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LoadTestRoleRepository extends JpaRepository<LoadTestRole, Long> {
+}
@@ -0,0 +1,24 @@
+package xyz.catuns.spring.jwt.benchmarks.load;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import xyz.catuns.spring.jwt.domain.entity.UserEntity;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "users")
+public class LoadTestUser extends UserEntity {
+
+    @ManyToMany(fetch = FetchType.EAGER)
+    @JoinTable(
+            name = "user_roles",
+            joinColumns = @JoinColumn(name = "user_id"),
+            inverseJoinColumns = @JoinColumn(name = "role_id")
+    )
+    private Set<LoadTestRole> roles = new HashSet<>();
+}
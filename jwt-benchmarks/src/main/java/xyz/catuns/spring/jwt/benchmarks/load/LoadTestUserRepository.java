@@ -0,0 +1,6 @@
+package xyz.catuns.spring.jwt.benchmarks.load;
+
+import xyz.catuns.spring.jwt.domain.repository.UserEntityRepository;
+
+public interface LoadTestUserRepository extends UserEntityRepository<LoadTestUser> {
+}
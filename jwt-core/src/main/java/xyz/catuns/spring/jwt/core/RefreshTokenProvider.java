@@ -0,0 +1,35 @@
+package xyz.catuns.spring.jwt.core;
+
+import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
+import xyz.catuns.spring.jwt.core.model.JwtToken;
+
+/**
+ * Issues rotating, single-use refresh tokens
+ */
+public interface RefreshTokenProvider {
+
+    /**
+     * Issues a new refresh token
+     * @param identifier the user the token is issued for
+     * @return {@link JwtToken} opaque refresh token
+     */
+    JwtToken issue(String identifier);
+
+    /**
+     * Consumes a refresh token, it cannot be used again
+     * <p>
+     * Presenting a consumed token is treated as theft and revokes every refresh token
+     * of its user.
+     *
+     * @param refreshToken token value
+     * @return the identifier the token was issued for
+     * @throws TokenValidationException if the token is unknown, expired or already consumed
+     */
+    String consume(String refreshToken) throws TokenValidationException;
+
+    /**
+     * Revokes every refresh token of the user
+     * @param identifier the user
+     */
+    void revokeAll(String identifier);
+}
@@ -1,8 +1,20 @@
 package xyz.catuns.spring.jwt.core;
 
+import xyz.catuns.spring.jwt.core.exception.TokenRevokedException;
+import xyz.catuns.spring.jwt.core.exception.TokenScreeningException;
 import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
 import xyz.catuns.spring.jwt.core.model.JwtToken;
+import xyz.catuns.spring.jwt.core.model.ParsedToken;
+import xyz.catuns.spring.jwt.core.model.TokenResult;
+import xyz.catuns.spring.jwt.core.model.ValidationFailure;
+import xyz.catuns.spring.jwt.core.model.ValidationResult;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 
@@ -15,6 +27,27 @@ public interface TokenProvider<T> {
      */
     JwtToken generate(T claims);
 
+    /**
+     * Generates one JWT token per item
+     * <p>
+     * The default generates them one after another, each with its own issue time.
+     * Implementations should override it to share the issue time across the batch.
+     *
+     * @param claims claims of each token
+     * @return one {@link TokenResult} per item in input order, failed items carry their error
+     */
+    default List<TokenResult<JwtToken>> generateAll(Collection<T> claims) {
+        List<TokenResult<JwtToken>> results = new ArrayList<>(claims.size());
+        for (T item : claims) {
+            try {
+                results.add(TokenResult.success(generate(item)));
+            } catch (RuntimeException e) {
+                results.add(TokenResult.failure(e));
+            }
+        }
+        return results;
+    }
+
     /**
      *
      * @param token token value
@@ -22,6 +55,61 @@ public interface TokenProvider<T> {
      */
     T validate(String token) throws TokenValidationException;
 
+    /**
+     * Verifies the token once and exposes everything read from it
+     * <p>
+     * The default validates the token and then reads its claims, verifying it twice.
+     * Implementations able to map the principal from the claims should override it.
+     *
+     * @param token token value
+     * @return {@link ParsedToken} claims, expiry, issued-at and the origin type
+     */
+    default ParsedToken<T> parse(String token) throws TokenValidationException {
+        T principal = validate(token);
+        Map<String, Object> claims = getClaims(token);
+        return new ParsedToken<>(claims, instant(claims.get("exp")), instant(claims.get("iat")), principal);
+    }
+
+    /**
+     * Validates every token without throwing
+     * <p>
+     * The default validates them one after another, failures classified by
+     * {@link #classify(Exception)}.
+     *
+     * @param tokens token values
+     * @return one {@link ValidationResult} per token in input order
+     */
+    default List<ValidationResult<T>> validateAll(List<String> tokens) {
+        List<ValidationResult<T>> results = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            try {
+                results.add(ValidationResult.valid(validate(token)));
+            } catch (Exception e) {
+                results.add(ValidationResult.invalid(classify(e), e));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Maps a validation exception to its {@link ValidationFailure}
+     * <p>
+     * The default only tells revoked, screened and rejected tokens from unexpected errors.
+     *
+     * @param e exception a token was rejected with
+     * @return the kind of failure
+     */
+    default ValidationFailure classify(Exception e) {
+        if (e instanceof TokenRevokedException) {
+            return ValidationFailure.REVOKED;
+        } else if (e instanceof TokenScreeningException screening) {
+            return screening.getFailure().getValidationFailure();
+        } else if (e instanceof TokenValidationException) {
+            return ValidationFailure.REJECTED;
+        }
+        return ValidationFailure.ERROR;
+    }
+
     /**
      * Extract all claims from the token.
      *
@@ -37,4 +125,26 @@ public interface TokenProvider<T> {
      */
     boolean isExpired(String token);
 
+    /**
+     * Leeway allowed when checking {@code exp} and {@code nbf}
+     * @return allowed clock skew, zero by default
+     */
+    default Duration getAllowedClockSkew() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * @param value date claim as a {@link Date}, {@link Instant} or epoch seconds
+     * @return the instant, null when absent or of another type
+     */
+    private static Instant instant(Object value) {
+        if (value instanceof Instant instant) {
+            return instant;
+        } else if (value instanceof Date date) {
+            return date.toInstant();
+        } else if (value instanceof Number seconds) {
+            return Instant.ofEpochSecond(seconds.longValue());
+        }
+        return null;
+    }
 }
@@ -0,0 +1,11 @@
+package xyz.catuns.spring.jwt.core.exception;
+
+/**
+ * Token verified but was revoked before it expired
+ */
+public class TokenRevokedException extends TokenValidationException {
+
+    public TokenRevokedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package xyz.catuns.spring.jwt.core.exception;
+
+import xyz.catuns.spring.jwt.core.screening.ScreeningFailure;
+import xyz.catuns.spring.jwt.core.screening.TokenScreener;
+
+/**
+ * Token rejected by the {@link TokenScreener}, thrown without a stack trace
+ * as screening exists to reject abusive traffic cheaply
+ */
+public class TokenScreeningException extends TokenValidationException {
+
+    private final ScreeningFailure failure;
+
+    public TokenScreeningException(ScreeningFailure failure) {
+        super("Token rejected by screening: " + failure, false);
+        this.failure = failure;
+    }
+
+    public ScreeningFailure getFailure() {
+        return failure;
+    }
+}
\ No newline at end of file
@@ -5,4 +5,12 @@ public class TokenValidationException extends Exception {
     public TokenValidationException(Exception exception) {
         super(exception);
     }
+
+    public TokenValidationException(String message) {
+        super(message);
+    }
+
+    protected TokenValidationException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -0,0 +1,33 @@
+package xyz.catuns.spring.jwt.core.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Result of verifying and parsing a token once
+ *
+ * @param claims     all claims of the token
+ * @param expiration {@code exp} claim, null when absent
+ * @param issuedAt   {@code iat} claim, null when absent
+ * @param principal  the origin type mapped from the claims
+ * @param <T>        the origin type
+ */
+public record ParsedToken<T>(
+        Map<String, Object> claims,
+        Instant expiration,
+        Instant issuedAt,
+        T principal
+) {
+
+    public ParsedToken {
+        claims = claims == null ? Map.of() : claims;
+    }
+
+    /**
+     * Determines whether the token is expired
+     * @return boolean
+     */
+    public boolean isExpired() {
+        return expiration != null && Instant.now().isAfter(expiration);
+    }
+}
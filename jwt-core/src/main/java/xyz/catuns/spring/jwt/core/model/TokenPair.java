@@ -0,0 +1,12 @@
+package xyz.catuns.spring.jwt.core.model;
+
+/**
+ * Access token issued together with its refresh token
+ *
+ * @param accessToken  short-lived access token
+ * @param refreshToken single-use refresh token
+ */
+public record TokenPair(
+        JwtToken accessToken,
+        JwtToken refreshToken
+) {}
@@ -0,0 +1,26 @@
+package xyz.catuns.spring.jwt.core.model;
+
+/**
+ * Outcome of one item of a batch operation, either a value or the error it failed with
+ *
+ * @param value result, null on failure
+ * @param error failure, null on success
+ * @param <V>   result type
+ */
+public record TokenResult<V>(
+        V value,
+        Exception error
+) {
+
+    public static <V> TokenResult<V> success(V value) {
+        return new TokenResult<>(value, null);
+    }
+
+    public static <V> TokenResult<V> failure(Exception error) {
+        return new TokenResult<>(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,35 @@
+package xyz.catuns.spring.jwt.core.model;
+
+/**
+ * Reason a token was rejected
+ */
+public enum ValidationFailure {
+    /**
+     * Token {@code exp} is in the past
+     */
+    EXPIRED,
+    /**
+     * Signature does not match the verification key
+     */
+    INVALID_SIGNATURE,
+    /**
+     * Token is not a well-formed compact JWS
+     */
+    MALFORMED,
+    /**
+     * Token type or algorithm is not accepted
+     */
+    UNSUPPORTED,
+    /**
+     * Token verified but its claims were rejected
+     */
+    REJECTED,
+    /**
+     * Token verified but was revoked, by its {@code jti} or a newer token version
+     */
+    REVOKED,
+    /**
+     * Unexpected error while validating
+     */
+    ERROR
+}
@@ -0,0 +1,28 @@
+package xyz.catuns.spring.jwt.core.model;
+
+/**
+ * Outcome of validating one token of a batch
+ *
+ * @param principal the origin type, null on failure
+ * @param failure   reason the token was rejected, null on success
+ * @param error     exception the token was rejected with, null on success
+ * @param <T>       the origin type
+ */
+public record ValidationResult<T>(
+        T principal,
+        ValidationFailure failure,
+        Exception error
+) {
+
+    public static <T> ValidationResult<T> valid(T principal) {
+        return new ValidationResult<>(principal, null, null);
+    }
+
+    public static <T> ValidationResult<T> invalid(ValidationFailure failure, Exception error) {
+        return new ValidationResult<>(null, failure, error);
+    }
+
+    public boolean isValid() {
+        return failure == null;
+    }
+}
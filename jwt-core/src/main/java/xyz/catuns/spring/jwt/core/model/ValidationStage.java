@@ -0,0 +1,19 @@
+package xyz.catuns.spring.jwt.core.model;
+
+/**
+ * Stage of a request's token validation
+ */
+public enum ValidationStage {
+    /**
+     * Structural checks before any signature work
+     */
+    SCREEN,
+    /**
+     * Signature verification and claim mapping
+     */
+    PARSE,
+    /**
+     * Lookup of the verified token's {@code jti} in the revocation store
+     */
+    REVOCATION
+}
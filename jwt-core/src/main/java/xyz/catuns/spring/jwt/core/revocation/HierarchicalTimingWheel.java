@@ -0,0 +1,127 @@
+package xyz.catuns.spring.jwt.core.revocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel expiring keys at their deadline
+ * <p>
+ * Four levels of 64 slots cover 64, 64², 64³ and 64⁴ ticks. A key is placed on the
+ * lowest level whose range reaches its deadline and cascades down one level each time
+ * the wheel above turns, so scheduling and expiring are O(1) per key regardless of how
+ * many keys are pending. Keys beyond the top level wait in an overflow list.
+ * <p>
+ * Not thread-safe, callers synchronize.
+ *
+ * @param <K> key type
+ */
+public final class HierarchicalTimingWheel<K> {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final Consumer<K> onExpire;
+    private final List<List<Entry<K>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final List<Entry<K>> overflow = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis resolution, keys expire at most one tick late
+     * @param nowMillis  current time
+     * @param onExpire   invoked with each key once its deadline has passed
+     */
+    public HierarchicalTimingWheel(long tickMillis, long nowMillis, Consumer<K> onExpire) {
+        this.tickMillis = tickMillis;
+        this.onExpire = onExpire;
+        this.currentTick = nowMillis / tickMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules the key to expire at {@code deadlineMillis}, immediately if already passed
+     */
+    public void schedule(K key, long deadlineMillis) {
+        size++;
+        place(new Entry<>(key, Math.ceilDiv(deadlineMillis, tickMillis)));
+    }
+
+    /**
+     * Expires every key whose deadline is at or before {@code nowMillis}
+     */
+    public void advanceTo(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            List<Entry<K>> due = slot(0, (int) (currentTick & SLOT_MASK));
+            if (!due.isEmpty()) {
+                List<Entry<K>> expired = new ArrayList<>(due);
+                due.clear();
+                for (Entry<K> entry : expired) {
+                    expire(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of scheduled keys not yet expired
+     */
+    public int size() {
+        return size;
+    }
+
+    private void cascade() {
+        int top = 0;
+        while (top < LEVELS && (currentTick & ((1L << (SLOT_BITS * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        if (top == LEVELS && !overflow.isEmpty()) {
+            List<Entry<K>> pending = new ArrayList<>(overflow);
+            overflow.clear();
+            pending.forEach(this::place);
+        }
+        for (int level = Math.min(top, LEVELS - 1); level >= 1; level--) {
+            List<Entry<K>> bucket = slot(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+            if (!bucket.isEmpty()) {
+                List<Entry<K>> pending = new ArrayList<>(bucket);
+                bucket.clear();
+                pending.forEach(this::place);
+            }
+        }
+    }
+
+    private void place(Entry<K> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            expire(entry);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                slot(level, (int) ((entry.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK)).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private void expire(Entry<K> entry) {
+        size--;
+        onExpire.accept(entry.key);
+    }
+
+    private List<Entry<K>> slot(int level, int index) {
+        return slots.get(level * SLOTS + index);
+    }
+
+    private record Entry<K>(K key, long deadlineTick) {
+    }
+}
@@ -0,0 +1,165 @@
+package xyz.catuns.spring.jwt.core.revocation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory {@link TokenRevocationStore}
+ * <p>
+ * Lookups first consult a lock-free {@link BloomFilter}, so the common case of a token
+ * that was never revoked costs a few hash probes. Only filter hits reach the exact map
+ * of revoked ids. Revocations are dropped at the token's {@code exp} through a
+ * {@link HierarchicalTimingWheel}, and the filter is rebuilt from the live ids once
+ * expired ids make up most of it or it outgrows its capacity.
+ * <p>
+ * Revocations are rare, so writes and expiry share one lock while reads take none.
+ * State is local to this JVM. Revocations and revoked token hits are counted on
+ * {@link LongAdder}s.
+ */
+public class InMemoryTokenRevocationStore implements TokenRevocationStore, AutoCloseable {
+
+    public static final long DEFAULT_EXPECTED_REVOCATIONS = 10_000;
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+    public static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel<String> expiry;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder revocations = new LongAdder();
+    private final LongAdder revokedHits = new LongAdder();
+    private final LongSupplier currentTimeMillis;
+    private volatile BloomFilter filter;
+    private long filterCapacity;
+    private long filterInsertions;
+
+    public InMemoryTokenRevocationStore() {
+        this(DEFAULT_EXPECTED_REVOCATIONS, DEFAULT_FALSE_POSITIVE_RATE, DEFAULT_TICK);
+    }
+
+    /**
+     * @param expectedRevocations live revocations the Bloom filter is sized for
+     * @param falsePositiveRate   Bloom filter false positive rate at that size
+     * @param tick                expiry resolution, also the interval of the background expiry
+     */
+    public InMemoryTokenRevocationStore(long expectedRevocations, double falsePositiveRate, Duration tick) {
+        this(expectedRevocations, falsePositiveRate, tick, System::currentTimeMillis);
+    }
+
+    InMemoryTokenRevocationStore(
+            long expectedRevocations,
+            double falsePositiveRate,
+            Duration tick,
+            LongSupplier currentTimeMillis
+    ) {
+        this.currentTimeMillis = currentTimeMillis;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        this.filterCapacity = expectedRevocations;
+        this.expiry = new HierarchicalTimingWheel<>(tick.toMillis(), currentTimeMillis.getAsLong(), revoked::remove);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwt-revocation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(this::expire, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        long deadline = expiresAt.toEpochMilli();
+        if (deadline <= currentTimeMillis.getAsLong()) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (revoked.putIfAbsent(tokenId, deadline) == null) {
+                expiry.schedule(tokenId, deadline);
+                filter.put(tokenId);
+                filterInsertions++;
+                revocations.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        if (!filter.mightContain(tokenId)) {
+            return false;
+        }
+        Long deadline = revoked.get(tokenId);
+        if (deadline != null && deadline > currentTimeMillis.getAsLong()) {
+            revokedHits.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Drops revocations of expired tokens, runs every tick in the background
+     */
+    public void expire() {
+        lock.lock();
+        try {
+            expiry.advanceTo(currentTimeMillis.getAsLong());
+            long live = revoked.size();
+            boolean mostlyExpired = filterInsertions > 2 * live && filterInsertions > filterCapacity / 4;
+            if (mostlyExpired || filterInsertions > filterCapacity) {
+                long capacity = Math.max(expectedRevocations, 2 * live);
+                BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+                revoked.keySet().forEach(rebuilt::put);
+                filter = rebuilt;
+                filterCapacity = capacity;
+                filterInsertions = live;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of keys the current Bloom filter is sized for
+     */
+    long getFilterCapacity() {
+        return filterCapacity;
+    }
+
+    /**
+     * Number of live revocations
+     */
+    public int size() {
+        return revoked.size();
+    }
+
+    /**
+     * @return number of tokens revoked
+     */
+    public long getRevocations() {
+        return revocations.sum();
+    }
+
+    /**
+     * @return number of lookups that found the token revoked
+     */
+    public long getRevokedHits() {
+        return revokedHits.sum();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,23 @@
+package xyz.catuns.spring.jwt.core.revocation;
+
+import java.time.Instant;
+
+/**
+ * Tokens revoked before they expire, keyed by their {@code jti} claim
+ */
+public interface TokenRevocationStore {
+
+    /**
+     * Revokes a token until it expires
+     * @param tokenId   {@code jti} claim
+     * @param expiresAt {@code exp} claim, the revocation is dropped afterwards
+     */
+    void revoke(String tokenId, Instant expiresAt);
+
+    /**
+     * Determines whether the token is revoked
+     * @param tokenId {@code jti} claim
+     * @return boolean
+     */
+    boolean isRevoked(String tokenId);
+}
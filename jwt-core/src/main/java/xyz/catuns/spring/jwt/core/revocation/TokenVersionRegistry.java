@@ -0,0 +1,21 @@
+package xyz.catuns.spring.jwt.core.revocation;
+
+/**
+ * Per-user token version, tokens issued for an older version are rejected
+ */
+public interface TokenVersionRegistry {
+
+    /**
+     * Current token version of the user
+     * @param username the user
+     * @return version, {@code 0} for users that never bumped it
+     */
+    long currentVersion(String username);
+
+    /**
+     * Invalidates every token issued to the user so far
+     * @param username the user
+     * @return the new version
+     */
+    long bump(String username);
+}
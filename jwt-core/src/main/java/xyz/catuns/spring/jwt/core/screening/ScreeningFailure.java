@@ -0,0 +1,46 @@
+package xyz.catuns.spring.jwt.core.screening;
+
+import xyz.catuns.spring.jwt.core.model.ValidationFailure;
+
+/**
+ * Reason a token was rejected before its signature was verified
+ */
+public enum ScreeningFailure {
+    /**
+     * Token is longer than the configured ceiling
+     */
+    TOO_LONG(ValidationFailure.MALFORMED),
+    /**
+     * Token is not three base64url segments with a readable header and payload
+     */
+    MALFORMED(ValidationFailure.MALFORMED),
+    /**
+     * Header {@code alg} is {@code none}, missing or not accepted
+     */
+    ALGORITHM(ValidationFailure.UNSUPPORTED),
+    /**
+     * Header {@code kid} is not accepted
+     */
+    KEY_ID(ValidationFailure.UNSUPPORTED),
+    /**
+     * Payload {@code iss} is not accepted
+     */
+    ISSUER(ValidationFailure.REJECTED),
+    /**
+     * Payload {@code exp} is in the past
+     */
+    EXPIRED(ValidationFailure.EXPIRED);
+
+    private final ValidationFailure validationFailure;
+
+    ScreeningFailure(ValidationFailure validationFailure) {
+        this.validationFailure = validationFailure;
+    }
+
+    /**
+     * @return the failure the token would have been rejected with after verification
+     */
+    public ValidationFailure getValidationFailure() {
+        return validationFailure;
+    }
+}
@@ -0,0 +1,236 @@
+package xyz.catuns.spring.jwt.core.screening;
+
+import xyz.catuns.spring.jwt.core.exception.TokenScreeningException;
+import xyz.catuns.spring.jwt.core.util.Base64Url;
+import xyz.catuns.spring.jwt.core.util.FlatJsonReader;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Structural screening of compact tokens before any signature work
+ * <p>
+ * Rejects tokens that are too long, are not three base64url segments, or whose
+ * header and payload are not JSON objects. The header {@code alg} must not be
+ * {@code none} and, when configured, must be one of the accepted algorithms, as must
+ * the {@code kid}. A peek into the payload rejects tokens whose {@code exp} has passed
+ * by more than the allowed clock skew and, when configured, whose {@code iss} is not
+ * accepted. The skew should be the one the parser allows, so screening never rejects
+ * a token the parser would accept.
+ * <p>
+ * Tokens passing screening are not trusted in any way, they still have to be verified.
+ * Header and payload are decoded into per-thread buffers and read with
+ * {@link FlatJsonReader#readSkippingNested}, so nested claims are only checked loosely. Outcomes are counted per
+ * reason on {@link LongAdder}s.
+ */
+public class TokenScreener {
+
+    public static final int DEFAULT_MAX_LENGTH = 8192;
+
+    private static final String NONE = "none";
+
+    private final int maxLength;
+    private final Set<String> algorithms;
+    private final Set<String> keyIds;
+    private final Set<String> issuers;
+    private final long clockSkewMillis;
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+    private final LongAdder passed = new LongAdder();
+    private final Map<ScreeningFailure, LongAdder> rejected = new EnumMap<>(ScreeningFailure.class);
+
+    public TokenScreener() {
+        this(DEFAULT_MAX_LENGTH, Set.of(), Set.of(), Set.of());
+    }
+
+    /**
+     * @param maxLength  longest accepted token, in characters
+     * @param algorithms accepted {@code alg} values, any but {@code none} when empty
+     * @param keyIds     accepted {@code kid} values, not checked when empty
+     * @param issuers    accepted {@code iss} values, not checked when empty
+     */
+    public TokenScreener(
+            int maxLength,
+            Collection<String> algorithms,
+            Collection<String> keyIds,
+            Collection<String> issuers
+    ) {
+        this(maxLength, algorithms, keyIds, issuers, Duration.ZERO);
+    }
+
+    /**
+     * @param maxLength  longest accepted token, in characters
+     * @param algorithms accepted {@code alg} values, any but {@code none} when empty
+     * @param keyIds     accepted {@code kid} values, not checked when empty
+     * @param issuers    accepted {@code iss} values, not checked when empty
+     * @param clockSkew  time a token is still accepted after its {@code exp}
+     */
+    public TokenScreener(
+            int maxLength,
+            Collection<String> algorithms,
+            Collection<String> keyIds,
+            Collection<String> issuers,
+            Duration clockSkew
+    ) {
+        this.maxLength = maxLength;
+        this.algorithms = Set.copyOf(algorithms);
+        this.keyIds = Set.copyOf(keyIds);
+        this.issuers = Set.copyOf(issuers);
+        this.clockSkewMillis = clockSkew.toMillis();
+        for (ScreeningFailure failure : ScreeningFailure.values()) {
+            rejected.put(failure, new LongAdder());
+        }
+    }
+
+    /**
+     * @param token compact token without prefix
+     * @return reason the token is rejected, or null when it may be verified
+     */
+    public ScreeningFailure screen(String token) {
+        ScreeningFailure failure = inspect(token);
+        if (failure == null) {
+            passed.increment();
+        } else {
+            rejected.get(failure).increment();
+        }
+        return failure;
+    }
+
+    /**
+     * @param token compact token without prefix
+     * @throws TokenScreeningException if the token is rejected
+     */
+    public void check(String token) throws TokenScreeningException {
+        ScreeningFailure failure = screen(token);
+        if (failure != null) {
+            throw new TokenScreeningException(failure);
+        }
+    }
+
+    /**
+     * @return number of tokens that passed screening
+     */
+    public long getPassed() {
+        return passed.sum();
+    }
+
+    /**
+     * @return number of tokens rejected for the reason
+     */
+    public long getRejected(ScreeningFailure failure) {
+        return rejected.get(failure).sum();
+    }
+
+    private ScreeningFailure inspect(String token) {
+        int length = token.length();
+        if (length > maxLength) {
+            return ScreeningFailure.TOO_LONG;
+        }
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (headerEnd <= 0 || payloadEnd <= headerEnd + 1 || payloadEnd == length - 1
+                || token.indexOf('.', payloadEnd + 1) >= 0) {
+            return ScreeningFailure.MALFORMED;
+        }
+
+        Buffers buf = buffers.get();
+        byte[] header = buf.header(Base64Url.decodedLength(headerEnd));
+        int headerLength = decode(token, 0, headerEnd, header);
+        Map<String, Object> members = buf.members();
+        if (headerLength < 0 || !FlatJsonReader.readSkippingNested(header, 0, headerLength, members)) {
+            return ScreeningFailure.MALFORMED;
+        }
+        ScreeningFailure failure = screenHeader(members);
+        if (failure != null) {
+            return failure;
+        }
+
+        byte[] payload = buf.payload(Base64Url.decodedLength(payloadEnd - headerEnd - 1));
+        int payloadLength = decode(token, headerEnd + 1, payloadEnd, payload);
+        members = buf.members();
+        if (payloadLength < 0 || !FlatJsonReader.readSkippingNested(payload, 0, payloadLength, members)) {
+            return ScreeningFailure.MALFORMED;
+        }
+        return screenPayload(members);
+    }
+
+    private ScreeningFailure screenHeader(Map<String, Object> header) {
+        String algorithm = string(header, "alg");
+        if (algorithm == null || algorithm.equalsIgnoreCase(NONE)
+                || (!algorithms.isEmpty() && !algorithms.contains(algorithm))) {
+            return ScreeningFailure.ALGORITHM;
+        }
+        if (!keyIds.isEmpty() && !isAccepted(keyIds, string(header, "kid"))) {
+            return ScreeningFailure.KEY_ID;
+        }
+        return null;
+    }
+
+    private ScreeningFailure screenPayload(Map<String, Object> payload) {
+        // Non-numeric dates are left to the parser
+        if (payload.get("exp") instanceof Number expiration
+                && System.currentTimeMillis() - clockSkewMillis > expiration.doubleValue() * 1000) {
+            return ScreeningFailure.EXPIRED;
+        }
+        if (!issuers.isEmpty() && !isAccepted(issuers, string(payload, "iss"))) {
+            return ScreeningFailure.ISSUER;
+        }
+        return null;
+    }
+
+    private static String string(Map<String, Object> members, String name) {
+        return members.get(name) instanceof String value ? value : null;
+    }
+
+    private static boolean isAccepted(Set<String> accepted, String value) {
+        return value != null && accepted.contains(value);
+    }
+
+    /**
+     * Decodes a segment, -1 when it is not base64url or does not fit into {@code dst}
+     */
+    private static int decode(String token, int from, int to, byte[] dst) {
+        return dst == null ? -1 : Base64Url.decode(token, from, to, dst);
+    }
+
+    private static final class Buffers {
+        private final Map<String, Object> members = new HashMap<>();
+        private byte[] header = new byte[128];
+        private byte[] payload = new byte[512];
+
+        /**
+         * @return the cleared member map
+         */
+        Map<String, Object> members() {
+            members.clear();
+            return members;
+        }
+
+        /**
+         * @return buffer of at least the length, null for invalid segment lengths
+         */
+        byte[] header(int length) {
+            if (length < 0) {
+                return null;
+            }
+            if (header.length < length) {
+                header = new byte[Math.max(length, header.length * 2)];
+            }
+            return header;
+        }
+
+        byte[] payload(int length) {
+            if (length < 0) {
+                return null;
+            }
+            if (payload.length < length) {
+                payload = new byte[Math.max(length, payload.length * 2)];
+            }
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package xyz.catuns.spring.jwt.core.throttle;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per key, lock-free and of bounded size
+ * <p>
+ * A bucket is a single {@link AtomicLong} holding the time at which it is full again,
+ * as in the generic cell rate algorithm. Taking a permit moves that time one refill
+ * period ahead with a CAS, and is refused while it would end up more than
+ * {@code capacity} periods ahead. A bucket whose time has passed is full, which is the
+ * same as having no bucket, so idle buckets are dropped without changing any outcome.
+ * <p>
+ * Keys are spread over stripes, each a {@link ConcurrentHashMap} holding its share of
+ * {@code maxKeys}. A stripe that reached its share is swept of idle buckets by one thread
+ * while the others carry on. Active buckets are never dropped, a flood of distinct keys
+ * cannot reset a throttled one. While a stripe is full of active buckets new keys are
+ * refused until the first of them is full again, so memory stays bounded and the
+ * limiter fails closed.
+ */
+public class KeyedRateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final int capacity;
+    private final long periodNanos;
+    private final long burstNanos;
+    private final int stripeCapacity;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongSupplier nanoTime;
+
+    /**
+     * @param capacity     permits of a full bucket
+     * @param refillPeriod time in which one permit is added back
+     * @param maxKeys      number of buckets kept, across all stripes
+     */
+    public KeyedRateLimiter(int capacity, Duration refillPeriod, int maxKeys) {
+        this(capacity, refillPeriod, maxKeys, System::nanoTime);
+    }
+
+    KeyedRateLimiter(int capacity, Duration refillPeriod, int maxKeys, LongSupplier nanoTime) {
+        if (capacity < 1 || refillPeriod.isNegative() || refillPeriod.isZero() || maxKeys < 1) {
+            throw new IllegalArgumentException("Capacity, refill period and maximum keys must be positive");
+        }
+        this.capacity = capacity;
+        this.periodNanos = refillPeriod.toNanos();
+        this.burstNanos = Math.multiplyExact(periodNanos, (long) capacity);
+        this.stripeCapacity = Math.max(1, maxKeys / STRIPES);
+        this.nanoTime = nanoTime;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Takes a permit from the key's bucket
+     *
+     * @param key bucket key
+     * @return 0 when the permit was taken, otherwise nanoseconds until one is available
+     */
+    public long tryAcquire(String key) {
+        long now = nanoTime.getAsLong();
+        Stripe stripe = stripe(key);
+        AtomicLong bucket = stripe.bucket(key, now);
+        if (bucket == null) {
+            return stripe.untilIdle(now);
+        }
+        while (true) {
+            long full = bucket.get();
+            long next = (full - now < 0 ? now : full) + periodNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of buckets currently kept
+     */
+    public long estimatedSize() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private Stripe stripe(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private final class Stripe {
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicBoolean sweeping = new AtomicBoolean();
+        /**
+         * Earliest time any bucket of the stripe can be full, no sweep frees space before
+         */
+        private volatile long nextIdle = nanoTime.getAsLong();
+
+        /**
+         * @return bucket of the key, null when the stripe is full of active buckets
+         */
+        AtomicLong bucket(String key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= stripeCapacity) {
+                if (nextIdle - now <= 0) {
+                    sweep(now);
+                }
+                if (buckets.size() >= stripeCapacity) {
+                    return null;
+                }
+            }
+            bucket = new AtomicLong(now);
+            AtomicLong existing = buckets.putIfAbsent(key, bucket);
+            return existing != null ? existing : bucket;
+        }
+
+        /**
+         * @return nanoseconds until a sweep may free space, at least 1
+         */
+        long untilIdle(long now) {
+            return Math.max(1, nextIdle - now);
+        }
+
+        /**
+         * Drops full buckets and remembers when the first remaining one is full. A bucket
+         * added after the sweep takes a permit at once and is not full for a refill period.
+         * A permit taken from a bucket while it is dropped may go uncounted, the bucket
+         * was full and loses at most that one permit.
+         */
+        private void sweep(long now) {
+            if (!sweeping.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                long earliest = now + periodNanos;
+                for (Iterator<AtomicLong> it = buckets.values().iterator(); it.hasNext(); ) {
+                    long full = it.next().get();
+                    if (full - now <= 0) {
+                        it.remove();
+                    } else if (full - earliest < 0) {
+                        earliest = full;
+                    }
+                }
+                nextIdle = earliest;
+            } finally {
+                sweeping.set(false);
+            }
+        }
+    }
+}
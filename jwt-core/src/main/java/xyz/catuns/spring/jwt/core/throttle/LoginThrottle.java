@@ -0,0 +1,97 @@
+package xyz.catuns.spring.jwt.core.throttle;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throttles login attempts per account and per client address
+ * <p>
+ * Checked before the user is loaded and the password hashed, so that a burst of
+ * guesses is turned away for the price of two bucket lookups. The address bucket is
+ * taken first: an address over its limit does not use up the account's permits.
+ * Account names are compared case-insensitively and only on their first
+ * {@value #MAX_ACCOUNT_LENGTH} characters. Outcomes are counted on {@link LongAdder}s.
+ */
+public class LoginThrottle {
+
+    public static final int MAX_ACCOUNT_LENGTH = 256;
+    public static final String THROTTLED_MESSAGE = "Too many login attempts";
+
+    private final KeyedRateLimiter accounts;
+    private final KeyedRateLimiter addresses;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttledAccounts = new LongAdder();
+    private final LongAdder throttledAddresses = new LongAdder();
+
+    /**
+     * @param accounts  limiter keyed by account name, null to not limit accounts
+     * @param addresses limiter keyed by client address, null to not limit addresses
+     */
+    public LoginThrottle(KeyedRateLimiter accounts, KeyedRateLimiter addresses) {
+        this.accounts = accounts;
+        this.addresses = addresses;
+    }
+
+    /**
+     * Takes a permit for the attempt
+     *
+     * @param account account name, null when unknown
+     * @param address client address, null when unknown
+     * @return {@link Duration#ZERO} when the attempt may proceed, otherwise the time until it may be retried
+     */
+    public Duration check(String account, String address) {
+        if (addresses != null && address != null) {
+            long wait = addresses.tryAcquire(address);
+            if (wait > 0) {
+                throttledAddresses.increment();
+                return Duration.ofNanos(wait);
+            }
+        }
+        if (accounts != null && account != null) {
+            long wait = accounts.tryAcquire(accountKey(account));
+            if (wait > 0) {
+                throttledAccounts.increment();
+                return Duration.ofNanos(wait);
+            }
+        }
+        allowed.increment();
+        return Duration.ZERO;
+    }
+
+    /**
+     * @return number of attempts let through
+     */
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    /**
+     * @return number of attempts refused for their account
+     */
+    public long getThrottledAccounts() {
+        return throttledAccounts.sum();
+    }
+
+    /**
+     * @return number of attempts refused for their client address
+     */
+    public long getThrottledAddresses() {
+        return throttledAddresses.sum();
+    }
+
+    /**
+     * @return value of a {@code Retry-After} header, whole seconds rounded up
+     */
+    public static String retryAfterSeconds(Duration retryAfter) {
+        long seconds = retryAfter.getSeconds() + (retryAfter.getNano() > 0 ? 1 : 0);
+        return Long.toString(Math.max(1, seconds));
+    }
+
+    private static String accountKey(String account) {
+        if (account.length() > MAX_ACCOUNT_LENGTH) {
+            account = account.substring(0, MAX_ACCOUNT_LENGTH);
+        }
+        return account.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,135 @@
+package xyz.catuns.spring.jwt.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Unpadded base64url coding between token segments and caller-owned buffers
+ */
+public final class Base64Url {
+
+    private static final byte[] ENCODE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ENCODE.length; i++) {
+            DECODE[ENCODE[i]] = (byte) i;
+        }
+    }
+
+    private Base64Url() {
+    }
+
+    /**
+     * Number of bytes encoded by {@code length} base64url characters, -1 if no valid encoding has that length
+     */
+    public static int decodedLength(int length) {
+        return switch (length & 3) {
+            case 0 -> length / 4 * 3;
+            case 2 -> length / 4 * 3 + 1;
+            case 3 -> length / 4 * 3 + 2;
+            default -> -1;
+        };
+    }
+
+    /**
+     * Number of base64url characters encoding {@code length} bytes
+     */
+    public static int encodedLength(int length) {
+        return length / 3 * 4 + switch (length % 3) {
+            case 1 -> 2;
+            case 2 -> 3;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Encodes {@code src[offset, offset + length)} into {@code dst} starting at {@code dstOffset}
+     *
+     * @return index in {@code dst} after the last written character
+     */
+    public static int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int out = dstOffset;
+        int i = offset;
+        int fullEnd = offset + length / 3 * 3;
+        while (i < fullEnd) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[out++] = ENCODE[bits >>> 18];
+            dst[out++] = ENCODE[(bits >>> 12) & 0x3F];
+            dst[out++] = ENCODE[(bits >>> 6) & 0x3F];
+            dst[out++] = ENCODE[bits & 0x3F];
+            i += 3;
+        }
+        int remaining = offset + length - i;
+        if (remaining == 1) {
+            int bits = src[i] & 0xFF;
+            dst[out++] = ENCODE[bits >>> 2];
+            dst[out++] = ENCODE[(bits << 4) & 0x3F];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xFF) << 8 | (src[i + 1] & 0xFF);
+            dst[out++] = ENCODE[bits >>> 10];
+            dst[out++] = ENCODE[(bits >>> 4) & 0x3F];
+            dst[out++] = ENCODE[(bits << 2) & 0x3F];
+        }
+        return out;
+    }
+
+    /**
+     * Decodes {@code src[from, to)} into {@code dst}
+     *
+     * @return number of bytes written, -1 if the input is not strict unpadded base64url
+     * or does not fit into {@code dst}
+     */
+    public static int decode(CharSequence src, int from, int to, byte[] dst) {
+        int length = decodedLength(to - from);
+        if (length < 0 || length > dst.length) {
+            return -1;
+        }
+        int out = 0;
+        int i = from;
+        int fullEnd = from + ((to - from) & ~3);
+        while (i < fullEnd) {
+            int a = sextet(src.charAt(i));
+            int b = sextet(src.charAt(i + 1));
+            int c = sextet(src.charAt(i + 2));
+            int d = sextet(src.charAt(i + 3));
+            if ((a | b | c | d) < 0) {
+                return -1;
+            }
+            int bits = a << 18 | b << 12 | c << 6 | d;
+            dst[out++] = (byte) (bits >> 16);
+            dst[out++] = (byte) (bits >> 8);
+            dst[out++] = (byte) bits;
+            i += 4;
+        }
+        int remaining = to - i;
+        if (remaining == 2) {
+            int a = sextet(src.charAt(i));
+            int b = sextet(src.charAt(i + 1));
+            if ((a | b) < 0 || (b & 0xF) != 0) {
+                return -1;
+            }
+            dst[out++] = (byte) (a << 2 | b >> 4);
+        } else if (remaining == 3) {
+            int a = sextet(src.charAt(i));
+            int b = sextet(src.charAt(i + 1));
+            int c = sextet(src.charAt(i + 2));
+            if ((a | b | c) < 0 || (c & 0x3) != 0) {
+                return -1;
+            }
+            int bits = a << 12 | b << 6 | c;
+            dst[out++] = (byte) (bits >> 10);
+            dst[out++] = (byte) (bits >> 2);
+        }
+        return out;
+    }
+
+    /**
+     * Sextet value of the character, -1 when it is not in the alphabet
+     */
+    private static int sextet(char c) {
+        return c < 128 ? DECODE[c] : -1;
+    }
+}
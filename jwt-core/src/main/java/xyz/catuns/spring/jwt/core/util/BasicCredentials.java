@@ -0,0 +1,42 @@
+package xyz.catuns.spring.jwt.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Reads the username of HTTP basic credentials without authenticating them
+ */
+public final class BasicCredentials {
+
+    public static final String PREFIX = "Basic ";
+
+    private BasicCredentials() {
+    }
+
+    /**
+     * @param header Authorization header value, may be null
+     * @return whether the header carries basic credentials
+     */
+    public static boolean isBasic(String header) {
+        return header != null && header.regionMatches(true, 0, PREFIX, 0, PREFIX.length());
+    }
+
+    /**
+     * @param header Authorization header value, may be null
+     * @return username of the credentials, null if they are not basic or cannot be decoded
+     */
+    public static String username(String header) {
+        if (!isBasic(header)) {
+            return null;
+        }
+        byte[] decoded;
+        try {
+            decoded = Base64.getDecoder().decode(header.substring(PREFIX.length()).trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String credentials = new String(decoded, StandardCharsets.UTF_8);
+        int delimiter = credentials.indexOf(':');
+        return delimiter < 0 ? null : credentials.substring(0, delimiter);
+    }
+}
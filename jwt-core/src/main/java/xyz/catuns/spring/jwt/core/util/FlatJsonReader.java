@@ -0,0 +1,344 @@
+package xyz.catuns.spring.jwt.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Minimal reader for flat JSON objects, such as compact token headers and payloads
+ * <p>
+ * Members may be strings, numbers, booleans or null. Numbers are read the way
+ * Jackson reads them into a map: {@link Integer} when they fit, then {@link Long},
+ * and {@link Double} for fractions and exponents. Anything else, including nested
+ * objects, arrays and duplicate member names (jjwt rejects those), is reported as
+ * unreadable so callers can fall back to a full parser.
+ * <p>
+ * In skip-nested mode, used to peek at a few top-level members of larger documents,
+ * nested objects and arrays are instead skipped by bracket depth and left out of the
+ * result. Their contents are only checked loosely.
+ */
+public final class FlatJsonReader {
+
+    private static final Object INVALID = new Object();
+    private static final Object SKIPPED = new Object();
+
+    private final byte[] json;
+    private final int end;
+    private final boolean skipNested;
+    private int pos;
+
+    private FlatJsonReader(byte[] json, int offset, int length, boolean skipNested) {
+        this.json = json;
+        this.pos = offset;
+        this.end = offset + length;
+        this.skipNested = skipNested;
+    }
+
+    /**
+     * Reads the members of a flat JSON object into {@code target}
+     *
+     * @param json   UTF-8 encoded JSON
+     * @param offset start of the object
+     * @param length length of the object
+     * @param target receives the members in document order
+     * @return false if the input is not a readable flat object, {@code target} may then be partially filled
+     */
+    public static boolean read(byte[] json, int offset, int length, Map<String, Object> target) {
+        return new FlatJsonReader(json, offset, length, false).readObject(target);
+    }
+
+    /**
+     * Reads the flat members of a JSON object into {@code target}, skipping nested objects and arrays
+     *
+     * @param json   UTF-8 encoded JSON
+     * @param offset start of the object
+     * @param length length of the object
+     * @param target receives the members that are not objects or arrays, in document order
+     * @return false if the input is not a readable object, {@code target} may then be partially filled
+     */
+    public static boolean readSkippingNested(byte[] json, int offset, int length, Map<String, Object> target) {
+        return new FlatJsonReader(json, offset, length, true).readObject(target);
+    }
+
+    private boolean readObject(Map<String, Object> target) {
+        skipWhitespace();
+        if (!consume('{')) {
+            return false;
+        }
+        skipWhitespace();
+        if (consume('}')) {
+            return atEnd();
+        }
+        Set<String> skipped = null;
+        while (true) {
+            skipWhitespace();
+            String name = readString();
+            if (name == null || target.containsKey(name) || (skipped != null && skipped.contains(name))) {
+                return false;
+            }
+            skipWhitespace();
+            if (!consume(':')) {
+                return false;
+            }
+            skipWhitespace();
+            Object value = readValue();
+            if (value == INVALID) {
+                return false;
+            }
+            if (value == SKIPPED) {
+                if (skipped == null) {
+                    skipped = new HashSet<>();
+                }
+                skipped.add(name);
+            } else {
+                target.put(name, value);
+            }
+            skipWhitespace();
+            if (consume(',')) {
+                continue;
+            }
+            return consume('}') && atEnd();
+        }
+    }
+
+    private Object readValue() {
+        if (pos >= end) {
+            return INVALID;
+        }
+        byte b = json[pos];
+        if (b == '"') {
+            String value = readString();
+            return value == null ? INVALID : value;
+        }
+        if (b == '-' || (b >= '0' && b <= '9')) {
+            return readNumber();
+        }
+        if (skipNested && (b == '{' || b == '[')) {
+            return skipNestedValue() ? SKIPPED : INVALID;
+        }
+        if (matchLiteral("true")) {
+            return Boolean.TRUE;
+        }
+        if (matchLiteral("false")) {
+            return Boolean.FALSE;
+        }
+        if (matchLiteral("null")) {
+            return null;
+        }
+        return INVALID;
+    }
+
+    private String readString() {
+        if (!consume('"')) {
+            return null;
+        }
+        int start = pos;
+        while (pos < end) {
+            byte b = json[pos];
+            if (b == '"') {
+                String value = new String(json, start, pos - start, StandardCharsets.UTF_8);
+                pos++;
+                return value;
+            }
+            if (b == '\\') {
+                return readEscapedString(start);
+            }
+            if ((b & 0xFF) < 0x20) {
+                return null;
+            }
+            pos++;
+        }
+        return null;
+    }
+
+    private String readEscapedString(int start) {
+        StringBuilder sb = new StringBuilder(new String(json, start, pos - start, StandardCharsets.UTF_8));
+        int run = pos;
+        while (pos < end) {
+            byte b = json[pos];
+            if (b == '"') {
+                sb.append(new String(json, run, pos - run, StandardCharsets.UTF_8));
+                pos++;
+                return sb.toString();
+            }
+            if ((b & 0xFF) < 0x20) {
+                return null;
+            }
+            if (b != '\\') {
+                pos++;
+                continue;
+            }
+            sb.append(new String(json, run, pos - run, StandardCharsets.UTF_8));
+            if (pos + 1 >= end) {
+                return null;
+            }
+            byte escape = json[pos + 1];
+            pos += 2;
+            switch (escape) {
+                case '"' -> sb.append('"');
+                case '\\' -> sb.append('\\');
+                case '/' -> sb.append('/');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > end) {
+                        return null;
+                    }
+                    int c = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(json[pos + i], 16);
+                        if (digit < 0) {
+                            return null;
+                        }
+                        c = c << 4 | digit;
+                    }
+                    sb.append((char) c);
+                    pos += 4;
+                }
+                default -> {
+                    return null;
+                }
+            }
+            run = pos;
+        }
+        return null;
+    }
+
+    private Object readNumber() {
+        int start = pos;
+        boolean negative = consume('-');
+        int digitsStart = pos;
+        long value = 0;
+        boolean overflow = false;
+        while (pos < end && json[pos] >= '0' && json[pos] <= '9') {
+            int digit = json[pos] - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                overflow = true;
+            }
+            value = value * 10 + digit;
+            pos++;
+        }
+        int digits = pos - digitsStart;
+        if (digits == 0 || (digits > 1 && json[digitsStart] == '0')) {
+            return INVALID;
+        }
+
+        boolean decimal = false;
+        if (consume('.')) {
+            decimal = true;
+            if (!skipDigits()) {
+                return INVALID;
+            }
+        }
+        if (pos < end && (json[pos] == 'e' || json[pos] == 'E')) {
+            decimal = true;
+            pos++;
+            if (pos < end && (json[pos] == '+' || json[pos] == '-')) {
+                pos++;
+            }
+            if (!skipDigits()) {
+                return INVALID;
+            }
+        }
+
+        if (decimal) {
+            return Double.parseDouble(new String(json, start, pos - start, StandardCharsets.US_ASCII));
+        }
+        if (overflow) {
+            return INVALID;
+        }
+        long signed = negative ? -value : value;
+        if (signed >= Integer.MIN_VALUE && signed <= Integer.MAX_VALUE) {
+            return (int) signed;
+        }
+        return signed;
+    }
+
+    /**
+     * Skips an object or array by bracket depth, strings inside are skipped as a whole
+     */
+    private boolean skipNestedValue() {
+        int depth = 0;
+        while (pos < end) {
+            byte b = json[pos];
+            if (b == '"') {
+                if (!skipString()) {
+                    return false;
+                }
+                continue;
+            }
+            pos++;
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if ((b == '}' || b == ']') && --depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean skipString() {
+        pos++;
+        while (pos < end) {
+            byte b = json[pos];
+            if (b == '"') {
+                pos++;
+                return true;
+            }
+            if ((b & 0xFF) < 0x20) {
+                return false;
+            }
+            pos += b == '\\' ? 2 : 1;
+        }
+        return false;
+    }
+
+    private boolean skipDigits() {
+        int start = pos;
+        while (pos < end && json[pos] >= '0' && json[pos] <= '9') {
+            pos++;
+        }
+        return pos > start;
+    }
+
+    private boolean matchLiteral(String literal) {
+        int length = literal.length();
+        if (pos + length > end) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (json[pos + i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        pos += length;
+        return true;
+    }
+
+    private boolean consume(char c) {
+        if (pos < end && json[pos] == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (pos < end) {
+            byte b = json[pos];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private boolean atEnd() {
+        skipWhitespace();
+        return pos == end;
+    }
+}
@@ -0,0 +1,33 @@
+package xyz.catuns.spring.jwt.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates {@code jti} claim values
+ */
+public final class TokenIds {
+
+    private TokenIds() {
+    }
+
+    /**
+     * 128 random bits as 22 base64url characters
+     * <p>
+     * Ids only need to be unique, the token signature protects them, so this draws
+     * from {@link ThreadLocalRandom} instead of a {@code SecureRandom}.
+     */
+    public static String random() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        byte[] bits = new byte[16];
+        long high = random.nextLong();
+        long low = random.nextLong();
+        for (int i = 0; i < 8; i++) {
+            bits[i] = (byte) (high >>> (56 - 8 * i));
+            bits[8 + i] = (byte) (low >>> (56 - 8 * i));
+        }
+        byte[] encoded = new byte[Base64Url.encodedLength(bits.length)];
+        Base64Url.encode(bits, 0, bits.length, encoded, 0);
+        return new String(encoded, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,32 @@
+package xyz.catuns.spring.jwt.core.validator;
+
+import xyz.catuns.spring.jwt.core.model.ValidationFailure;
+import xyz.catuns.spring.jwt.core.model.ValidationStage;
+
+/**
+ * Notified by the validator filters of every stage a token passes or is rejected at
+ * <p>
+ * A token passes the stages in order and stops at the first rejection, so each request
+ * reports at most one failure. Stages that are not configured, e.g. without a screener,
+ * are not reported.
+ */
+public interface TokenValidationListener {
+
+    TokenValidationListener NOOP = new TokenValidationListener() {
+    };
+
+    /**
+     * @param stage         stage the token passed
+     * @param durationNanos time spent in the stage
+     */
+    default void passed(ValidationStage stage, long durationNanos) {
+    }
+
+    /**
+     * @param stage         stage the token was rejected at
+     * @param failure       kind of rejection
+     * @param durationNanos time spent in the stage
+     */
+    default void rejected(ValidationStage stage, ValidationFailure failure, long durationNanos) {
+    }
+}
@@ -0,0 +1,104 @@
+package xyz.catuns.spring.jwt.core;
+
+import org.junit.jupiter.api.Test;
+import xyz.catuns.spring.jwt.core.exception.TokenRevokedException;
+import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
+import xyz.catuns.spring.jwt.core.model.JwtToken;
+import xyz.catuns.spring.jwt.core.model.ParsedToken;
+import xyz.catuns.spring.jwt.core.model.TokenResult;
+import xyz.catuns.spring.jwt.core.model.ValidationFailure;
+import xyz.catuns.spring.jwt.core.model.ValidationResult;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenProviderTest {
+
+    private static final Instant ISSUED_AT = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant EXPIRATION = ISSUED_AT.plusSeconds(300);
+
+    private final TokenProvider<String> provider = new SubjectTokenProvider();
+
+    @Test
+    void parseReadsThePrincipalAndTheDateClaims() throws TokenValidationException {
+        ParsedToken<String> parsed = provider.parse("token:alice");
+
+        assertThat(parsed.principal()).isEqualTo("alice");
+        assertThat(parsed.issuedAt()).isEqualTo(ISSUED_AT);
+        assertThat(parsed.expiration()).isEqualTo(EXPIRATION);
+        assertThat(parsed.claims()).containsEntry("sub", "alice");
+    }
+
+    @Test
+    void parseRejectsWhatValidateRejects() {
+        assertThatThrownBy(() -> provider.parse("forged"))
+                .isInstanceOf(TokenValidationException.class);
+    }
+
+    @Test
+    void generateAllKeepsTheOrderAndTheFailures() {
+        List<TokenResult<JwtToken>> results = provider.generateAll(List.of("alice", "", "bob"));
+
+        assertThat(results).extracting(TokenResult::isSuccess).containsExactly(true, false, true);
+        assertThat(results.get(0).value().value()).isEqualTo("token:alice");
+        assertThat(results.get(1).error()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(results.get(2).value().value()).isEqualTo("token:bob");
+    }
+
+    @Test
+    void validateAllClassifiesTheFailures() {
+        List<ValidationResult<String>> results = provider.validateAll(List.of("token:alice", "forged"));
+
+        assertThat(results.get(0).principal()).isEqualTo("alice");
+        assertThat(results.get(1).failure()).isEqualTo(ValidationFailure.REJECTED);
+        assertThat(results.get(1).error()).isInstanceOf(TokenValidationException.class);
+    }
+
+    @Test
+    void classifyTellsRevokedTokensFromErrors() {
+        assertThat(provider.classify(new TokenRevokedException("revoked"))).isEqualTo(ValidationFailure.REVOKED);
+        assertThat(provider.classify(new IllegalStateException("broken"))).isEqualTo(ValidationFailure.ERROR);
+    }
+
+    /**
+     * Provider implementing only the abstract methods, tokens are "token:" and the subject
+     */
+    static class SubjectTokenProvider implements TokenProvider<String> {
+
+        @Override
+        public JwtToken generate(String subject) {
+            if (subject.isEmpty()) {
+                throw new IllegalArgumentException("Subject is empty");
+            }
+            return new JwtToken("token:" + subject, EXPIRATION, ISSUED_AT);
+        }
+
+        @Override
+        public String validate(String token) throws TokenValidationException {
+            if (!token.startsWith("token:")) {
+                throw new TokenValidationException("Not a token");
+            }
+            return token.substring("token:".length());
+        }
+
+        @Override
+        public Map<String, Object> getClaims(String token) {
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("sub", token.substring("token:".length()));
+            claims.put("iat", ISSUED_AT.getEpochSecond());
+            claims.put("exp", Date.from(EXPIRATION));
+            return claims;
+        }
+
+        @Override
+        public boolean isExpired(String token) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package xyz.catuns.spring.jwt.core.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    private final Set<String> expired = new HashSet<>();
+
+    @Test
+    void expiresAtTheDeadline() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 0, expired::add);
+        wheel.schedule("token", 5_000);
+
+        wheel.advanceTo(4_999);
+        assertThat(expired).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advanceTo(5_000);
+        assertThat(expired).containsExactly("token");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlinesBetweenTicksExpireAtTheNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 0, expired::add);
+        wheel.schedule("token", 5_001);
+
+        wheel.advanceTo(5_999);
+        assertThat(expired).isEmpty();
+
+        wheel.advanceTo(6_000);
+        assertThat(expired).containsExactly("token");
+    }
+
+    @Test
+    void passedDeadlinesExpireImmediately() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 10_000, expired::add);
+        wheel.schedule("past", 9_000);
+        wheel.schedule("now", 10_000);
+
+        assertThat(expired).containsExactlyInAnyOrder("past", "now");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesAcrossEveryLevelAndTheOverflow() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 0, expired::add);
+        List<Long> deadlines = List.of(
+                63L, 64L, 65L,                       // level 0 to 1
+                4_095L, 4_096L, 4_097L,              // level 1 to 2
+                262_143L, 262_144L, 262_145L,        // level 2 to 3
+                16_777_215L, 16_777_216L, 16_777_217L, // level 3 to overflow
+                33_554_500L);                        // twice around the top level
+        deadlines.forEach(deadline -> wheel.schedule("at-" + deadline, deadline));
+
+        for (long deadline : deadlines) {
+            wheel.advanceTo(deadline - 1);
+            assertThat(expired).as("before %d", deadline).doesNotContain("at-" + deadline);
+            wheel.advanceTo(deadline);
+            assertThat(expired).as("at %d", deadline).contains("at-" + deadline);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void expiresRandomDeadlinesExactlyLikeASortedMap() {
+        Random random = new Random(7);
+        long tick = 1_000;
+        long now = 1_700_000_000_123L;
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(tick, now, expired::add);
+        TreeMap<Long, Set<String>> model = new TreeMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = now + (long) (random.nextDouble() * random.nextDouble() * 400_000 * tick);
+            wheel.schedule("token-" + i, deadline);
+            // Keys expire at the first tick at or after their deadline
+            model.computeIfAbsent(Math.ceilDiv(deadline, tick) * tick, d -> new HashSet<>()).add("token-" + i);
+        }
+
+        Set<String> expected = new HashSet<>();
+        while (!model.isEmpty()) {
+            now += random.nextInt(50_000) * tick / 10;
+            wheel.advanceTo(now);
+            model.headMap(now, true).values().forEach(expected::addAll);
+            model.headMap(now, true).clear();
+
+            assertThat(expired).as("at %d", now).isEqualTo(expected);
+            assertThat(wheel.size()).isEqualTo(2_000 - expected.size());
+        }
+    }
+}
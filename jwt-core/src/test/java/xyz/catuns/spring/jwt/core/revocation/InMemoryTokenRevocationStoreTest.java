@@ -0,0 +1,172 @@
+package xyz.catuns.spring.jwt.core.revocation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTokenRevocationStoreTest {
+
+    // Background expiry is pushed out of the way, tests call expire() themselves
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final long START = 1_700_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(START);
+    private InMemoryTokenRevocationStore store;
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void revokedUntilExpiration() {
+        store = store(100);
+        store.revoke("jti", at(60_000));
+
+        assertThat(store.isRevoked("jti")).isTrue();
+        assertThat(store.isRevoked("other")).isFalse();
+
+        clock.set(START + 59_999);
+        store.expire();
+        assertThat(store.isRevoked("jti")).isTrue();
+
+        clock.set(START + 60_000);
+        assertThat(store.isRevoked("jti")).isFalse();
+        store.expire();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void expiredTokensAreNotStored() {
+        store = store(100);
+        store.revoke("expired", at(0));
+        store.revoke("older", at(-1_000));
+
+        assertThat(store.size()).isZero();
+        assertThat(store.getRevocations()).isZero();
+    }
+
+    @Test
+    void countsRevocationsAndHits() {
+        store = store(100);
+        store.revoke("jti", at(60_000));
+        store.revoke("jti", at(60_000));
+        store.isRevoked("jti");
+        store.isRevoked("jti");
+        store.isRevoked("other");
+
+        assertThat(store.getRevocations()).isEqualTo(1);
+        assertThat(store.getRevokedHits()).isEqualTo(2);
+    }
+
+    @Test
+    void filterIsRebuiltWhenItOutgrowsItsCapacity() {
+        store = store(100);
+        for (int i = 0; i < 300; i++) {
+            store.revoke("jti-" + i, at(60_000));
+        }
+
+        store.expire();
+
+        assertThat(store.getFilterCapacity()).isEqualTo(600);
+        for (int i = 0; i < 300; i++) {
+            assertThat(store.isRevoked("jti-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void filterIsRebuiltWithoutExpiredIds() {
+        store = store(100);
+        for (int i = 0; i < 90; i++) {
+            store.revoke("short-" + i, at(10_000));
+        }
+        store.revoke("long", at(600_000));
+
+        clock.set(START + 10_000);
+        store.expire();
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.getFilterCapacity()).isEqualTo(100);
+        assertThat(store.isRevoked("long")).isTrue();
+        // Even with the clock turned back, forgotten ids are no longer revoked
+        clock.set(START);
+        for (int i = 0; i < 90; i++) {
+            assertThat(store.isRevoked("short-" + i)).isFalse();
+        }
+    }
+
+    @Test
+    void concurrentRevocationsAreSeenByReadersThroughRebuilds() throws Exception {
+        store = store(64);
+        int revocations = 5_000;
+        AtomicInteger published = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < revocations; i++) {
+                    store.revoke("jti-" + i, at(60_000));
+                    published.set(i + 1);
+                }
+                done.set(true);
+                return null;
+            }));
+            futures.add(executor.submit(() -> {
+                start.await();
+                while (!done.get()) {
+                    store.expire();
+                }
+                return null;
+            }));
+            for (int r = 0; r < 4; r++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    while (!done.get()) {
+                        int upTo = published.get();
+                        for (int i = Math.max(0, upTo - 50); i < upTo; i++) {
+                            assertThat(store.isRevoked("jti-" + i)).as("jti-%d", i).isTrue();
+                        }
+                        assertThat(store.isRevoked("never-" + upTo)).isFalse();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        store.expire();
+        assertThat(store.size()).isEqualTo(revocations);
+        for (int i = 0; i < revocations; i++) {
+            assertThat(store.isRevoked("jti-" + i)).isTrue();
+        }
+    }
+
+    private InMemoryTokenRevocationStore store(long expectedRevocations) {
+        return new InMemoryTokenRevocationStore(expectedRevocations, 0.001, TICK, clock::get);
+    }
+
+    private Instant at(long millisFromStart) {
+        return Instant.ofEpochMilli(START + millisFromStart);
+    }
+}
@@ -0,0 +1,145 @@
+package xyz.catuns.spring.jwt.core.screening;
+
+import org.junit.jupiter.api.Test;
+import xyz.catuns.spring.jwt.core.exception.TokenScreeningException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class TokenScreenerTest {
+
+    private static final String HEADER = "{\"alg\":\"HS256\",\"kid\":\"k1\"}";
+
+    private final TokenScreener screener = new TokenScreener(
+            TokenScreener.DEFAULT_MAX_LENGTH, Set.of("HS256"), Set.of("k1"), Set.of("catuns"), Duration.ofSeconds(30));
+
+    @Test
+    void passesWellFormedTokens() {
+        assertThat(screener.screen(token(HEADER, payload()))).isNull();
+        assertThat(screener.getPassed()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsNestedClaims() {
+        String payload = "{\"aud\":[\"a\",\"b\"],\"ctx\":{\"roles\":[\"}\",\"]\"]},\"iss\":\"catuns\",\"exp\":" + inOneHour() + "}";
+
+        assertThat(screener.screen(token(HEADER, payload))).isNull();
+    }
+
+    @Test
+    void rejectsTooLongTokens() {
+        String token = token(HEADER, "{\"iss\":\"catuns\",\"pad\":\"" + "x".repeat(8_000) + "\"}");
+
+        assertThat(token.length()).isGreaterThan(TokenScreener.DEFAULT_MAX_LENGTH);
+        assertThat(screener.screen(token)).isEqualTo(ScreeningFailure.TOO_LONG);
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        String header = encode(HEADER);
+        String payload = encode(payload());
+
+        assertThat(screener.screen(header + "." + payload)).isEqualTo(ScreeningFailure.MALFORMED);
+        assertThat(screener.screen(header + "." + payload + ".")).isEqualTo(ScreeningFailure.MALFORMED);
+        assertThat(screener.screen(header + "." + payload + ".sig.extra")).isEqualTo(ScreeningFailure.MALFORMED);
+        assertThat(screener.screen(header + ".$$$.sig")).isEqualTo(ScreeningFailure.MALFORMED);
+        assertThat(screener.screen(token("[\"HS256\"]", payload()))).isEqualTo(ScreeningFailure.MALFORMED);
+        assertThat(screener.screen(token(HEADER, "{\"exp\":"))).isEqualTo(ScreeningFailure.MALFORMED);
+        assertThat(screener.screen(token(HEADER, "{\"aud\":[\"a\",\"exp\":1}"))).isEqualTo(ScreeningFailure.MALFORMED);
+    }
+
+    @Test
+    void rejectsDuplicateMembers() {
+        String header = "{\"alg\":\"HS256\",\"kid\":\"k1\",\"alg\":\"none\"}";
+
+        assertThat(screener.screen(token(header, payload()))).isEqualTo(ScreeningFailure.MALFORMED);
+    }
+
+    @Test
+    void rejectsUnacceptedAlgorithms() {
+        assertThat(screener.screen(token("{\"alg\":\"none\",\"kid\":\"k1\"}", payload())))
+                .isEqualTo(ScreeningFailure.ALGORITHM);
+        assertThat(screener.screen(token("{\"alg\":\"RS256\",\"kid\":\"k1\"}", payload())))
+                .isEqualTo(ScreeningFailure.ALGORITHM);
+        assertThat(screener.screen(token("{\"kid\":\"k1\"}", payload())))
+                .isEqualTo(ScreeningFailure.ALGORITHM);
+    }
+
+    @Test
+    void rejectsNoneEvenWhenAnyAlgorithmIsAccepted() {
+        TokenScreener lenient = new TokenScreener();
+
+        assertThat(lenient.screen(token("{\"alg\":\"NONE\"}", "{}"))).isEqualTo(ScreeningFailure.ALGORITHM);
+        assertThat(lenient.screen(token("{\"alg\":\"HS512\"}", "{}"))).isNull();
+    }
+
+    @Test
+    void rejectsUnacceptedKeyIds() {
+        assertThat(screener.screen(token("{\"alg\":\"HS256\",\"kid\":\"k2\"}", payload())))
+                .isEqualTo(ScreeningFailure.KEY_ID);
+        assertThat(screener.screen(token("{\"alg\":\"HS256\"}", payload())))
+                .isEqualTo(ScreeningFailure.KEY_ID);
+    }
+
+    @Test
+    void rejectsUnacceptedIssuers() {
+        String payload = "{\"iss\":\"someone\",\"exp\":" + inOneHour() + "}";
+
+        assertThat(screener.screen(token(HEADER, payload))).isEqualTo(ScreeningFailure.ISSUER);
+        assertThat(screener.screen(token(HEADER, "{\"exp\":" + inOneHour() + "}"))).isEqualTo(ScreeningFailure.ISSUER);
+    }
+
+    @Test
+    void rejectsTokensExpiredBeyondTheClockSkew() {
+        long now = System.currentTimeMillis() / 1000;
+
+        assertThat(screener.screen(token(HEADER, "{\"iss\":\"catuns\",\"exp\":" + (now - 60) + "}")))
+                .isEqualTo(ScreeningFailure.EXPIRED);
+        assertThat(screener.screen(token(HEADER, "{\"iss\":\"catuns\",\"exp\":" + (now - 10) + "}")))
+                .isNull();
+        assertThat(screener.screen(token(HEADER, "{\"iss\":\"catuns\",\"exp\":\"yesterday\"}")))
+                .isNull();
+    }
+
+    @Test
+    void countsRejectionsPerReason() {
+        screener.screen("not-a-token");
+        screener.screen("not-a-token");
+        screener.screen(token("{\"alg\":\"none\"}", payload()));
+
+        assertThat(screener.getRejected(ScreeningFailure.MALFORMED)).isEqualTo(2);
+        assertThat(screener.getRejected(ScreeningFailure.ALGORITHM)).isEqualTo(1);
+        assertThat(screener.getPassed()).isZero();
+    }
+
+    @Test
+    void checkThrowsTheReason() {
+        TokenScreeningException exception = catchThrowableOfType(TokenScreeningException.class,
+                () -> screener.check(token("{\"alg\":\"HS256\",\"kid\":\"k2\"}", payload())));
+
+        assertThat(exception.getFailure()).isEqualTo(ScreeningFailure.KEY_ID);
+        assertThatCode(() -> screener.check(token(HEADER, payload()))).doesNotThrowAnyException();
+    }
+
+    private static String payload() {
+        return "{\"sub\":\"alice\",\"iss\":\"catuns\",\"exp\":" + inOneHour() + "}";
+    }
+
+    private static long inOneHour() {
+        return System.currentTimeMillis() / 1000 + 3_600;
+    }
+
+    private static String token(String header, String payload) {
+        return encode(header) + "." + encode(payload) + ".c2lnbmF0dXJl";
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
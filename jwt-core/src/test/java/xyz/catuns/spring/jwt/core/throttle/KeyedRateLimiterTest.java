@@ -0,0 +1,138 @@
+package xyz.catuns.spring.jwt.core.throttle;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyedRateLimiterTest {
+
+    private static final long PERIOD = Duration.ofSeconds(1).toNanos();
+
+    private final AtomicLong clock = new AtomicLong(-5 * PERIOD);
+
+    @Test
+    void fullBucketAllowsABurstOfCapacity() {
+        KeyedRateLimiter limiter = limiter(3, 1_000);
+
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isEqualTo(PERIOD);
+    }
+
+    @Test
+    void waitIsTheTimeUntilTheNextPermit() {
+        KeyedRateLimiter limiter = limiter(2, 1_000);
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("alice");
+
+        clock.addAndGet(PERIOD / 4);
+
+        assertThat(limiter.tryAcquire("alice")).isEqualTo(PERIOD - PERIOD / 4);
+    }
+
+    @Test
+    void refusedAttemptsDoNotTakePermits() {
+        KeyedRateLimiter limiter = limiter(1, 1_000);
+        limiter.tryAcquire("alice");
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("alice");
+        }
+        clock.addAndGet(PERIOD);
+
+        assertThat(limiter.tryAcquire("alice")).isZero();
+    }
+
+    @Test
+    void oneRefillPeriodAddsOnePermit() {
+        KeyedRateLimiter limiter = limiter(3, 1_000);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("alice");
+        }
+
+        clock.addAndGet(PERIOD);
+
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+    }
+
+    @Test
+    void idleBucketRefillsToCapacityOnly() {
+        KeyedRateLimiter limiter = limiter(2, 1_000);
+        limiter.tryAcquire("alice");
+
+        clock.addAndGet(100 * PERIOD);
+
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+    }
+
+    @Test
+    void keysHaveTheirOwnBuckets() {
+        KeyedRateLimiter limiter = limiter(1, 1_000);
+
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("bob")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+    }
+
+    @Test
+    void floodOfNewKeysDoesNotResetAThrottledKey() {
+        // One bucket per stripe
+        KeyedRateLimiter limiter = limiter(1, 16);
+        limiter.tryAcquire("alice");
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("flood-" + i);
+        }
+
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+        assertThat(limiter.estimatedSize()).isLessThanOrEqualTo(16);
+    }
+
+    @Test
+    void newKeysAreRefusedWhileTheStripeIsFullOfActiveBuckets() {
+        KeyedRateLimiter limiter = limiter(1, 16);
+        limiter.tryAcquire("alice");
+        String sameStripe = keyInStripeOf("alice");
+
+        clock.addAndGet(PERIOD / 4);
+
+        assertThat(limiter.tryAcquire(sameStripe)).isEqualTo(PERIOD - PERIOD / 4);
+    }
+
+    @Test
+    void idleBucketsAreEvictedForNewKeys() {
+        KeyedRateLimiter limiter = limiter(1, 16);
+        limiter.tryAcquire("alice");
+        String sameStripe = keyInStripeOf("alice");
+
+        clock.addAndGet(PERIOD);
+
+        assertThat(limiter.tryAcquire(sameStripe)).isZero();
+        assertThat(limiter.estimatedSize()).isEqualTo(1);
+    }
+
+    private KeyedRateLimiter limiter(int capacity, int maxKeys) {
+        return new KeyedRateLimiter(capacity, Duration.ofNanos(PERIOD), maxKeys, clock::get);
+    }
+
+    /**
+     * @return another key sharing the stripe of the given key
+     */
+    private String keyInStripeOf(String key) {
+        for (int i = 0; ; i++) {
+            KeyedRateLimiter probe = limiter(1, 16);
+            probe.tryAcquire(key);
+            String candidate = "key-" + i;
+            if (probe.tryAcquire(candidate) > 0) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -7,12 +7,13 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import org.springframework.security.core.GrantedAuthority;
+import xyz.catuns.spring.jwt.domain.listener.DomainEntityListener;
 import xyz.catuns.spring.jwt.domain.utils.Slugifier;
 
 import java.util.Objects;
 
 @MappedSuperclass
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, DomainEntityListener.class})
 @Getter
 @Setter
 public abstract class RoleEntity implements GrantedAuthority, Slugifier {
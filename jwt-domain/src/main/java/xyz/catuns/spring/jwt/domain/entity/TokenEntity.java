@@ -30,6 +30,9 @@ public abstract class TokenEntity {
     @Column(name = "issued_at", nullable = false)
     protected Instant issuedAt;
 
+    @Column(name = "consumed_at")
+    protected Instant consumedAt;
+
 
     @Override
     public boolean equals(Object o) {
@@ -47,4 +50,8 @@ public abstract class TokenEntity {
     public boolean isExpired() {
         return Instant.now().isAfter(this.expires);
     }
+
+    public boolean isConsumed() {
+        return this.consumedAt != null;
+    }
 }
@@ -3,6 +3,7 @@ package xyz.catuns.spring.jwt.domain.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedDate;
@@ -10,6 +11,7 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import xyz.catuns.spring.jwt.domain.listener.DomainEntityListener;
 
 import java.time.Instant;
 import java.util.Collection;
@@ -18,7 +20,7 @@ import java.util.UUID;
 @Getter
 @Setter
 @MappedSuperclass
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, DomainEntityListener.class})
 public abstract class UserEntity implements UserDetails {
 
     @Id
@@ -41,8 +43,20 @@ public abstract class UserEntity implements UserDetails {
     @Column(name = "pwd_hash", nullable = false)
     protected String password;
 
+    /**
+     * Incremented to invalidate every token issued to the user, null in rows written
+     * before the column existed reads as 0
+     */
+    @ColumnDefault("0")
+    @Column(name = "token_version")
+    protected Long tokenVersion;
+
     public abstract Collection<? extends RoleEntity>  getRoles();
 
+    public long getTokenVersion() {
+        return this.tokenVersion == null ? 0 : this.tokenVersion;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return this.getRoles();
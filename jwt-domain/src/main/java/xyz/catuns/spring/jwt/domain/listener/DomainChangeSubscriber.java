@@ -0,0 +1,23 @@
+package xyz.catuns.spring.jwt.domain.listener;
+
+import xyz.catuns.spring.jwt.domain.entity.RoleEntity;
+import xyz.catuns.spring.jwt.domain.entity.UserEntity;
+
+/**
+ * Receives users and roles updated or removed through JPA
+ *
+ * @see DomainEntityListener
+ */
+public interface DomainChangeSubscriber {
+
+    /**
+     * @param user updated or removed user, in its new state
+     */
+    void userChanged(UserEntity user);
+
+    /**
+     * @param role updated or removed role, in its new state
+     */
+    default void roleChanged(RoleEntity role) {
+    }
+}
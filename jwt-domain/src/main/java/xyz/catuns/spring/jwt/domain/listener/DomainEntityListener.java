@@ -0,0 +1,60 @@
+package xyz.catuns.spring.jwt.domain.listener;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import xyz.catuns.spring.jwt.domain.entity.RoleEntity;
+import xyz.catuns.spring.jwt.domain.entity.UserEntity;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * JPA entity listener of {@link UserEntity} and {@link RoleEntity} publishing their
+ * updates and removals to the registered {@link DomainChangeSubscriber}s
+ * <p>
+ * The JPA provider instantiates entity listeners itself, so subscribers register here
+ * statically. They are notified when the change is flushed and, inside a transaction,
+ * again once it completes, so that a read racing the commit cannot keep the old state.
+ * Bulk JPQL updates, such as the token version increment, bypass entity listeners.
+ */
+public class DomainEntityListener {
+
+    private static final Set<DomainChangeSubscriber> subscribers = new CopyOnWriteArraySet<>();
+
+    public static void subscribe(DomainChangeSubscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public static void unsubscribe(DomainChangeSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    @PostUpdate
+    @PostRemove
+    void changed(Object entity) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        publish(entity);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    publish(entity);
+                }
+            });
+        }
+    }
+
+    private static void publish(Object entity) {
+        for (DomainChangeSubscriber subscriber : subscribers) {
+            if (entity instanceof UserEntity user) {
+                subscriber.userChanged(user);
+            } else if (entity instanceof RoleEntity role) {
+                subscriber.roleChanged(role);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package xyz.catuns.spring.jwt.domain.projection;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * What authenticating a user reads: its id, email, password hash and role names
+ *
+ * @param id       user id
+ * @param email    user email, the username
+ * @param password password hash
+ * @param roles    role names, the user's authorities
+ */
+public record UserCredentials(UUID id, String email, String password, List<String> roles) {
+}
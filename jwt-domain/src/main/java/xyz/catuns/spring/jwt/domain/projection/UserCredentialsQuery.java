@@ -0,0 +1,133 @@
+package xyz.catuns.spring.jwt.domain.projection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import lombok.extern.slf4j.Slf4j;
+import xyz.catuns.spring.jwt.domain.entity.RoleEntity;
+import xyz.catuns.spring.jwt.domain.entity.UserEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads the {@link UserCredentials} of a user in one round trip
+ * <p>
+ * Selects the id, email, password hash and role names with a left join over the user's
+ * role collection, instead of loading the entity and then its roles. The collection is
+ * found in the metamodel of the concrete entity, since {@link UserEntity} leaves its
+ * mapping to subclasses.
+ * <p>
+ * A projection only stands in for the entity when the entity adds nothing to what it
+ * reads. {@link #of} therefore returns nothing when the user entity overrides how
+ * {@link org.springframework.security.core.userdetails.UserDetails} are derived, such as
+ * the authorities or the account flags, or the role entity overrides its authority.
+ */
+@Slf4j
+public class UserCredentialsQuery {
+
+    private static final String[] USER_DETAILS_METHODS = {
+            "getAuthorities", "getUsername", "getPassword", "isAccountNonExpired",
+            "isAccountNonLocked", "isCredentialsNonExpired", "isEnabled"
+    };
+
+    private final EntityManager entityManager;
+    private final String jpql;
+
+    private UserCredentialsQuery(EntityManager entityManager, String jpql) {
+        this.entityManager = entityManager;
+        this.jpql = jpql;
+    }
+
+    /**
+     * @param entityManager shared entity manager
+     * @param userClass     concrete user entity
+     * @return the query, or empty if the user entity cannot be projected
+     */
+    public static Optional<UserCredentialsQuery> of(EntityManager entityManager, Class<? extends UserEntity> userClass) {
+        Metamodel metamodel = entityManager.getMetamodel();
+        EntityType<? extends UserEntity> user;
+        try {
+            user = metamodel.entity(userClass);
+        } catch (IllegalArgumentException e) {
+            log.debug("{} is not an entity, credentials are read from the entity", userClass.getName());
+            return Optional.empty();
+        }
+        PluralAttribute<?, ?, ?> roles = null;
+        for (PluralAttribute<?, ?, ?> attribute : user.getPluralAttributes()) {
+            if (RoleEntity.class.isAssignableFrom(attribute.getElementType().getJavaType())) {
+                if (roles != null) {
+                    log.debug("{} has several role collections, credentials are read from the entity", userClass.getName());
+                    return Optional.empty();
+                }
+                roles = attribute;
+            }
+        }
+        if (roles == null || roles.getPersistentAttributeType() == Attribute.PersistentAttributeType.ELEMENT_COLLECTION) {
+            log.debug("{} has no role association, credentials are read from the entity", userClass.getName());
+            return Optional.empty();
+        }
+        Class<?> roleClass = roles.getElementType().getJavaType();
+        String override = overriddenMethod(userClass, roleClass);
+        if (override != null) {
+            log.debug("{} overrides {}, credentials are read from the entity", userClass.getName(), override);
+            return Optional.empty();
+        }
+        String jpql = "select u.id, u.email, u.password, r.name from %s u left join u.%s r where u.email = :email"
+                .formatted(user.getName(), roles.getName());
+        return Optional.of(new UserCredentialsQuery(entityManager, jpql));
+    }
+
+    /**
+     * @param email user email
+     * @return the user's credentials, empty if there is no such user
+     */
+    public Optional<UserCredentials> find(String email) {
+        List<Object[]> rows = entityManager.createQuery(jpql, Object[].class)
+                .setParameter("email", email)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] first = rows.get(0);
+        List<String> roles = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            if (row[3] != null) {
+                roles.add((String) row[3]);
+            }
+        }
+        return Optional.of(new UserCredentials((UUID) first[0], (String) first[1], (String) first[2], List.copyOf(roles)));
+    }
+
+    public String getJpql() {
+        return jpql;
+    }
+
+    /**
+     * @return a method the entities override so that their details differ from the projection, or null
+     */
+    private static String overriddenMethod(Class<?> userClass, Class<?> roleClass) {
+        for (String name : USER_DETAILS_METHODS) {
+            if (declaredBelow(userClass, UserEntity.class, name)) {
+                return name;
+            }
+        }
+        return declaredBelow(roleClass, RoleEntity.class, "getAuthority") ? "getAuthority" : null;
+    }
+
+    private static boolean declaredBelow(Class<?> type, Class<?> base, String method) {
+        for (Class<?> c = type; c != null && c != base; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(method);
+                return true;
+            } catch (NoSuchMethodException ignored) {
+                // Not declared at this level
+            }
+        }
+        return false;
+    }
+}
@@ -1,7 +1,10 @@
 package xyz.catuns.spring.jwt.domain.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import xyz.catuns.spring.jwt.domain.entity.TokenEntity;
 
 import java.time.Instant;
@@ -18,8 +21,20 @@ public interface TokenEntityRepository<T extends TokenEntity> extends JpaReposit
 
     Optional<T> findByToken(String token);
 
+    /**
+     * Marks the token consumed unless another request consumed it first
+     *
+     * @return 1 if this call consumed the token, 0 otherwise
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update #{#entityName} t set t.consumedAt = :consumedAt where t.id = :id and t.consumedAt is null")
+    int markConsumed(@Param("id") Long id, @Param("consumedAt") Instant consumedAt);
+
+    @Transactional
     void deleteAllByIdentifier(String identifier);
 
+    @Transactional
     void deleteAllByIdentifierAndExpiresBefore(
             @Param("identifier") String identifier,
             @Param("expires") Instant expiration
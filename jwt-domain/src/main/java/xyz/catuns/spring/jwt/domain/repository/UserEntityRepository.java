@@ -1,6 +1,10 @@
 package xyz.catuns.spring.jwt.domain.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import xyz.catuns.spring.jwt.domain.entity.UserEntity;
 
 import java.util.Optional;
@@ -9,4 +13,17 @@ import java.util.UUID;
 public interface UserEntityRepository<Entity extends UserEntity> extends JpaRepository<Entity, UUID> {
 
     Optional<Entity> findByEmail(String email);
-}
\ No newline at end of file
+
+    @Query("select coalesce(u.tokenVersion, 0) from #{#entityName} u where u.email = :email")
+    Optional<Long> findTokenVersionByEmail(@Param("email") String email);
+
+    /**
+     * Increments the token version in place, concurrent bumps are not lost
+     *
+     * @return 1 if the user exists, 0 otherwise
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update #{#entityName} u set u.tokenVersion = coalesce(u.tokenVersion, 0) + 1 where u.email = :email")
+    int incrementTokenVersion(@Param("email") String email);
+}
@@ -0,0 +1,123 @@
+package xyz.catuns.spring.jwt.domain.projection;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.catuns.spring.jwt.domain.entity.RoleEntity;
+import xyz.catuns.spring.jwt.domain.entity.UserEntity;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCredentialsQueryTest {
+
+    private static SessionFactory sessionFactory;
+    private static Statistics statistics;
+
+    private EntityManager entityManager;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(TestUser.class)
+                .addAnnotatedClass(TestRole.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:credentials;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.generate_statistics", "true")
+                .buildSessionFactory();
+        statistics = sessionFactory.getStatistics();
+
+        EntityManager em = sessionFactory.createEntityManager();
+        em.getTransaction().begin();
+        TestRole user = role(em, "USER");
+        TestRole admin = role(em, "ADMIN");
+        TestUser alice = new TestUser();
+        alice.setEmail("alice@catuns.xyz");
+        alice.setPassword("{noop}secret");
+        alice.getRoles().addAll(Set.of(user, admin));
+        em.persist(alice);
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @AfterAll
+    static void tearDownDatabase() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        entityManager = sessionFactory.createEntityManager();
+        statistics.clear();
+    }
+
+    @Test
+    void readsUserAndRolesInOneStatement() {
+        UserCredentialsQuery query = UserCredentialsQuery.of(entityManager, TestUser.class).orElseThrow();
+
+        Optional<UserCredentials> credentials = query.find("alice@catuns.xyz");
+
+        assertThat(credentials).hasValueSatisfying(found -> {
+            assertThat(found.email()).isEqualTo("alice@catuns.xyz");
+            assertThat(found.password()).isEqualTo("{noop}secret");
+            assertThat(found.roles()).containsExactlyInAnyOrder("USER", "ADMIN");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loadingTheEntityTakesASecondStatementForRoles() {
+        TestUser user = entityManager
+                .createQuery("select u from TestUser u where u.email = :email", TestUser.class)
+                .setParameter("email", "alice@catuns.xyz")
+                .getSingleResult();
+
+        assertThat(user.getAuthorities()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void unknownUserIsEmpty() {
+        UserCredentialsQuery query = UserCredentialsQuery.of(entityManager, TestUser.class).orElseThrow();
+
+        assertThat(query.find("nobody@catuns.xyz")).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static TestRole role(EntityManager em, String name) {
+        TestRole role = new TestRole();
+        role.setName(name);
+        em.persist(role);
+        return role;
+    }
+
+    @Getter
+    @Setter
+    @Entity(name = "TestUser")
+    @Table(name = "users")
+    static class TestUser extends UserEntity {
+
+        @ManyToMany
+        @JoinTable(
+                name = "user_roles",
+                joinColumns = @JoinColumn(name = "user_id"),
+                inverseJoinColumns = @JoinColumn(name = "role_id")
+        )
+        private Set<TestRole> roles = new HashSet<>();
+    }
+
+    @Entity(name = "TestRole")
+    @Table(name = "roles")
+    static class TestRole extends RoleEntity {
+    }
+}
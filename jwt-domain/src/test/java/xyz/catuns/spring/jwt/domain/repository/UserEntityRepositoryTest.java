@@ -0,0 +1,97 @@
+package xyz.catuns.spring.jwt.domain.repository;
+
+import jakarta.persistence.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import xyz.catuns.spring.jwt.domain.entity.RoleEntity;
+import xyz.catuns.spring.jwt.domain.entity.UserEntity;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserEntityRepositoryTest {
+
+    private static SessionFactory sessionFactory;
+
+    private EntityManager entityManager;
+    private TestUserRepository repository;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(TestUser.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:token-version;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .buildSessionFactory();
+    }
+
+    @AfterAll
+    static void tearDownDatabase() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        entityManager = sessionFactory.createEntityManager();
+        repository = new JpaRepositoryFactory(entityManager).getRepository(TestUserRepository.class);
+        inTransaction(() -> {
+            entityManager.createNativeQuery("delete from users").executeUpdate();
+            // A row written before the token_version column was added
+            entityManager.createNativeQuery("""
+                    insert into users (id, created_at, updated_at, email, pwd_hash, token_version)
+                    values (random_uuid(), current_timestamp, current_timestamp, 'legacy@catuns.xyz', 'x', null)
+                    """).executeUpdate();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+    }
+
+    @Test
+    void missingTokenVersionReadsAsZero() {
+        assertThat(repository.findTokenVersionByEmail("legacy@catuns.xyz")).contains(0L);
+        assertThat(repository.findByEmail("legacy@catuns.xyz"))
+                .hasValueSatisfying(user -> assertThat(user.getTokenVersion()).isZero());
+    }
+
+    @Test
+    void missingTokenVersionIsIncrementedFromZero() {
+        inTransaction(() -> assertThat(repository.incrementTokenVersion("legacy@catuns.xyz")).isEqualTo(1));
+
+        assertThat(repository.findTokenVersionByEmail("legacy@catuns.xyz")).contains(1L);
+    }
+
+    @Test
+    void unknownUserHasNoTokenVersion() {
+        assertThat(repository.findTokenVersionByEmail("nobody@catuns.xyz")).isEmpty();
+    }
+
+    private void inTransaction(Runnable work) {
+        entityManager.getTransaction().begin();
+        work.run();
+        entityManager.getTransaction().commit();
+    }
+
+    interface TestUserRepository extends UserEntityRepository<TestUser> {
+    }
+
+    @Entity(name = "TokenVersionUser")
+    @Table(name = "users")
+    static class TestUser extends UserEntity {
+
+        @Override
+        public Collection<? extends RoleEntity> getRoles() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package xyz.catuns.spring.jwt.security.reactive;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import xyz.catuns.spring.jwt.core.TokenProvider;
+import xyz.catuns.spring.jwt.core.model.JwtToken;
+import xyz.catuns.spring.jwt.core.model.ParsedToken;
+import xyz.catuns.spring.jwt.core.model.TokenResult;
+import xyz.catuns.spring.jwt.core.model.ValidationResult;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Non-blocking adapter over a {@link TokenProvider}
+ * <p>
+ * Signing and verification are CPU bound, so every call is subscribed on a separate
+ * {@link Scheduler} and never runs on an event-loop thread. The default
+ * {@link Schedulers#parallel()} suits pure crypto; use {@link Schedulers#boundedElastic()}
+ * when the delegate may block, e.g. on a database backed token version registry.
+ */
+public class ReactiveTokenProvider<T> {
+
+    private final TokenProvider<T> delegate;
+    private final Scheduler scheduler;
+
+    public ReactiveTokenProvider(TokenProvider<T> delegate) {
+        this(delegate, Schedulers.parallel());
+    }
+
+    public ReactiveTokenProvider(TokenProvider<T> delegate, Scheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    public Mono<JwtToken> generate(T claims) {
+        return Mono.fromCallable(() -> delegate.generate(claims)).subscribeOn(scheduler);
+    }
+
+    public Mono<List<TokenResult<JwtToken>>> generateAll(Collection<T> claims) {
+        return Mono.fromCallable(() -> delegate.generateAll(claims)).subscribeOn(scheduler);
+    }
+
+    /**
+     * @return the principal, or an error with the {@link xyz.catuns.spring.jwt.core.exception.TokenValidationException}
+     */
+    public Mono<T> validate(String token) {
+        return Mono.fromCallable(() -> delegate.validate(token)).subscribeOn(scheduler);
+    }
+
+    public Mono<ParsedToken<T>> parse(String token) {
+        return Mono.fromCallable(() -> delegate.parse(token)).subscribeOn(scheduler);
+    }
+
+    public Mono<List<ValidationResult<T>>> validateAll(List<String> tokens) {
+        return Mono.fromCallable(() -> delegate.validateAll(tokens)).subscribeOn(scheduler);
+    }
+
+    public TokenProvider<T> getDelegate() {
+        return delegate;
+    }
+}
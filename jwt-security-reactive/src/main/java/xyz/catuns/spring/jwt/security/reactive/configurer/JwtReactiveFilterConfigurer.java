@@ -0,0 +1,262 @@
+package xyz.catuns.spring.jwt.security.reactive.configurer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.authorization.ServerAccessDeniedHandler;
+import org.springframework.web.server.ServerWebExchange;
+import xyz.catuns.spring.jwt.core.revocation.TokenRevocationStore;
+import xyz.catuns.spring.jwt.core.screening.TokenScreener;
+import xyz.catuns.spring.jwt.core.throttle.LoginThrottle;
+import xyz.catuns.spring.jwt.core.validator.TokenValidationListener;
+import xyz.catuns.spring.jwt.security.reactive.ReactiveTokenProvider;
+import xyz.catuns.spring.jwt.security.reactive.filter.JwtReactiveExceptionHandlerFilter;
+import xyz.catuns.spring.jwt.security.reactive.filter.JwtReactiveLoginThrottleFilter;
+import xyz.catuns.spring.jwt.security.reactive.filter.JwtReactiveTokenGeneratorFilter;
+import xyz.catuns.spring.jwt.security.reactive.filter.JwtReactiveTokenValidatorFilter;
+import xyz.catuns.spring.jwt.security.reactive.handler.JwtServerErrorWriter;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Function;
+
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.AUTHORIZATION_KEY;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.BEARER_TOKEN_PREFIX;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.LOGIN_PATHS;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.TOKEN_EXPIRATION_KEY;
+
+/**
+ * Builder for the reactive JWT filters, the WebFlux counterpart of
+ * {@link xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer}
+ * <p>
+ * {@link #configure(ServerHttpSecurity)} adds the exception handler and the login throttle
+ * before HTTP basic, the validator at {@link SecurityWebFiltersOrder#AUTHENTICATION} and the generator after it.
+ */
+@Slf4j
+public class JwtReactiveFilterConfigurer {
+
+    private final ReactiveTokenProvider<Authentication> tokenProvider;
+
+    // Validator config
+    private boolean validator = true;
+    private String validatorHeaderName = AUTHORIZATION_KEY;
+    private String validatorTokenPrefix = BEARER_TOKEN_PREFIX;
+    private TokenRevocationStore revocationStore;
+    private TokenScreener tokenScreener;
+    private TokenValidationListener validationListener = TokenValidationListener.NOOP;
+
+    // Generator config
+    private boolean generator = true;
+    private String generatorTokenHeader = AUTHORIZATION_KEY;
+    private String generatorExpirationHeader = TOKEN_EXPIRATION_KEY;
+    private String generatorTokenPrefix = BEARER_TOKEN_PREFIX;
+    private Set<String> loginPaths = LOGIN_PATHS;
+
+    // Login throttle config
+    private boolean loginThrottleEnabled = true;
+    private LoginThrottle loginThrottle;
+    private Function<ServerWebExchange, String> clientAddressResolver;
+    private JwtServerErrorWriter errorWriter;
+
+    // Exception handler config
+    private boolean exceptionHandler = true;
+    private ServerAuthenticationEntryPoint authenticationEntryPoint;
+    private ServerAccessDeniedHandler accessDeniedHandler;
+    private boolean logExceptions = true;
+
+    public JwtReactiveFilterConfigurer(ReactiveTokenProvider<Authentication> tokenProvider) {
+        this.tokenProvider = tokenProvider;
+    }
+
+    // Validator configuration
+
+    public JwtReactiveFilterConfigurer validatorHeaderName(String headerName) {
+        this.validatorHeaderName = headerName;
+        return this;
+    }
+
+    public JwtReactiveFilterConfigurer validatorTokenPrefix(String tokenPrefix) {
+        this.validatorTokenPrefix = tokenPrefix;
+        return this;
+    }
+
+    public JwtReactiveFilterConfigurer revocationStore(TokenRevocationStore revocationStore) {
+        this.revocationStore = revocationStore;
+        return this;
+    }
+
+    /**
+     * Screens tokens structurally before the validator verifies them
+     */
+    public JwtReactiveFilterConfigurer tokenScreener(TokenScreener tokenScreener) {
+        this.tokenScreener = tokenScreener;
+        return this;
+    }
+
+    /**
+     * Notified of the screen, parse and revocation stages of each validated token
+     */
+    public JwtReactiveFilterConfigurer validationListener(TokenValidationListener validationListener) {
+        this.validationListener = validationListener;
+        return this;
+    }
+
+    public JwtReactiveFilterConfigurer disableValidator() {
+        this.validator = false;
+        return this;
+    }
+
+    // Generator configuration
+
+    public JwtReactiveFilterConfigurer generatorTokenHeader(String headerName) {
+        this.generatorTokenHeader = headerName;
+        return this;
+    }
+
+    public JwtReactiveFilterConfigurer generatorExpirationHeader(String headerName) {
+        this.generatorExpirationHeader = headerName;
+        return this;
+    }
+
+    public JwtReactiveFilterConfigurer generatorTokenPrefix(String tokenPrefix) {
+        this.generatorTokenPrefix = tokenPrefix;
+        return this;
+    }
+
+    /**
+     * Paths of the login endpoints, receiving tokens after a credential login
+     */
+    public JwtReactiveFilterConfigurer loginPaths(Collection<String> loginPaths) {
+        this.loginPaths = Set.copyOf(loginPaths);
+        return this;
+    }
+
+    public JwtReactiveFilterConfigurer disableGenerator() {
+        this.generator = false;
+        return this;
+    }
+
+    // Login throttle configuration
+
+    /**
+     * Throttles HTTP basic logins per account and client address
+     */
+    public JwtReactiveFilterConfigurer loginThrottle(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+        return this;
+    }
+
+    /**
+     * Resolves the client address logins are throttled by, the remote address when not set
+     */
+    public JwtReactiveFilterConfigurer clientAddressResolver(Function<ServerWebExchange, String> clientAddressResolver) {
+        this.clientAddressResolver = clientAddressResolver;
+        return this;
+    }
+
+    public JwtReactiveFilterConfigurer errorWriter(JwtServerErrorWriter errorWriter) {
+        this.errorWriter = errorWriter;
+        return this;
+    }
+
+    public JwtReactiveFilterConfigurer disableLoginThrottle() {
+        this.loginThrottleEnabled = false;
+        return this;
+    }
+
+    // Exception handler configuration
+
+    public JwtReactiveFilterConfigurer authenticationEntryPoint(ServerAuthenticationEntryPoint entryPoint) {
+        this.authenticationEntryPoint = entryPoint;
+        return this;
+    }
+
+    public JwtReactiveFilterConfigurer accessDeniedHandler(ServerAccessDeniedHandler handler) {
+        this.accessDeniedHandler = handler;
+        return this;
+    }
+
+    public JwtReactiveFilterConfigurer logExceptions(boolean logExceptions) {
+        this.logExceptions = logExceptions;
+        return this;
+    }
+
+    public JwtReactiveFilterConfigurer disableExceptionHandler() {
+        this.exceptionHandler = false;
+        return this;
+    }
+
+    // Builder methods
+
+    public JwtReactiveTokenValidatorFilter buildValidator() {
+        JwtReactiveTokenValidatorFilter filter = new JwtReactiveTokenValidatorFilter(tokenProvider);
+        filter.setHeaderName(validatorHeaderName);
+        filter.setTokenPrefix(validatorTokenPrefix);
+        filter.setRevocationStore(revocationStore);
+        filter.setTokenScreener(tokenScreener);
+        filter.setValidationListener(validationListener);
+        return filter;
+    }
+
+    public JwtReactiveTokenGeneratorFilter buildGenerator() {
+        JwtReactiveTokenGeneratorFilter filter = new JwtReactiveTokenGeneratorFilter(tokenProvider);
+        filter.setTokenHeaderName(generatorTokenHeader);
+        filter.setExpirationHeaderName(generatorExpirationHeader);
+        filter.setTokenPrefix(generatorTokenPrefix);
+        filter.setLoginPaths(loginPaths);
+        return filter;
+    }
+
+    /**
+     * @return login throttle filter, or null when no {@link LoginThrottle} is configured
+     */
+    public JwtReactiveLoginThrottleFilter buildLoginThrottle() {
+        if (loginThrottle == null) {
+            return null;
+        }
+        JwtReactiveLoginThrottleFilter filter = new JwtReactiveLoginThrottleFilter(loginThrottle);
+        if (errorWriter != null) {
+            filter.setErrorWriter(errorWriter);
+        }
+        if (clientAddressResolver != null) {
+            filter.setClientAddressResolver(clientAddressResolver);
+        }
+        return filter;
+    }
+
+    public JwtReactiveExceptionHandlerFilter buildExceptionHandler() {
+        if (authenticationEntryPoint == null || accessDeniedHandler == null) {
+            throw new IllegalStateException("ServerAuthenticationEntryPoint and ServerAccessDeniedHandler must be configured");
+        }
+        JwtReactiveExceptionHandlerFilter filter =
+                new JwtReactiveExceptionHandlerFilter(authenticationEntryPoint, accessDeniedHandler);
+        filter.setLogExceptions(logExceptions);
+        return filter;
+    }
+
+    /**
+     * Adds the enabled filters to the chain
+     */
+    public ServerHttpSecurity configure(ServerHttpSecurity http) {
+        if (exceptionHandler) {
+            log.debug("Adding JwtReactiveExceptionHandlerFilter");
+            http.addFilterBefore(buildExceptionHandler(), SecurityWebFiltersOrder.HTTP_BASIC);
+        }
+        JwtReactiveLoginThrottleFilter throttleFilter = loginThrottleEnabled ? buildLoginThrottle() : null;
+        if (throttleFilter != null) {
+            log.debug("Adding JwtReactiveLoginThrottleFilter");
+            http.addFilterBefore(throttleFilter, SecurityWebFiltersOrder.HTTP_BASIC);
+        }
+        if (validator) {
+            log.debug("Adding JwtReactiveTokenValidatorFilter");
+            http.addFilterAt(buildValidator(), SecurityWebFiltersOrder.AUTHENTICATION);
+        }
+        if (generator) {
+            log.debug("Adding JwtReactiveTokenGeneratorFilter");
+            http.addFilterAfter(buildGenerator(), SecurityWebFiltersOrder.AUTHENTICATION);
+        }
+        return http;
+    }
+}
@@ -0,0 +1,81 @@
+package xyz.catuns.spring.jwt.security.reactive.filter;
+
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.authorization.ServerAccessDeniedHandler;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import xyz.catuns.spring.jwt.security.exception.JwtSecurityException;
+import xyz.catuns.spring.jwt.security.exception.TokenExpiredException;
+
+/**
+ * Reactive Exception Handler Filter
+ *
+ * Turns JWT and security errors of the filter chain into the JSON responses of the
+ * entry point and access denied handler. Other errors are left to WebFlux.
+ *
+ * Should be placed early in the filter chain (before other JWT filters).
+ */
+@Slf4j
+public class JwtReactiveExceptionHandlerFilter implements WebFilter {
+
+    private final ServerAuthenticationEntryPoint authenticationEntryPoint;
+    private final ServerAccessDeniedHandler accessDeniedHandler;
+    /**
+     * Enable/disable exception logging
+     * Default: true
+     */
+    @Setter
+    private boolean logExceptions = true;
+
+    public JwtReactiveExceptionHandlerFilter(
+            ServerAuthenticationEntryPoint authenticationEntryPoint,
+            ServerAccessDeniedHandler accessDeniedHandler
+    ) {
+        this.authenticationEntryPoint = authenticationEntryPoint;
+        this.accessDeniedHandler = accessDeniedHandler;
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        return chain.filter(exchange).onErrorResume(ex -> handle(exchange, ex));
+    }
+
+    private Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        if (exchange.getResponse().isCommitted()) {
+            return Mono.error(ex);
+        }
+        if (ex instanceof JwtSecurityException || ex instanceof TokenExpiredException) {
+            logException("JWT security exception", ex);
+            String message = ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage();
+            return authenticationEntryPoint.commence(exchange, new BadCredentialsException(message, ex));
+        }
+        if (ex instanceof AuthenticationException authException) {
+            logException("Authentication exception", ex);
+            return authenticationEntryPoint.commence(exchange, authException);
+        }
+        if (ex instanceof AccessDeniedException deniedException) {
+            logException("Access denied exception", ex);
+            return accessDeniedHandler.handle(exchange, deniedException);
+        }
+        return Mono.error(ex);
+    }
+
+    private void logException(String message, Throwable ex) {
+        if (logExceptions) {
+            if (log.isDebugEnabled()) {
+                log.debug("{}: {}", message, ex.getMessage(), ex);
+            } else {
+                log.warn("{}: {}", message, ex.getMessage());
+            }
+        }
+    }
+}
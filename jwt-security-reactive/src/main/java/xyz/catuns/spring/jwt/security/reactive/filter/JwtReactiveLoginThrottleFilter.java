@@ -0,0 +1,91 @@
+package xyz.catuns.spring.jwt.security.reactive.filter;
+
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import xyz.catuns.spring.jwt.core.throttle.LoginThrottle;
+import xyz.catuns.spring.jwt.core.util.BasicCredentials;
+import xyz.catuns.spring.jwt.security.reactive.handler.JwtServerErrorWriter;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.function.Function;
+
+import static xyz.catuns.spring.jwt.core.throttle.LoginThrottle.THROTTLED_MESSAGE;
+import static xyz.catuns.spring.jwt.core.throttle.LoginThrottle.retryAfterSeconds;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.AUTHORIZATION_KEY;
+
+/**
+ * Reactive JWT Login Throttle Filter
+ *
+ * Takes a {@link LoginThrottle} permit for every request carrying HTTP basic credentials,
+ * keyed by the username and the client address. Throttled requests are answered with
+ * 429 and a {@code Retry-After} header before the user is loaded or the password hashed.
+ *
+ * The client address defaults to the remote address of the request. Behind a proxy or
+ * load balancer that is the proxy's address, so all clients share one bucket unless
+ * forwarded headers are resolved, e.g. with {@code server.forward-headers-strategy} or
+ * a ForwardedHeaderTransformer, or a {@link #setClientAddressResolver(Function) resolver}
+ * is set.
+ *
+ * Must be placed before HTTP basic.
+ */
+@Slf4j
+public class JwtReactiveLoginThrottleFilter implements WebFilter {
+
+    private final LoginThrottle loginThrottle;
+
+    /**
+     * Set custom header name for the credentials
+     * Default: "Authorization"
+     */
+    @Setter
+    private String headerName = AUTHORIZATION_KEY;
+    /**
+     * Set to write the 429 body with shared settings
+     * Default: writer with default settings
+     */
+    @Setter
+    private JwtServerErrorWriter errorWriter = new JwtServerErrorWriter();
+    /**
+     * Set to key throttling by another client address, e.g. one taken from trusted proxy headers
+     * Default: the remote address of the request
+     */
+    @Setter
+    private Function<ServerWebExchange, String> clientAddressResolver = JwtReactiveLoginThrottleFilter::remoteAddress;
+
+    public JwtReactiveLoginThrottleFilter(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(headerName);
+        if (!BasicCredentials.isBasic(header)) {
+            return chain.filter(exchange);
+        }
+        String address = clientAddressResolver.apply(exchange);
+        Duration retryAfter = loginThrottle.check(BasicCredentials.username(header), address);
+        if (retryAfter.isZero()) {
+            return chain.filter(exchange);
+        }
+        log.debug("Login attempt from {} throttled for {}", address, retryAfter);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfterSeconds(retryAfter));
+        return errorWriter.write(exchange, HttpStatus.TOO_MANY_REQUESTS, THROTTLED_MESSAGE, null);
+    }
+
+    private static String remoteAddress(ServerWebExchange exchange) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        if (remote == null) {
+            return null;
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+}
@@ -0,0 +1,117 @@
+package xyz.catuns.spring.jwt.security.reactive.filter;
+
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import xyz.catuns.spring.jwt.core.model.JwtToken;
+import xyz.catuns.spring.jwt.security.reactive.ReactiveTokenProvider;
+
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.AUTHORIZATION_KEY;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.BEARER_TOKEN_PREFIX;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.LOGIN_PATHS;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.TOKEN_EXPIRATION_KEY;
+
+/**
+ * Reactive JWT Token Generator Filter
+ *
+ * Generates JWT token after successful authentication and adds it to response headers.
+ * Placed after the authentication filters (e.g., HTTP basic) of the SecurityWebFilterChain.
+ */
+@Slf4j
+public class JwtReactiveTokenGeneratorFilter implements WebFilter {
+
+    private final ReactiveTokenProvider<Authentication> tokenProvider;
+
+    /**
+     * Set custom header name for JWT token
+     * Default: "Authorization"
+     */
+    @Setter
+    private String tokenHeaderName = AUTHORIZATION_KEY;
+    /**
+     * Set custom header name for token expiration
+     * Default: "X-Token-Expiration"
+     */
+    @Setter
+    private String expirationHeaderName = TOKEN_EXPIRATION_KEY;
+    /**
+     * Set custom token prefix
+     * Default: "Bearer "
+     */
+    @Setter
+    private String tokenPrefix = BEARER_TOKEN_PREFIX;
+    /**
+     * Set the paths of the login endpoints, matched exactly within the application
+     * Default: "/login", "/auth/login"
+     */
+    @Setter
+    private Set<String> loginPaths = LOGIN_PATHS;
+    /**
+     * Set custom predicate to determine if request requires token generation
+     * Default: generates for requests to the login paths
+     */
+    @Setter
+    private Predicate<ServerWebExchange> requiresGeneration = this::defaultRequiresGeneration;
+    /**
+     * Set custom token writer to control how token is written to response
+     */
+    @Setter
+    private BiConsumer<ServerHttpResponse, JwtToken> tokenWriter = this::defaultTokenWriter;
+
+    public JwtReactiveTokenGeneratorFilter(ReactiveTokenProvider<Authentication> tokenProvider) {
+        this.tokenProvider = tokenProvider;
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        if (!requiresGeneration.test(exchange)) {
+            return chain.filter(exchange);
+        }
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(SecurityContext::getAuthentication)
+                .flatMap(authentication -> tokenProvider.generate(authentication)
+                        .doOnNext(jwtToken -> {
+                            tokenWriter.accept(exchange.getResponse(), jwtToken);
+                            if (log.isDebugEnabled()) {
+                                log.debug("Generated JWT token for user: {}", authentication.getName());
+                            }
+                        }))
+                .onErrorResume(ex -> {
+                    log.error("Failed to generate JWT token", ex);
+                    // Continue filter chain even if token generation fails
+                    return Mono.empty();
+                })
+                .then(chain.filter(exchange));
+    }
+
+    /**
+     * Default logic to determine if request requires token generation
+     */
+    private boolean defaultRequiresGeneration(ServerWebExchange exchange) {
+        return loginPaths.contains(exchange.getRequest().getPath().pathWithinApplication().value());
+    }
+
+    /**
+     * Default token writer - writes token to response headers
+     */
+    private void defaultTokenWriter(ServerHttpResponse response, JwtToken jwtToken) {
+        response.getHeaders().set(tokenHeaderName, tokenPrefix + jwtToken.value());
+
+        if (jwtToken.expiration() != null) {
+            response.getHeaders().set(expirationHeaderName, jwtToken.expiration().toString());
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package xyz.catuns.spring.jwt.security.reactive.filter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import xyz.catuns.spring.jwt.core.exception.TokenRevokedException;
+import xyz.catuns.spring.jwt.core.exception.TokenScreeningException;
+import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
+import xyz.catuns.spring.jwt.core.model.ParsedToken;
+import xyz.catuns.spring.jwt.core.model.ValidationFailure;
+import xyz.catuns.spring.jwt.core.model.ValidationStage;
+import xyz.catuns.spring.jwt.core.revocation.TokenRevocationStore;
+import xyz.catuns.spring.jwt.core.screening.ScreeningFailure;
+import xyz.catuns.spring.jwt.core.screening.TokenScreener;
+import xyz.catuns.spring.jwt.core.util.BasicCredentials;
+import xyz.catuns.spring.jwt.core.validator.TokenValidationListener;
+import xyz.catuns.spring.jwt.security.exception.JwtSecurityException;
+import xyz.catuns.spring.jwt.security.exception.TokenExpiredException;
+import xyz.catuns.spring.jwt.security.reactive.ReactiveTokenProvider;
+
+import java.util.function.Predicate;
+
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.AUTHORIZATION_KEY;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.BEARER_TOKEN_PREFIX;
+
+/**
+ * Reactive JWT Token Validator Filter
+ *
+ * Validates the JWT token of the request off the event loop and exposes its
+ * authentication through {@link ReactiveSecurityContextHolder} to the rest of the chain.
+ */
+@Slf4j
+public class JwtReactiveTokenValidatorFilter implements WebFilter {
+
+    private final ReactiveTokenProvider<Authentication> tokenProvider;
+
+    /**
+     * Set custom header name for JWT token
+     * Default: "Authorization"
+     */
+    @Setter
+    private String headerName = AUTHORIZATION_KEY;
+    /**
+     * Set custom token prefix
+     * Default: "Bearer "
+     */
+    @Setter
+    private String tokenPrefix = BEARER_TOKEN_PREFIX;
+    /**
+     * Set custom predicate to determine if request requires validation
+     * Default: validates requests carrying the token header, leaving HTTP basic credentials alone
+     */
+    @Setter
+    private Predicate<ServerWebExchange> requiresValidation = this::defaultRequiresValidation;
+    /**
+     * Set to reject revoked tokens by their {@code jti} claim
+     * Default: none
+     */
+    @Setter
+    private TokenRevocationStore revocationStore;
+    /**
+     * Set to reject malformed, expired or foreign tokens before verifying their signature
+     * Default: none
+     */
+    @Setter
+    private TokenScreener tokenScreener;
+    /**
+     * Set to be notified of the screen, parse and revocation stages of each token
+     * Default: no-op
+     */
+    @Setter
+    private TokenValidationListener validationListener = TokenValidationListener.NOOP;
+
+    public JwtReactiveTokenValidatorFilter(ReactiveTokenProvider<Authentication> tokenProvider) {
+        this.tokenProvider = tokenProvider;
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        if (!requiresValidation.test(exchange)) {
+            return chain.filter(exchange);
+        }
+        String token = extractToken(exchange);
+        if (token == null) {
+            return chain.filter(exchange);
+        }
+        return authenticate(token).flatMap(authentication -> {
+            if (log.isDebugEnabled()) {
+                log.debug("Set authentication for user: {}", authentication.getName());
+            }
+            return chain.filter(exchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+        });
+    }
+
+    /**
+     * Verifies the token, errors are translated like the servlet filter translates them
+     *
+     * @param token JWT token without prefix
+     * @return authentication of the token
+     */
+    protected Mono<Authentication> authenticate(String token) {
+        // Screening is cheap enough for the event loop
+        long screenStart = System.nanoTime();
+        try {
+            screen(token);
+        } catch (TokenScreeningException ex) {
+            rejected(ValidationStage.SCREEN, ex, screenStart);
+            return Mono.error(translate(ex));
+        }
+        if (tokenScreener != null) {
+            passed(ValidationStage.SCREEN, screenStart);
+        }
+        return Mono.defer(() -> {
+                    long parseStart = System.nanoTime();
+                    return tokenProvider.parse(token)
+                            .doOnError(ex -> rejected(ValidationStage.PARSE, ex, parseStart))
+                            .<Authentication>handle((parsed, sink) -> {
+                                long revocationStart = passed(ValidationStage.PARSE, parseStart);
+                                try {
+                                    checkRevocation(parsed);
+                                } catch (TokenValidationException ex) {
+                                    rejected(ValidationStage.REVOCATION, ex, revocationStart);
+                                    sink.error(ex);
+                                    return;
+                                }
+                                if (revocationStore != null) {
+                                    passed(ValidationStage.REVOCATION, revocationStart);
+                                }
+                                sink.next(parsed.principal());
+                            });
+                })
+                .onErrorMap(this::translate);
+    }
+
+    private long passed(ValidationStage stage, long start) {
+        long now = System.nanoTime();
+        validationListener.passed(stage, now - start);
+        return now;
+    }
+
+    private void rejected(ValidationStage stage, Throwable exception, long start) {
+        ValidationFailure failure = exception instanceof Exception ex
+                ? tokenProvider.getDelegate().classify(ex)
+                : ValidationFailure.ERROR;
+        validationListener.rejected(stage, failure, System.nanoTime() - start);
+    }
+
+    /**
+     * Rejects tokens failing structural screening, before any signature work
+     *
+     * @param token JWT token without prefix
+     * @throws TokenScreeningException if the token is rejected
+     */
+    protected void screen(String token) throws TokenScreeningException {
+        if (tokenScreener != null) {
+            tokenScreener.check(token);
+        }
+    }
+
+    /**
+     * Rejects verified tokens whose {@code jti} has been revoked
+     *
+     * @param parsed verified token
+     * @throws TokenValidationException if the token is revoked
+     */
+    protected void checkRevocation(ParsedToken<Authentication> parsed) throws TokenValidationException {
+        if (revocationStore != null
+                && parsed.claims().get(Claims.ID) instanceof String tokenId
+                && revocationStore.isRevoked(tokenId)) {
+            throw new TokenRevokedException("Token " + tokenId + " is revoked");
+        }
+    }
+
+    private Throwable translate(Throwable exception) {
+        if (exception instanceof ExpiredJwtException expired) {
+            log.debug("Jwt expired {}", expired.toString());
+            return new TokenExpiredException(expired);
+        }
+        if (exception instanceof TokenScreeningException screening
+                && screening.getFailure() == ScreeningFailure.EXPIRED) {
+            log.debug("Jwt expired {}", screening.toString());
+            return new TokenExpiredException(screening);
+        }
+        if (exception instanceof Exception ex) {
+            return new JwtSecurityException(ex);
+        }
+        return exception;
+    }
+
+    /**
+     * Extract JWT token from request header
+     *
+     * @param exchange current exchange
+     * @return JWT token without prefix, or null if not present
+     */
+    protected String extractToken(ServerWebExchange exchange) {
+        String header = exchange.getRequest().getHeaders().getFirst(headerName);
+
+        if (!StringUtils.hasText(header)) {
+            return null;
+        }
+
+        if (header.regionMatches(true, 0, tokenPrefix, 0, tokenPrefix.length())) {
+            return header.substring(tokenPrefix.length()).trim();
+        }
+
+        return header.trim();
+    }
+
+    /**
+     * Default logic to determine if request requires validation
+     * Only validate if JWT token is present in header, HTTP basic credentials are
+     * authenticated by the basic authentication filter
+     */
+    private boolean defaultRequiresValidation(ServerWebExchange exchange) {
+        String header = exchange.getRequest().getHeaders().getFirst(headerName);
+        return StringUtils.hasText(header) && !BasicCredentials.isBasic(header);
+    }
+}
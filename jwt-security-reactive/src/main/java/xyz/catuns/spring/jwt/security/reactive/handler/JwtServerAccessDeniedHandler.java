@@ -0,0 +1,24 @@
+package xyz.catuns.spring.jwt.security.reactive.handler;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.web.server.authorization.ServerAccessDeniedHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Handles 403 Forbidden responses of reactive applications
+ */
+public class JwtServerAccessDeniedHandler implements ServerAccessDeniedHandler {
+
+    private final JwtServerErrorWriter errorWriter;
+
+    public JwtServerAccessDeniedHandler(JwtServerErrorWriter errorWriter) {
+        this.errorWriter = errorWriter;
+    }
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, AccessDeniedException accessDeniedException) {
+        return errorWriter.write(exchange, HttpStatus.FORBIDDEN, accessDeniedException);
+    }
+}
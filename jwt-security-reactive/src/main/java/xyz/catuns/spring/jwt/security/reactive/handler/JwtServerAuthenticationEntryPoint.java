@@ -0,0 +1,24 @@
+package xyz.catuns.spring.jwt.security.reactive.handler;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Handles 401 Unauthorized responses of reactive applications
+ */
+public class JwtServerAuthenticationEntryPoint implements ServerAuthenticationEntryPoint {
+
+    private final JwtServerErrorWriter errorWriter;
+
+    public JwtServerAuthenticationEntryPoint(JwtServerErrorWriter errorWriter) {
+        this.errorWriter = errorWriter;
+    }
+
+    @Override
+    public Mono<Void> commence(ServerWebExchange exchange, AuthenticationException authException) {
+        return errorWriter.write(exchange, HttpStatus.UNAUTHORIZED, authException);
+    }
+}
@@ -0,0 +1,54 @@
+package xyz.catuns.spring.jwt.security.reactive.handler;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import xyz.catuns.spring.jwt.security.exception.handler.JwtErrorBodyEncoder;
+import xyz.catuns.spring.jwt.security.properties.JwtSecurityProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes the JSON error body of the servlet entry point and access denied handler
+ * to a reactive response
+ */
+public class JwtServerErrorWriter {
+
+    private final JwtSecurityProperties properties;
+    private final Map<HttpStatus, JwtErrorBodyEncoder> encoders = new ConcurrentHashMap<>();
+
+    public JwtServerErrorWriter(JwtSecurityProperties properties) {
+        this.properties = properties;
+        encoders.put(HttpStatus.UNAUTHORIZED, new JwtErrorBodyEncoder(HttpStatus.UNAUTHORIZED, properties));
+        encoders.put(HttpStatus.FORBIDDEN, new JwtErrorBodyEncoder(HttpStatus.FORBIDDEN, properties));
+    }
+
+    public JwtServerErrorWriter() {
+        this(null);  // Use defaults
+    }
+
+    public Mono<Void> write(ServerWebExchange exchange, HttpStatus status, Exception exception) {
+        return write(exchange, status, exception.getMessage(), exception);
+    }
+
+    /**
+     * Sets status, content type and length and writes the body to the response
+     *
+     * @param status    response status
+     * @param message   message of the body
+     * @param exception exception of the body trace
+     */
+    public Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String message, Throwable exception) {
+        JwtErrorBodyEncoder encoder = encoders.computeIfAbsent(status, s -> new JwtErrorBodyEncoder(s, properties));
+        byte[] body = encoder.encode(message, exchange.getRequest().getPath().value(), exception);
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,158 @@
+package xyz.catuns.spring.jwt.security.reactive.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.server.WebFilterChainProxy;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import xyz.catuns.spring.jwt.auth.AuthTokenProvider;
+import xyz.catuns.spring.jwt.core.exception.MissingSecretException;
+import xyz.catuns.spring.jwt.core.revocation.InMemoryTokenRevocationStore;
+import xyz.catuns.spring.jwt.core.util.TokenIds;
+import xyz.catuns.spring.jwt.security.reactive.ReactiveTokenProvider;
+import xyz.catuns.spring.jwt.security.reactive.configurer.JwtReactiveFilterConfigurer;
+import xyz.catuns.spring.jwt.security.reactive.handler.JwtServerAccessDeniedHandler;
+import xyz.catuns.spring.jwt.security.reactive.handler.JwtServerAuthenticationEntryPoint;
+import xyz.catuns.spring.jwt.security.reactive.handler.JwtServerErrorWriter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+
+class JwtReactiveFilterChainTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final Authentication user = new UsernamePasswordAuthenticationToken(
+            "alice", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+    private AuthTokenProvider tokenProvider;
+    private InMemoryTokenRevocationStore revocationStore;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() throws MissingSecretException {
+        tokenProvider = new AuthTokenProvider(SECRET, "catuns", Duration.ofMinutes(5));
+        tokenProvider.setTokenIdGenerator(TokenIds::random);
+        revocationStore = new InMemoryTokenRevocationStore();
+
+        JwtServerErrorWriter errorWriter = new JwtServerErrorWriter();
+        JwtServerAuthenticationEntryPoint entryPoint = new JwtServerAuthenticationEntryPoint(errorWriter);
+        ServerHttpSecurity http = ServerHttpSecurity.http();
+        new JwtReactiveFilterConfigurer(new ReactiveTokenProvider<>(tokenProvider))
+                .revocationStore(revocationStore)
+                .authenticationEntryPoint(entryPoint)
+                .accessDeniedHandler(new JwtServerAccessDeniedHandler(errorWriter))
+                .disableLoginThrottle()
+                .configure(http);
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(new MapReactiveUserDetailsService(
+                        User.withUsername("alice").password("{noop}secret").roles("USER").build()));
+        http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(entryPoint))
+                .httpBasic(basic -> basic.authenticationManager(manager).authenticationEntryPoint(entryPoint))
+                .authorizeExchange(exchanges -> exchanges.anyExchange().authenticated());
+
+        client = WebTestClient
+                .bindToRouterFunction(RouterFunctions
+                        .route(GET("/api/me"), request -> principalName())
+                        .andRoute(POST("/auth/login"), request -> principalName()))
+                .webFilter(new WebFilterChainProxy(http.build()))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        revocationStore.close();
+    }
+
+    @Test
+    void validTokenSetsTheReactiveSecurityContext() {
+        client.get().uri("/api/me")
+                .headers(headers -> headers.setBearerAuth(tokenProvider.generate(user).value()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("alice");
+    }
+
+    @Test
+    void expiredTokenIsUnauthorized() throws MissingSecretException {
+        AuthTokenProvider expiredProvider = new AuthTokenProvider(SECRET, "catuns", Duration.ofMinutes(-5));
+
+        expectUnauthorized(expiredProvider.generate(user).value());
+    }
+
+    @Test
+    void tamperedTokenIsUnauthorized() {
+        String token = tokenProvider.generate(user).value();
+
+        expectUnauthorized(token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA"));
+    }
+
+    @Test
+    void revokedTokenIsUnauthorized() throws Exception {
+        String token = tokenProvider.generate(user).value();
+        revocationStore.revoke(tokenProvider.parse(token).claims().get("jti").toString(),
+                Instant.now().plusSeconds(60));
+
+        expectUnauthorized(token);
+    }
+
+    @Test
+    void loginReceivesATokenInTheResponseHeaders() {
+        String header = client.post().uri("/auth/login")
+                .headers(headers -> headers.setBasicAuth("alice", "secret"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("x-token-expiration")
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getFirst("Authorization");
+
+        assertThat(header).startsWith("Bearer ");
+        client.get().uri("/api/me")
+                .header("Authorization", header)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("alice");
+    }
+
+    private void expectUnauthorized(String token) {
+        client.get().uri("/api/me")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody(JsonNode.class)
+                .consumeWith(result -> {
+                    JsonNode body = result.getResponseBody();
+                    assertThat(body.get("status").asInt()).isEqualTo(401);
+                    assertThat(body.get("path").asText()).isEqualTo("/api/me");
+                });
+    }
+
+    private static Mono<ServerResponse> principalName() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .flatMap(authentication -> ServerResponse.ok().bodyValue(authentication.getName()));
+    }
+}
@@ -7,11 +7,12 @@ import org.springframework.security.web.access.AccessDeniedHandler;
 import xyz.catuns.spring.jwt.security.properties.JwtSecurityProperties;
 import xyz.catuns.spring.jwt.security.exception.handler.JwtAccessDeniedHandler;
 import xyz.catuns.spring.jwt.security.exception.handler.JwtAuthenticationEntryPoint;
+import xyz.catuns.spring.jwt.security.exception.handler.JwtErrorResponseWriter;
 
 public class JwtExceptionHandlingConfigurer {
     private AuthenticationEntryPoint authenticationEntryPoint;
     private AccessDeniedHandler accessDeniedHandler;
-    private ObjectMapper objectMapper;
+    private JwtErrorResponseWriter errorWriter;
     private JwtSecurityProperties properties;
 
     /**
@@ -31,10 +32,19 @@ public class JwtExceptionHandlingConfigurer {
     }
 
     /**
-     * Configure ObjectMapper for JSON error responses
+     * Configure writer of the JSON error responses
      */
+    public JwtExceptionHandlingConfigurer errorWriter(JwtErrorResponseWriter errorWriter) {
+        this.errorWriter = errorWriter;
+        return this;
+    }
+
+    /**
+     * @deprecated error bodies are no longer written with Jackson, the mapper is ignored.
+     * Use {@link #errorWriter(JwtErrorResponseWriter)}
+     */
+    @Deprecated
     public JwtExceptionHandlingConfigurer objectMapper(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
         return this;
     }
 
@@ -50,23 +60,16 @@ public class JwtExceptionHandlingConfigurer {
      * Initialize default handlers if not explicitly set
      */
     void initializeDefaults(HttpSecurity http) {
-        if (objectMapper == null) {
-            objectMapper = http.getSharedObject(ObjectMapper.class);
-            if (objectMapper == null) {
-                objectMapper = new ObjectMapper();
-            }
+        if (errorWriter == null) {
+            errorWriter = new JwtErrorResponseWriter(properties);
         }
 
         if (authenticationEntryPoint == null) {
-            authenticationEntryPoint = properties != null
-                    ? new JwtAuthenticationEntryPoint(objectMapper, properties)
-                    : new JwtAuthenticationEntryPoint(objectMapper);
+            authenticationEntryPoint = new JwtAuthenticationEntryPoint(errorWriter);
         }
 
         if (accessDeniedHandler == null) {
-            accessDeniedHandler = properties != null
-                    ? new JwtAccessDeniedHandler(objectMapper, properties)
-                    : new JwtAccessDeniedHandler(objectMapper);
+            accessDeniedHandler = new JwtAccessDeniedHandler(errorWriter);
         }
     }
 
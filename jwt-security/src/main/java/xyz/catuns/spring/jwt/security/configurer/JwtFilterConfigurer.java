@@ -1,19 +1,32 @@
 package xyz.catuns.spring.jwt.security.configurer;
 
 
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.servlet.HandlerExceptionResolver;
+import xyz.catuns.spring.jwt.core.RefreshTokenProvider;
 import xyz.catuns.spring.jwt.core.TokenProvider;
 import xyz.catuns.spring.jwt.core.model.JwtToken;
+import xyz.catuns.spring.jwt.core.revocation.TokenRevocationStore;
+import xyz.catuns.spring.jwt.core.screening.TokenScreener;
+import xyz.catuns.spring.jwt.core.throttle.LoginThrottle;
+import xyz.catuns.spring.jwt.core.validator.TokenValidationListener;
+import xyz.catuns.spring.jwt.security.exception.handler.JwtErrorResponseWriter;
 import xyz.catuns.spring.jwt.security.filter.JwtExceptionHandlerFilter;
+import xyz.catuns.spring.jwt.security.filter.JwtLoginThrottleFilter;
+import xyz.catuns.spring.jwt.security.filter.JwtRefreshTokenFilter;
 import xyz.catuns.spring.jwt.security.filter.JwtTokenGeneratorFilter;
 import xyz.catuns.spring.jwt.security.filter.JwtTokenValidatorFilter;
 
+import java.util.Collection;
+import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
@@ -26,6 +39,10 @@ public class JwtFilterConfigurer {
     public static final String AUTHORIZATION_KEY = "Authorization";
     public static final String TOKEN_EXPIRATION_KEY = "x-token-expiration";
     public static final String BEARER_TOKEN_PREFIX = "Bearer ";
+    public static final String REFRESH_TOKEN_KEY = "X-Refresh-Token";
+    public static final String REFRESH_TOKEN_EXPIRATION_KEY = "x-refresh-token-expiration";
+    public static final String REFRESH_PATH = "/auth/refresh";
+    public static final Set<String> LOGIN_PATHS = Set.of("/login", "/auth/login");
 
     @Setter
     private TokenProvider<Authentication> tokenProvider;
@@ -34,17 +51,37 @@ public class JwtFilterConfigurer {
     private String validatorHeaderName = AUTHORIZATION_KEY;
     private String validatorTokenPrefix = BEARER_TOKEN_PREFIX;
     private Predicate<HttpServletRequest> validatorPredicate;
+    private TokenRevocationStore revocationStore;
+    private TokenScreener tokenScreener;
+    private TokenValidationListener validationListener = TokenValidationListener.NOOP;
 
     // Generator config
     private String generatorTokenHeader = AUTHORIZATION_KEY;
     private String generatorExpirationHeader = TOKEN_EXPIRATION_KEY;
     private String generatorTokenPrefix = BEARER_TOKEN_PREFIX;
     private Predicate<HttpServletRequest> generatorPredicate;
+    private Set<String> loginPaths = LOGIN_PATHS;
     private BiConsumer<HttpServletResponse, JwtToken> tokenWriter;
 
+    // Refresh config
+    private RefreshTokenProvider refreshTokenProvider;
+    private UserDetailsService userDetailsService;
+    private String refreshPath = REFRESH_PATH;
+    private String refreshHeaderName = REFRESH_TOKEN_KEY;
+    private String refreshExpirationHeader = REFRESH_TOKEN_EXPIRATION_KEY;
+
+    // Login throttle config
+    private LoginThrottle loginThrottle;
+    private Function<HttpServletRequest, String> clientAddressResolver;
+
     // Exception handler config
     private HandlerExceptionResolver exceptionResolver;
     private boolean logExceptions = true;
+    private JwtErrorResponseWriter errorWriter;
+    private boolean directWrite = false;
+
+    // Observation config
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
 
     public JwtFilterConfigurer(TokenProvider<Authentication> tokenProvider) {
         this.tokenProvider = tokenProvider;
@@ -67,6 +104,27 @@ public class JwtFilterConfigurer {
         return this;
     }
 
+    public JwtFilterConfigurer revocationStore(TokenRevocationStore revocationStore) {
+        this.revocationStore = revocationStore;
+        return this;
+    }
+
+    /**
+     * Screens tokens structurally before the validator verifies them
+     */
+    public JwtFilterConfigurer tokenScreener(TokenScreener tokenScreener) {
+        this.tokenScreener = tokenScreener;
+        return this;
+    }
+
+    /**
+     * Notified of the screen, parse and revocation stages of each validated token
+     */
+    public JwtFilterConfigurer validationListener(TokenValidationListener validationListener) {
+        this.validationListener = validationListener;
+        return this;
+    }
+
     // Generator configuration
 
     public JwtFilterConfigurer generatorTokenHeader(String headerName) {
@@ -84,6 +142,14 @@ public class JwtFilterConfigurer {
         return this;
     }
 
+    /**
+     * Paths of the login endpoints, receiving tokens after a credential login
+     */
+    public JwtFilterConfigurer loginPaths(Collection<String> loginPaths) {
+        this.loginPaths = Set.copyOf(loginPaths);
+        return this;
+    }
+
     public JwtFilterConfigurer generatorPredicate(Predicate<HttpServletRequest> predicate) {
         this.generatorPredicate = predicate;
         return this;
@@ -94,6 +160,54 @@ public class JwtFilterConfigurer {
         return this;
     }
 
+    // Refresh configuration
+
+    /**
+     * Enables refresh tokens, issued at login and rotated by the refresh filter
+     */
+    public JwtFilterConfigurer refreshTokenProvider(RefreshTokenProvider refreshTokenProvider) {
+        this.refreshTokenProvider = refreshTokenProvider;
+        return this;
+    }
+
+    public JwtFilterConfigurer userDetailsService(UserDetailsService userDetailsService) {
+        this.userDetailsService = userDetailsService;
+        return this;
+    }
+
+    public JwtFilterConfigurer refreshPath(String refreshPath) {
+        this.refreshPath = refreshPath;
+        return this;
+    }
+
+    public JwtFilterConfigurer refreshHeaderName(String headerName) {
+        this.refreshHeaderName = headerName;
+        return this;
+    }
+
+    public JwtFilterConfigurer refreshExpirationHeader(String headerName) {
+        this.refreshExpirationHeader = headerName;
+        return this;
+    }
+
+    // Login throttle configuration
+
+    /**
+     * Throttles HTTP basic logins per account and client address
+     */
+    public JwtFilterConfigurer loginThrottle(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+        return this;
+    }
+
+    /**
+     * Resolves the client address logins are throttled by, the remote address when not set
+     */
+    public JwtFilterConfigurer clientAddressResolver(Function<HttpServletRequest, String> clientAddressResolver) {
+        this.clientAddressResolver = clientAddressResolver;
+        return this;
+    }
+
     // Exception handler configuration
 
     public JwtFilterConfigurer exceptionResolver(HandlerExceptionResolver resolver) {
@@ -106,6 +220,30 @@ public class JwtFilterConfigurer {
         return this;
     }
 
+    public JwtFilterConfigurer errorWriter(JwtErrorResponseWriter errorWriter) {
+        this.errorWriter = errorWriter;
+        return this;
+    }
+
+    /**
+     * Writes 401 and 403 responses of the exception handler with the error writer,
+     * without the HandlerExceptionResolver
+     */
+    public JwtFilterConfigurer directWrite(boolean directWrite) {
+        this.directWrite = directWrite;
+        return this;
+    }
+
+    // Observation configuration
+
+    /**
+     * Observes validation, generation and exception handling of the built filters
+     */
+    public JwtFilterConfigurer observationRegistry(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+        return this;
+    }
+
     // Builder methods
 
     public JwtTokenValidatorFilter buildValidator() {
@@ -115,6 +253,10 @@ public class JwtFilterConfigurer {
         if (validatorPredicate != null) {
             filter.setRequiresValidation(validatorPredicate);
         }
+        filter.setRevocationStore(revocationStore);
+        filter.setTokenScreener(tokenScreener);
+        filter.setValidationListener(validationListener);
+        filter.setObservationRegistry(observationRegistry);
         return filter;
     }
 
@@ -123,21 +265,70 @@ public class JwtFilterConfigurer {
         filter.setTokenHeaderName(generatorTokenHeader);
         filter.setExpirationHeaderName(generatorExpirationHeader);
         filter.setTokenPrefix(generatorTokenPrefix);
+        filter.setLoginPaths(loginPaths);
         if (generatorPredicate != null) {
             filter.setRequiresGeneration(generatorPredicate);
         }
         if (tokenWriter != null) {
             filter.setTokenWriter(tokenWriter);
         }
+        if (refreshTokenProvider != null) {
+            filter.setRefreshTokenProvider(refreshTokenProvider);
+            filter.setRefreshHeaderName(refreshHeaderName);
+            filter.setRefreshExpirationHeaderName(refreshExpirationHeader);
+        }
+        filter.setObservationRegistry(observationRegistry);
+        return filter;
+    }
+
+    /**
+     * @return refresh filter, or null when no {@link RefreshTokenProvider} is configured
+     */
+    public JwtRefreshTokenFilter buildRefresh() {
+        if (refreshTokenProvider == null) {
+            return null;
+        }
+        if (userDetailsService == null) {
+            throw new IllegalStateException("UserDetailsService must be configured to refresh tokens");
+        }
+        JwtRefreshTokenFilter filter = new JwtRefreshTokenFilter(tokenProvider, refreshTokenProvider, userDetailsService);
+        filter.setRefreshPath(refreshPath);
+        filter.setRefreshHeaderName(refreshHeaderName);
+        filter.setRefreshExpirationHeaderName(refreshExpirationHeader);
+        filter.setTokenHeaderName(generatorTokenHeader);
+        filter.setExpirationHeaderName(generatorExpirationHeader);
+        filter.setTokenPrefix(generatorTokenPrefix);
+        return filter;
+    }
+
+    /**
+     * @return login throttle filter, or null when no {@link LoginThrottle} is configured
+     */
+    public JwtLoginThrottleFilter buildLoginThrottle() {
+        if (loginThrottle == null) {
+            return null;
+        }
+        JwtLoginThrottleFilter filter = new JwtLoginThrottleFilter(loginThrottle);
+        if (errorWriter != null) {
+            filter.setErrorWriter(errorWriter);
+        }
+        if (clientAddressResolver != null) {
+            filter.setClientAddressResolver(clientAddressResolver);
+        }
         return filter;
     }
 
     public JwtExceptionHandlerFilter buildExceptionHandler() {
-        if (exceptionResolver == null) {
+        if (exceptionResolver == null && !directWrite) {
             throw new IllegalStateException("HandlerExceptionResolver must be configured");
         }
         JwtExceptionHandlerFilter filter = new JwtExceptionHandlerFilter(exceptionResolver);
         filter.setLogExceptions(logExceptions);
+        if (errorWriter != null) {
+            filter.setErrorWriter(errorWriter);
+        }
+        filter.setDirectWrite(directWrite);
+        filter.setObservationRegistry(observationRegistry);
         return filter;
     }
 
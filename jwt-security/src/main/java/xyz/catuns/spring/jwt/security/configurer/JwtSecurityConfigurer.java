@@ -9,8 +9,11 @@ import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.logout.LogoutFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import xyz.catuns.spring.jwt.core.TokenProvider;
 import xyz.catuns.spring.jwt.security.filter.JwtExceptionHandlerFilter;
+import xyz.catuns.spring.jwt.security.filter.JwtLoginThrottleFilter;
+import xyz.catuns.spring.jwt.security.filter.JwtRefreshTokenFilter;
 import xyz.catuns.spring.jwt.security.filter.JwtTokenGeneratorFilter;
 import xyz.catuns.spring.jwt.security.filter.JwtTokenValidatorFilter;
 
@@ -46,6 +49,7 @@ public final class JwtSecurityConfigurer extends AbstractHttpConfigurer<JwtSecur
     private boolean enableValidator = true;
     private boolean enableGenerator = true;
     private boolean enableExceptionHandler = true;
+    private boolean enableLoginThrottle = true;
 
     private Class<? extends Filter> validatorPosition = UsernamePasswordAuthenticationFilter.class;
     private Class<? extends Filter> generatorPosition = UsernamePasswordAuthenticationFilter.class;
@@ -144,6 +148,11 @@ public final class JwtSecurityConfigurer extends AbstractHttpConfigurer<JwtSecur
         return this;
     }
 
+    public JwtSecurityConfigurer disableLoginThrottle() {
+        this.enableLoginThrottle = false;
+        return this;
+    }
+
     /**
      * Customize validator filter position
      */
@@ -193,6 +202,18 @@ public final class JwtSecurityConfigurer extends AbstractHttpConfigurer<JwtSecur
             http.addFilterBefore(exceptionFilter, LogoutFilter.class);
         }
 
+        // Throttled logins are turned away before HTTP basic loads the user
+        JwtLoginThrottleFilter throttleFilter = enableLoginThrottle ? filterConfigurer.buildLoginThrottle() : null;
+        if (throttleFilter != null) {
+            http.addFilterBefore(throttleFilter, BasicAuthenticationFilter.class);
+        }
+
+        // Refresh requests may carry an expired access token, so they are served before validation
+        JwtRefreshTokenFilter refreshFilter = filterConfigurer.buildRefresh();
+        if (refreshFilter != null) {
+            http.addFilterBefore(refreshFilter, validatorPosition);
+        }
+
         if (enableValidator) {
             JwtTokenValidatorFilter validatorFilter = filterConfigurer.buildValidator();
             http.addFilterBefore(validatorFilter, validatorPosition);
@@ -1,9 +1,17 @@
 package xyz.catuns.spring.jwt.security.exception;
 
 import io.jsonwebtoken.ExpiredJwtException;
+import xyz.catuns.spring.jwt.core.exception.TokenScreeningException;
 
 public class TokenExpiredException extends RuntimeException {
     public TokenExpiredException(ExpiredJwtException exception) {
         super(exception.getMessage(), exception);
     }
+
+    /**
+     * Token turned away by screening because its {@code exp} has passed
+     */
+    public TokenExpiredException(TokenScreeningException exception) {
+        super(exception.getMessage(), exception);
+    }
 }
@@ -0,0 +1,225 @@
+package xyz.catuns.spring.jwt.security.exception.handler;
+
+import org.springframework.http.HttpStatus;
+import xyz.catuns.spring.jwt.security.properties.JwtSecurityProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * JSON error body of one status, pre-encoded
+ *
+ * Field names and the {@code status} and {@code error} fields are encoded to UTF-8 once,
+ * only the timestamp, message, path and trace are encoded per response, straight into
+ * a body array of the exact size. The timestamp is formatted at most once per millisecond.
+ */
+public class JwtErrorBodyEncoder {
+
+    private static final byte[] TIMESTAMP_FIELD = ascii("{\"timestamp\":\"");
+    private static final byte[] MESSAGE_FIELD = ascii(",\"message\":");
+    private static final byte[] PATH_FIELD = ascii(",\"path\":");
+    private static final byte[] TRACE_FIELD = ascii(",\"trace\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private static volatile Timestamp lastTimestamp = new Timestamp(Long.MIN_VALUE, new byte[0]);
+
+    private final HttpStatus status;
+    private final byte[] statusFields;
+    private final boolean includeMessage;
+    private final boolean includePath;
+    private final boolean includeTrace;
+
+    public JwtErrorBodyEncoder(HttpStatus status, JwtSecurityProperties properties) {
+        this.status = status;
+        this.includeMessage = properties == null || properties.getException().isIncludeMessage();
+        this.includePath = properties == null || properties.getException().isIncludePath();
+        this.includeTrace = properties != null && properties.getException().isIncludeStackTrace();
+
+        String reason = status.getReasonPhrase();
+        byte[] head = ascii("\",\"status\":" + status.value() + ",\"error\":");
+        byte[] fields = new byte[head.length + encodedLength(reason)];
+        putString(fields, put(fields, 0, head), reason);
+        this.statusFields = fields;
+    }
+
+    public JwtErrorBodyEncoder(HttpStatus status) {
+        this(status, null);  // Use defaults
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @param message   exception message, written when messages are included
+     * @param path      request path, written when paths are included
+     * @param exception exception whose stack trace is written when traces are included
+     * @return UTF-8 JSON body
+     */
+    public byte[] encode(String message, String path, Throwable exception) {
+        byte[] timestamp = timestamp();
+        String trace = includeTrace ? getStackTrace(exception) : null;
+
+        int length = TIMESTAMP_FIELD.length + timestamp.length + statusFields.length + 1;
+        if (includeMessage) {
+            length += MESSAGE_FIELD.length + encodedLength(message);
+        }
+        if (includePath) {
+            length += PATH_FIELD.length + encodedLength(path);
+        }
+        if (includeTrace) {
+            length += TRACE_FIELD.length + encodedLength(trace);
+        }
+
+        byte[] body = new byte[length];
+        int pos = put(body, 0, TIMESTAMP_FIELD);
+        pos = put(body, pos, timestamp);
+        pos = put(body, pos, statusFields);
+        if (includeMessage) {
+            pos = putString(body, put(body, pos, MESSAGE_FIELD), message);
+        }
+        if (includePath) {
+            pos = putString(body, put(body, pos, PATH_FIELD), path);
+        }
+        if (includeTrace) {
+            pos = putString(body, put(body, pos, TRACE_FIELD), trace);
+        }
+        body[pos] = '}';
+        return body;
+    }
+
+    private static byte[] timestamp() {
+        long now = System.currentTimeMillis();
+        Timestamp last = lastTimestamp;
+        if (last.millis() != now) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault());
+            last = new Timestamp(now, ascii(time.toString()));
+            lastTimestamp = last;
+        }
+        return last.value();
+    }
+
+    /**
+     * @return number of bytes {@link #putString} writes for the value, quotes included
+     */
+    private static int encodedLength(String value) {
+        if (value == null) {
+            return NULL.length;
+        }
+        int length = 2;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c == '\b' || c == '\f' || c == '\n' || c == '\r' || c == '\t') {
+                length += 2;
+            } else if (c < 0x20) {
+                length += 6;
+            } else if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)
+                    && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 6;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Writes the value as a JSON string, lone surrogates are escaped
+     *
+     * @return position after the value
+     */
+    private static int putString(byte[] body, int pos, String value) {
+        if (value == null) {
+            return put(body, pos, NULL);
+        }
+        body[pos++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"', '\\' -> {
+                    body[pos++] = '\\';
+                    body[pos++] = (byte) c;
+                }
+                case '\b' -> pos = putEscape(body, pos, 'b');
+                case '\f' -> pos = putEscape(body, pos, 'f');
+                case '\n' -> pos = putEscape(body, pos, 'n');
+                case '\r' -> pos = putEscape(body, pos, 'r');
+                case '\t' -> pos = putEscape(body, pos, 't');
+                default -> {
+                    if (c < 0x20) {
+                        pos = putUnicodeEscape(body, pos, c);
+                    } else if (c < 0x80) {
+                        body[pos++] = (byte) c;
+                    } else if (c < 0x800) {
+                        body[pos++] = (byte) (0xC0 | (c >> 6));
+                        body[pos++] = (byte) (0x80 | (c & 0x3F));
+                    } else if (Character.isHighSurrogate(c)
+                            && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                        body[pos++] = (byte) (0xF0 | (codePoint >> 18));
+                        body[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                        body[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                        body[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+                    } else if (Character.isSurrogate(c)) {
+                        pos = putUnicodeEscape(body, pos, c);
+                    } else {
+                        body[pos++] = (byte) (0xE0 | (c >> 12));
+                        body[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                        body[pos++] = (byte) (0x80 | (c & 0x3F));
+                    }
+                }
+            }
+        }
+        body[pos++] = '"';
+        return pos;
+    }
+
+    private static int putEscape(byte[] body, int pos, char escape) {
+        body[pos++] = '\\';
+        body[pos++] = (byte) escape;
+        return pos;
+    }
+
+    private static int putUnicodeEscape(byte[] body, int pos, char c) {
+        body[pos++] = '\\';
+        body[pos++] = 'u';
+        body[pos++] = HEX[(c >> 12) & 0xF];
+        body[pos++] = HEX[(c >> 8) & 0xF];
+        body[pos++] = HEX[(c >> 4) & 0xF];
+        body[pos++] = HEX[c & 0xF];
+        return pos;
+    }
+
+    private static int put(byte[] body, int pos, byte[] bytes) {
+        System.arraycopy(bytes, 0, body, pos, bytes.length);
+        return pos + bytes.length;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String getStackTrace(Throwable ex) {
+        if (ex == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (StackTraceElement element : ex.getStackTrace()) {
+            sb.append(element.toString()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    private record Timestamp(long millis, byte[] value) {
+    }
+}
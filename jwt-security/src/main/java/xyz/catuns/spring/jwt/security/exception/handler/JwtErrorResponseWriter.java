@@ -0,0 +1,54 @@
+package xyz.catuns.spring.jwt.security.exception.handler;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import xyz.catuns.spring.jwt.security.properties.JwtSecurityProperties;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes the JSON error body of the entry point, the access denied handler and the
+ * exception handler filter from pre-encoded {@link JwtErrorBodyEncoder} templates
+ */
+public class JwtErrorResponseWriter {
+
+    private final JwtSecurityProperties properties;
+    private final Map<HttpStatus, JwtErrorBodyEncoder> encoders = new ConcurrentHashMap<>();
+
+    public JwtErrorResponseWriter(JwtSecurityProperties properties) {
+        this.properties = properties;
+        encoders.put(HttpStatus.UNAUTHORIZED, new JwtErrorBodyEncoder(HttpStatus.UNAUTHORIZED, properties));
+        encoders.put(HttpStatus.FORBIDDEN, new JwtErrorBodyEncoder(HttpStatus.FORBIDDEN, properties));
+    }
+
+    public JwtErrorResponseWriter() {
+        this(null);  // Use defaults
+    }
+
+    /**
+     * Sets status, content type and length and writes the body to the response
+     *
+     * @param status    response status
+     * @param message   message of the body
+     * @param exception exception of the body trace
+     */
+    public void write(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            HttpStatus status,
+            String message,
+            Throwable exception
+    ) throws IOException {
+        JwtErrorBodyEncoder encoder = encoders.computeIfAbsent(status, s -> new JwtErrorBodyEncoder(s, properties));
+        byte[] body = encoder.encode(message, request.getRequestURI(), exception);
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -1,25 +1,33 @@
 package xyz.catuns.spring.jwt.security.filter;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import xyz.catuns.spring.jwt.security.exception.JwtSecurityException;
+import xyz.catuns.spring.jwt.security.exception.TokenExpiredException;
+import xyz.catuns.spring.jwt.security.exception.handler.JwtErrorResponseWriter;
 
 import java.io.IOException;
 
+import static xyz.catuns.spring.jwt.security.observation.JwtFilterObservations.*;
+
 /**
  * Exception Handler Filter
  *
  * Catches exceptions thrown in the filter chain and delegates them to Spring MVC
- * exception handling mechanism for consistent error responses.
+ * exception handling mechanism for consistent error responses. With direct writes,
+ * 401 and 403 responses are written from pre-encoded bodies without the resolver.
  *
  * Should be placed early in the filter chain (before other JWT filters).
  */
@@ -33,6 +41,25 @@ public class JwtExceptionHandlerFilter extends OncePerRequestFilter {
      */
     @Setter
     private boolean logExceptions = true;
+    /**
+     * Set to observe exception resolution as {@code jwt.exception.handling}
+     * Default: no-op
+     */
+    @Setter
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+    /**
+     * Set writer of the JSON error responses, used for direct writes and for
+     * exceptions no resolver handles
+     * Default: writer with default properties
+     */
+    @Setter
+    private JwtErrorResponseWriter errorWriter = new JwtErrorResponseWriter();
+    /**
+     * Enable/disable writing 401 and 403 responses without the HandlerExceptionResolver
+     * Default: false
+     */
+    @Setter
+    private boolean directWrite = false;
 
     public JwtExceptionHandlerFilter(HandlerExceptionResolver resolver) {
         this.resolver = resolver;
@@ -47,22 +74,65 @@ public class JwtExceptionHandlerFilter extends OncePerRequestFilter {
 
         try {
             filterChain.doFilter(request, response);
-        } catch (JwtSecurityException ex) {
+        } catch (JwtSecurityException | TokenExpiredException ex) {
             logException("JWT security exception", ex);
-            resolver.resolveException(request, response, null, ex);
+            resolve(request, response, ex, HttpStatus.UNAUTHORIZED);
         } catch (AuthenticationException ex) {
             logException("Authentication exception", ex);
-            resolver.resolveException(request, response, null, ex);
+            resolve(request, response, ex, HttpStatus.UNAUTHORIZED);
         } catch (AccessDeniedException ex) {
             logException("Access denied exception", ex);
-            resolver.resolveException(request, response, null, ex);
+            resolve(request, response, ex, HttpStatus.FORBIDDEN);
         } catch (ServletException | IOException ex) {
             // Re-throw servlet/IO exceptions as they should be handled by container
             throw ex;
         } catch (Exception ex) {
             logException("Unexpected exception in filter chain", ex);
-            resolver.resolveException(request, response, null, ex);
+            resolve(request, response, ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private void resolve(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Exception ex,
+            HttpStatus status
+    ) throws IOException {
+        Observation observation = Observation.start(EXCEPTION_HANDLING, observationRegistry);
+        if (!observation.isNoop()) {
+            observation.lowCardinalityKeyValue(EXCEPTION, ex.getClass().getSimpleName());
+        }
+        try (Observation.Scope ignored = observation.openScope()) {
+            if (directWrite && status != HttpStatus.INTERNAL_SERVER_ERROR) {
+                write(request, response, ex, status);
+            } else if (resolver == null || resolver.resolveException(request, response, null, ex) == null) {
+                // Unresolved exceptions would leave an empty 200 response
+                write(request, response, ex, status);
+            }
+            observation.lowCardinalityKeyValue(OUTCOME, SUCCESS)
+                    .lowCardinalityKeyValue(STATUS, String.valueOf(response.getStatus()));
+        } catch (RuntimeException | IOException resolveEx) {
+            observation.lowCardinalityKeyValue(OUTCOME, FAILURE).error(resolveEx);
+            throw resolveEx;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private void write(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Exception ex,
+            HttpStatus status
+    ) throws IOException {
+        if (response.isCommitted()) {
+            return;
         }
+        // JWT exceptions wrap the parser exception describing the token
+        String message = ex instanceof JwtSecurityException && ex.getCause() != null
+                ? ex.getCause().getMessage()
+                : ex.getMessage();
+        errorWriter.write(request, response, status, message, ex);
     }
 
     private void logException(String message, Exception ex) {
@@ -0,0 +1,93 @@
+package xyz.catuns.spring.jwt.security.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import xyz.catuns.spring.jwt.core.throttle.LoginThrottle;
+import xyz.catuns.spring.jwt.core.util.BasicCredentials;
+import xyz.catuns.spring.jwt.security.exception.handler.JwtErrorResponseWriter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.Function;
+
+import static xyz.catuns.spring.jwt.core.throttle.LoginThrottle.THROTTLED_MESSAGE;
+import static xyz.catuns.spring.jwt.core.throttle.LoginThrottle.retryAfterSeconds;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.AUTHORIZATION_KEY;
+
+/**
+ * JWT Login Throttle Filter
+ *
+ * Takes a {@link LoginThrottle} permit for every request carrying HTTP basic credentials,
+ * keyed by the username and the client address. Throttled requests are answered with
+ * 429 and a {@code Retry-After} header before the user is loaded or the password hashed.
+ *
+ * The client address defaults to {@link HttpServletRequest#getRemoteAddr()}. Behind a
+ * proxy or load balancer that is the proxy's address, so all clients share one bucket
+ * unless the container resolves forwarded headers, e.g. with
+ * {@code server.forward-headers-strategy} or a ForwardedHeaderFilter, or a
+ * {@link #setClientAddressResolver(Function) resolver} is set.
+ *
+ * Must be placed before BasicAuthenticationFilter.
+ */
+@Slf4j
+public class JwtLoginThrottleFilter extends OncePerRequestFilter {
+
+    private final LoginThrottle loginThrottle;
+
+    /**
+     * Set custom header name for the credentials
+     * Default: "Authorization"
+     */
+    @Setter
+    private String headerName = AUTHORIZATION_KEY;
+    /**
+     * Set to write the 429 body with shared settings
+     * Default: writer with default settings
+     */
+    @Setter
+    private JwtErrorResponseWriter errorWriter = new JwtErrorResponseWriter();
+    /**
+     * Set to key throttling by another client address, e.g. one taken from trusted proxy headers
+     * Default: the remote address of the request
+     */
+    @Setter
+    private Function<HttpServletRequest, String> clientAddressResolver = HttpServletRequest::getRemoteAddr;
+
+    public JwtLoginThrottleFilter(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String address = clientAddressResolver.apply(request);
+        Duration retryAfter = loginThrottle.check(BasicCredentials.username(request.getHeader(headerName)), address);
+        if (retryAfter.isZero()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        log.debug("Login attempt from {} throttled for {}", address, retryAfter);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds(retryAfter));
+        errorWriter.write(request, response, HttpStatus.TOO_MANY_REQUESTS, THROTTLED_MESSAGE, null);
+    }
+
+    /**
+     * Only requests with HTTP basic credentials are login attempts
+     */
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !BasicCredentials.isBasic(request.getHeader(headerName));
+    }
+}
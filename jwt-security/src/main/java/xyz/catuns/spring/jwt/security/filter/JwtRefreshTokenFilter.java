@@ -0,0 +1,154 @@
+package xyz.catuns.spring.jwt.security.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.filter.OncePerRequestFilter;
+import xyz.catuns.spring.jwt.core.RefreshTokenProvider;
+import xyz.catuns.spring.jwt.core.TokenProvider;
+import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
+import xyz.catuns.spring.jwt.core.model.JwtToken;
+import xyz.catuns.spring.jwt.core.model.TokenPair;
+import xyz.catuns.spring.jwt.security.exception.JwtSecurityException;
+
+import java.io.IOException;
+
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.AUTHORIZATION_KEY;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.BEARER_TOKEN_PREFIX;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.REFRESH_PATH;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.REFRESH_TOKEN_EXPIRATION_KEY;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.REFRESH_TOKEN_KEY;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.TOKEN_EXPIRATION_KEY;
+
+/**
+ * JWT Refresh Token Filter
+ *
+ * Serves {@code POST /auth/refresh}: consumes the refresh token from the
+ * {@code X-Refresh-Token} header and answers with a new access token and a new
+ * refresh token. The user is reloaded for its current authorities, but the password
+ * is not verified again.
+ *
+ * Must be placed before the validator filter, the request may carry an expired access token.
+ */
+@Slf4j
+public class JwtRefreshTokenFilter extends OncePerRequestFilter {
+
+    private final TokenProvider<Authentication> tokenProvider;
+    private final RefreshTokenProvider refreshTokenProvider;
+    private final UserDetailsService userDetailsService;
+
+    /**
+     * Set custom refresh endpoint path
+     * Default: "/auth/refresh"
+     */
+    @Setter
+    private String refreshPath = REFRESH_PATH;
+    /**
+     * Set custom header name for the refresh token
+     * Default: "X-Refresh-Token"
+     */
+    @Setter
+    private String refreshHeaderName = REFRESH_TOKEN_KEY;
+    /**
+     * Set custom header name for refresh token expiration
+     * Default: "x-refresh-token-expiration"
+     */
+    @Setter
+    private String refreshExpirationHeaderName = REFRESH_TOKEN_EXPIRATION_KEY;
+    /**
+     * Set custom header name for JWT token
+     * Default: "Authorization"
+     */
+    @Setter
+    private String tokenHeaderName = AUTHORIZATION_KEY;
+    /**
+     * Set custom header name for token expiration
+     * Default: "x-token-expiration"
+     */
+    @Setter
+    private String expirationHeaderName = TOKEN_EXPIRATION_KEY;
+    /**
+     * Set custom token prefix
+     * Default: "Bearer "
+     */
+    @Setter
+    private String tokenPrefix = BEARER_TOKEN_PREFIX;
+
+    public JwtRefreshTokenFilter(
+            TokenProvider<Authentication> tokenProvider,
+            RefreshTokenProvider refreshTokenProvider,
+            UserDetailsService userDetailsService
+    ) {
+        this.tokenProvider = tokenProvider;
+        this.refreshTokenProvider = refreshTokenProvider;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        TokenPair tokens;
+        try {
+            tokens = refresh(request.getHeader(refreshHeaderName));
+        } catch (TokenValidationException exception) {
+            throw new JwtSecurityException(exception);
+        }
+
+        response.setHeader(tokenHeaderName, tokenPrefix + tokens.accessToken().value());
+        response.setHeader(expirationHeaderName, tokens.accessToken().expiration().toString());
+        response.setHeader(refreshHeaderName, tokens.refreshToken().value());
+        response.setHeader(refreshExpirationHeaderName, tokens.refreshToken().expiration().toString());
+        response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
+    /**
+     * Consumes the refresh token and issues a new token pair
+     *
+     * @param refreshToken refresh token value
+     * @return new access and refresh token
+     * @throws TokenValidationException if the refresh token is rejected or the user is disabled
+     */
+    protected TokenPair refresh(String refreshToken) throws TokenValidationException {
+        String identifier = refreshTokenProvider.consume(refreshToken);
+        UserDetails user = userDetailsService.loadUserByUsername(identifier);
+        if (!user.isEnabled() || !user.isAccountNonLocked() || !user.isAccountNonExpired()) {
+            refreshTokenProvider.revokeAll(identifier);
+            throw new TokenValidationException("User " + identifier + " may not refresh tokens");
+        }
+
+        Authentication authentication =
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+        JwtToken accessToken = tokenProvider.generate(authentication);
+        JwtToken nextRefreshToken = refreshTokenProvider.issue(identifier);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Refreshed JWT token for user: {}", identifier);
+        }
+        return new TokenPair(accessToken, nextRefreshToken);
+    }
+
+    /**
+     * Only handle POST requests to the refresh path
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !refreshPath.equals(path);
+    }
+}
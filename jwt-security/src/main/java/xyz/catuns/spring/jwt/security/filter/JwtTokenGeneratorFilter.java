@@ -1,5 +1,7 @@
 package xyz.catuns.spring.jwt.security.filter;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,15 +13,22 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 import xyz.catuns.spring.jwt.core.model.JwtToken;
+import xyz.catuns.spring.jwt.core.RefreshTokenProvider;
 import xyz.catuns.spring.jwt.core.TokenProvider;
 
 import java.io.IOException;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
 import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.AUTHORIZATION_KEY;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.LOGIN_PATHS;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.REFRESH_TOKEN_EXPIRATION_KEY;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.REFRESH_TOKEN_KEY;
 import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.TOKEN_EXPIRATION_KEY;
 import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.BEARER_TOKEN_PREFIX;
+import static xyz.catuns.spring.jwt.security.filter.JwtTokenValidatorFilter.TOKEN_AUTHENTICATED_ATTRIBUTE;
+import static xyz.catuns.spring.jwt.security.observation.JwtFilterObservations.*;
 
 /**
  * JWT Token Generator Filter
@@ -50,9 +59,15 @@ public class JwtTokenGeneratorFilter extends OncePerRequestFilter {
      */
     @Setter
     private String tokenPrefix = BEARER_TOKEN_PREFIX;
+    /**
+     * Set the paths of the login endpoints, matched exactly without the context path
+     * Default: "/login", "/auth/login"
+     */
+    @Setter
+    private Set<String> loginPaths = LOGIN_PATHS;
     /**
      * Set custom predicate to determine if request requires token generation
-     * Default: generates for authenticated requests without existing token
+     * Default: generates for requests to the login paths
      */
     @Setter
     private Predicate<HttpServletRequest> requiresGeneration = this::defaultRequiresGeneration;
@@ -61,6 +76,30 @@ public class JwtTokenGeneratorFilter extends OncePerRequestFilter {
      */
     @Setter
     private BiConsumer<HttpServletResponse, JwtToken> tokenWriter = this::defaultTokenWriter;
+    /**
+     * Set to also issue a refresh token
+     * Default: none
+     */
+    @Setter
+    private RefreshTokenProvider refreshTokenProvider;
+    /**
+     * Set custom header name for the refresh token
+     * Default: "X-Refresh-Token"
+     */
+    @Setter
+    private String refreshHeaderName = REFRESH_TOKEN_KEY;
+    /**
+     * Set custom header name for refresh token expiration
+     * Default: "x-refresh-token-expiration"
+     */
+    @Setter
+    private String refreshExpirationHeaderName = REFRESH_TOKEN_EXPIRATION_KEY;
+    /**
+     * Set to observe token issue as {@code jwt.token.generation}
+     * Default: no-op
+     */
+    @Setter
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
 
 
     public JwtTokenGeneratorFilter(TokenProvider<Authentication> tokenProvider) {
@@ -78,30 +117,51 @@ public class JwtTokenGeneratorFilter extends OncePerRequestFilter {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         if (authentication != null && requiresGeneration.test(request)) {
-            try {
+            Observation observation = Observation.start(TOKEN_GENERATION, observationRegistry);
+            try (Observation.Scope ignored = observation.openScope()) {
                 JwtToken jwtToken = tokenProvider.generate(authentication);
                 tokenWriter.accept(response, jwtToken);
+                if (refreshTokenProvider != null && isCredentialLogin(request)) {
+                    JwtToken refreshToken = refreshTokenProvider.issue(authentication.getName());
+                    response.setHeader(refreshHeaderName, refreshToken.value());
+                    response.setHeader(refreshExpirationHeaderName, refreshToken.expiration().toString());
+                }
 
                 if (log.isDebugEnabled()) {
                     log.debug("Generated JWT token for user: {}", authentication.getName());
                 }
+                observation.lowCardinalityKeyValue(OUTCOME, SUCCESS);
             } catch (Exception ex) {
                 log.error("Failed to generate JWT token", ex);
+                observation.lowCardinalityKeyValue(OUTCOME, FAILURE).error(ex);
                 // Continue filter chain even if token generation fails
+            } finally {
+                observation.stop();
             }
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Refresh tokens are only issued when the user logged in with credentials on a
+     * login path, never for an authentication restored from a bearer token
+     */
+    protected boolean isCredentialLogin(HttpServletRequest request) {
+        return request.getAttribute(TOKEN_AUTHENTICATED_ATTRIBUTE) == null && isLoginPath(request);
+    }
+
     /**
      * Default logic to determine if request requires token generation
-     * Generate token if authenticated and no token already in response
+     * Only generate for the login endpoints
      */
     private boolean defaultRequiresGeneration(HttpServletRequest request) {
-        // Only generate for specific paths (e.g., login endpoint)
-        String requestURI = request.getRequestURI();
-        return requestURI.contains("/login") || requestURI.contains("/auth");
+        return isLoginPath(request);
+    }
+
+    private boolean isLoginPath(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return loginPaths.contains(path);
     }
 
     /**
@@ -1,6 +1,9 @@
 package xyz.catuns.spring.jwt.security.filter;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,6 +17,16 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import xyz.catuns.spring.jwt.core.TokenProvider;
+import xyz.catuns.spring.jwt.core.exception.TokenRevokedException;
+import xyz.catuns.spring.jwt.core.exception.TokenScreeningException;
+import xyz.catuns.spring.jwt.core.exception.TokenValidationException;
+import xyz.catuns.spring.jwt.core.model.ParsedToken;
+import xyz.catuns.spring.jwt.core.model.ValidationStage;
+import xyz.catuns.spring.jwt.core.revocation.TokenRevocationStore;
+import xyz.catuns.spring.jwt.core.screening.ScreeningFailure;
+import xyz.catuns.spring.jwt.core.screening.TokenScreener;
+import xyz.catuns.spring.jwt.core.util.BasicCredentials;
+import xyz.catuns.spring.jwt.core.validator.TokenValidationListener;
 import xyz.catuns.spring.jwt.security.exception.JwtSecurityException;
 import xyz.catuns.spring.jwt.security.exception.TokenExpiredException;
 
@@ -22,11 +35,19 @@ import java.util.function.Predicate;
 
 import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.AUTHORIZATION_KEY;
 import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.BEARER_TOKEN_PREFIX;
+import static xyz.catuns.spring.jwt.security.observation.JwtFilterObservations.*;
 
 @Slf4j
 @RequiredArgsConstructor
 public class JwtTokenValidatorFilter extends OncePerRequestFilter {
 
+    /**
+     * Request attribute set when the authentication came from a bearer token,
+     * so that later filters can tell it apart from a credential login
+     */
+    public static final String TOKEN_AUTHENTICATED_ATTRIBUTE =
+            JwtTokenValidatorFilter.class.getName() + ".TOKEN_AUTHENTICATED";
+
     private final TokenProvider<Authentication> tokenProvider;
 
     /**
@@ -46,10 +67,38 @@ public class JwtTokenValidatorFilter extends OncePerRequestFilter {
     /**
      *
      *  Set custom predicate to determine if request requires validation
-     *  Default: validates all requests with JWT token present
+     *  Default: validates all requests with JWT token present, leaving HTTP basic credentials alone
      */
     @Setter
     private Predicate<HttpServletRequest> requiresValidation = this::defaultRequiresValidation;
+    /**
+     *
+     *  Set to reject revoked tokens by their {@code jti} claim
+     *  Default: none
+     */
+    @Setter
+    private TokenRevocationStore revocationStore;
+    /**
+     *
+     *  Set to reject malformed, expired or foreign tokens before verifying their signature
+     *  Default: none
+     */
+    @Setter
+    private TokenScreener tokenScreener;
+    /**
+     *
+     *  Set to observe token validation as {@code jwt.token.validation}
+     *  Default: no-op
+     */
+    @Setter
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+    /**
+     *
+     *  Set to be notified of the screen, parse and revocation stages of each token
+     *  Default: no-op
+     */
+    @Setter
+    private TokenValidationListener validationListener = TokenValidationListener.NOOP;
 
 
     @Override
@@ -64,30 +113,115 @@ public class JwtTokenValidatorFilter extends OncePerRequestFilter {
             return;
         }
 
-        try {
+        Observation observation = Observation.start(TOKEN_VALIDATION, observationRegistry);
+        try (Observation.Scope ignored = observation.openScope()) {
             String token = extractToken(request);
 
             if (token != null) {
-                Authentication authentication = tokenProvider.validate(token);
+                Authentication authentication = authenticate(token);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                request.setAttribute(TOKEN_AUTHENTICATED_ATTRIBUTE, Boolean.TRUE);
 
                 if (log.isDebugEnabled()) {
                     log.debug("Set authentication for user: {}", authentication.getName());
                 }
             }
-
-            Authentication authentication = tokenProvider.validate(token);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+            observation.lowCardinalityKeyValue(OUTCOME, SUCCESS);
         } catch (ExpiredJwtException exception) {
             log.debug("Jwt expired {}", exception.toString());
+            observation.lowCardinalityKeyValue(OUTCOME, EXPIRED).error(exception);
             throw new TokenExpiredException(exception);
+        } catch (TokenScreeningException exception) {
+            observation.lowCardinalityKeyValue(OUTCOME, outcome(exception)).error(exception);
+            // Screening rejects expired tokens before the parser would, report them alike
+            if (exception.getFailure() == ScreeningFailure.EXPIRED) {
+                throw new TokenExpiredException(exception);
+            }
+            throw new JwtSecurityException(exception);
         } catch (Exception exception) {
+            observation.lowCardinalityKeyValue(OUTCOME, outcome(exception)).error(exception);
             throw new JwtSecurityException(exception);
+        } finally {
+            observation.stop();
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Screens, verifies and checks the revocation of the token, reporting every
+     * configured stage to the {@link TokenValidationListener}
+     *
+     * @param token JWT token without prefix
+     * @return authentication of the token
+     * @throws TokenValidationException if a stage rejects the token
+     */
+    private Authentication authenticate(String token) throws TokenValidationException {
+        ValidationStage stage = ValidationStage.SCREEN;
+        long start = System.nanoTime();
+        try {
+            screen(token);
+            if (tokenScreener != null) {
+                start = passed(stage, start);
+            }
+            stage = ValidationStage.PARSE;
+            ParsedToken<Authentication> parsed = tokenProvider.parse(token);
+            start = passed(stage, start);
+            stage = ValidationStage.REVOCATION;
+            checkRevocation(parsed);
+            if (revocationStore != null) {
+                passed(stage, start);
+            }
+            return parsed.principal();
+        } catch (TokenValidationException | RuntimeException e) {
+            validationListener.rejected(stage, tokenProvider.classify(e), System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private long passed(ValidationStage stage, long start) {
+        long now = System.nanoTime();
+        validationListener.passed(stage, now - start);
+        return now;
+    }
+
+    /**
+     * Rejects tokens failing structural screening, before any signature work
+     *
+     * @param token JWT token without prefix
+     * @throws TokenScreeningException if the token is rejected
+     */
+    protected void screen(String token) throws TokenScreeningException {
+        if (tokenScreener != null) {
+            tokenScreener.check(token);
+        }
+    }
+
+    /**
+     * Rejects verified tokens whose {@code jti} has been revoked
+     *
+     * @param parsed verified token
+     * @throws TokenValidationException if the token is revoked
+     */
+    protected void checkRevocation(ParsedToken<Authentication> parsed) throws TokenValidationException {
+        if (revocationStore != null
+                && parsed.claims().get(Claims.ID) instanceof String tokenId
+                && revocationStore.isRevoked(tokenId)) {
+            throw new TokenRevokedException("Token " + tokenId + " is revoked");
+        }
+    }
+
+    private static String outcome(Exception exception) {
+        if (exception instanceof TokenRevokedException) {
+            return REVOKED;
+        }
+        if (exception instanceof TokenScreeningException screening
+                && screening.getFailure() == ScreeningFailure.EXPIRED) {
+            return EXPIRED;
+        }
+        return INVALID;
+    }
+
     /**
      * Extract JWT token from request header
      *
@@ -110,11 +244,12 @@ public class JwtTokenValidatorFilter extends OncePerRequestFilter {
 
     /**
      * Default logic to determine if request requires validation
-     * Only validate if JWT token is present in header
+     * Only validate if JWT token is present in header, HTTP basic credentials are
+     * authenticated by the basic authentication filter
      */
     private boolean defaultRequiresValidation(HttpServletRequest request) {
         String header = request.getHeader(headerName);
-        return StringUtils.hasText(header);
+        return StringUtils.hasText(header) && !BasicCredentials.isBasic(header);
     }
 
     /**
@@ -0,0 +1,38 @@
+package xyz.catuns.spring.jwt.security.observation;
+
+/**
+ * Observation names and key names of the JWT filters
+ * <p>
+ * Every observation carries an {@value #OUTCOME} low cardinality key. Filters start their
+ * observations on {@code ObservationRegistry.NOOP} unless a registry is set, which returns
+ * the no-op observation and skips tagging, as does a registry whose predicates decline
+ * the observation.
+ */
+public final class JwtFilterObservations {
+
+    /**
+     * Token verification and revocation check of {@code JwtTokenValidatorFilter}
+     */
+    public static final String TOKEN_VALIDATION = "jwt.token.validation";
+    /**
+     * Token issue of {@code JwtTokenGeneratorFilter}
+     */
+    public static final String TOKEN_GENERATION = "jwt.token.generation";
+    /**
+     * Exception resolution of {@code JwtExceptionHandlerFilter}
+     */
+    public static final String EXCEPTION_HANDLING = "jwt.exception.handling";
+
+    public static final String OUTCOME = "outcome";
+    public static final String EXCEPTION = "exception";
+    public static final String STATUS = "status";
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+    public static final String EXPIRED = "expired";
+    public static final String REVOKED = "revoked";
+    public static final String INVALID = "invalid";
+
+    private JwtFilterObservations() {
+    }
+}
@@ -2,10 +2,17 @@ package xyz.catuns.spring.jwt.security.properties;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import xyz.catuns.spring.jwt.core.screening.TokenScreener;
+
+import java.time.Duration;
 
 import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.AUTHORIZATION_KEY;
 import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.TOKEN_EXPIRATION_KEY;
 import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.BEARER_TOKEN_PREFIX;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.LOGIN_PATHS;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.REFRESH_PATH;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.REFRESH_TOKEN_EXPIRATION_KEY;
+import static xyz.catuns.spring.jwt.security.configurer.JwtFilterConfigurer.REFRESH_TOKEN_KEY;
 
 
 /**
@@ -59,6 +66,26 @@ public class JwtSecurityProperties {
      */
     private GenerationConfig generation = new GenerationConfig();
 
+    /**
+     * Refresh token configuration
+     */
+    private RefreshConfig refresh = new RefreshConfig();
+
+    /**
+     * Structural token screening before signature verification
+     */
+    private ScreeningConfig screening = new ScreeningConfig();
+
+    /**
+     * HTTP basic login configuration
+     */
+    private HttpBasicConfig httpBasic = new HttpBasicConfig();
+
+    /**
+     * HTTP basic login throttling configuration
+     */
+    private LoginThrottleConfig loginThrottle = new LoginThrottleConfig();
+
     @Data
     public static class FilterConfig {
         private boolean validator = true;
@@ -112,6 +139,12 @@ public class JwtSecurityProperties {
          * Include request path in error response
          */
         private boolean includePath = true;
+
+        /**
+         * Write 401 and 403 responses of the exception handler filter directly, without the
+         * HandlerExceptionResolver chain (and its @ControllerAdvice handlers)
+         */
+        private boolean directWrite = false;
     }
 
 
@@ -144,5 +177,105 @@ public class JwtSecurityProperties {
          * Header name for token expiration
          */
         private String expirationHeaderName = TOKEN_EXPIRATION_KEY;
+
+        /**
+         * Login endpoint paths, matched exactly, receiving tokens after a credential login
+         */
+        private String[] loginPaths = LOGIN_PATHS.toArray(String[]::new);
+    }
+
+    @Data
+    public static class RefreshConfig {
+        /**
+         * Issue refresh tokens at login and serve the refresh endpoint
+         */
+        private boolean enabled = false;
+
+        /**
+         * Refresh endpoint path
+         */
+        private String path = REFRESH_PATH;
+
+        /**
+         * Header name carrying the refresh token
+         */
+        private String headerName = REFRESH_TOKEN_KEY;
+
+        /**
+         * Header name for refresh token expiration
+         */
+        private String expirationHeaderName = REFRESH_TOKEN_EXPIRATION_KEY;
+    }
+
+    @Data
+    public static class ScreeningConfig {
+        /**
+         * Reject malformed, expired or foreign tokens before verifying their signature
+         */
+        private boolean enabled = true;
+
+        /**
+         * Longest accepted token, in characters
+         */
+        private int maxLength = TokenScreener.DEFAULT_MAX_LENGTH;
+
+        /**
+         * Accepted alg header values, any algorithm but "none" when empty
+         */
+        private String[] algorithms = {};
+
+        /**
+         * Accepted kid header values, not checked when empty
+         */
+        private String[] keyIds = {};
+
+        /**
+         * Accepted iss claims, not checked when empty
+         */
+        private String[] issuers = {};
+    }
+
+    @Data
+    public static class HttpBasicConfig {
+        /**
+         * Authenticate HTTP basic credentials on the default filter chain, the generator
+         * filter issues a token for them on the login paths
+         */
+        private boolean enabled = false;
+    }
+
+    @Data
+    public static class LoginThrottleConfig {
+        /**
+         * Throttle HTTP basic logins before the user is loaded and the password hashed.
+         * Client addresses are remote addresses, behind a proxy resolve forwarded headers first
+         */
+        private boolean enabled = false;
+
+        /**
+         * Login attempts an account may make in a burst
+         */
+        private int accountCapacity = 10;
+
+        /**
+         * Time in which an account regains one attempt
+         */
+        private Duration accountRefillPeriod = Duration.ofSeconds(6);
+
+        /**
+         * Login attempts a client address may make in a burst
+         */
+        private int addressCapacity = 100;
+
+        /**
+         * Time in which a client address regains one attempt
+         */
+        private Duration addressRefillPeriod = Duration.ofMillis(100);
+
+        /**
+         * Accounts and addresses tracked each. Idle ones are dropped for new ones, while
+         * all are active new accounts and addresses are throttled
+         */
+        private int maxKeys = 100_000;
     }
-}
\ No newline at end of file
+}
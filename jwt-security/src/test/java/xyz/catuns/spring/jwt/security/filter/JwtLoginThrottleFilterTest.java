@@ -0,0 +1,49 @@
+package xyz.catuns.spring.jwt.security.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import xyz.catuns.spring.jwt.core.throttle.KeyedRateLimiter;
+import xyz.catuns.spring.jwt.core.throttle.LoginThrottle;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtLoginThrottleFilterTest {
+
+    private static final String PROXY = "10.0.0.1";
+
+    private final JwtLoginThrottleFilter filter = new JwtLoginThrottleFilter(new LoginThrottle(
+            new KeyedRateLimiter(100, Duration.ofMinutes(1), 1_000),
+            new KeyedRateLimiter(1, Duration.ofMinutes(1), 1_000)));
+
+    @Test
+    void clientsBehindAProxyShareTheRemoteAddressBucket() throws Exception {
+        assertThat(login("alice", "203.0.113.1")).isEqualTo(200);
+        assertThat(login("bob", "203.0.113.2")).isEqualTo(429);
+    }
+
+    @Test
+    void resolvedClientAddressesGetTheirOwnBuckets() throws Exception {
+        filter.setClientAddressResolver(request -> request.getHeader("X-Forwarded-For"));
+
+        assertThat(login("alice", "203.0.113.1")).isEqualTo(200);
+        assertThat(login("bob", "203.0.113.2")).isEqualTo(200);
+        assertThat(login("carol", "203.0.113.1")).isEqualTo(429);
+    }
+
+    private int login(String username, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setRemoteAddr(PROXY);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        request.addHeader("Authorization", "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":secret").getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,118 @@
+package xyz.catuns.spring.jwt.security.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import xyz.catuns.spring.jwt.auth.AuthTokenProvider;
+import xyz.catuns.spring.jwt.auth.metrics.MeteredTokenProvider;
+import xyz.catuns.spring.jwt.auth.metrics.MeteredTokenValidationListener;
+import xyz.catuns.spring.jwt.core.exception.MissingSecretException;
+import xyz.catuns.spring.jwt.core.revocation.InMemoryTokenRevocationStore;
+import xyz.catuns.spring.jwt.core.screening.TokenScreener;
+import xyz.catuns.spring.jwt.core.util.TokenIds;
+import xyz.catuns.spring.jwt.security.exception.JwtSecurityException;
+import xyz.catuns.spring.jwt.security.exception.TokenExpiredException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static xyz.catuns.spring.jwt.auth.metrics.MeteredTokenValidationListener.STAGES_TIMER;
+
+class JwtTokenValidatorFilterMetricsTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final Authentication user = new UsernamePasswordAuthenticationToken(
+            "user@catuns.xyz", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+    private MeterRegistry registry;
+    private AuthTokenProvider tokenProvider;
+    private InMemoryTokenRevocationStore revocationStore;
+    private JwtTokenValidatorFilter filter;
+
+    @BeforeEach
+    void setUp() throws MissingSecretException {
+        registry = new SimpleMeterRegistry();
+        tokenProvider = new AuthTokenProvider(SECRET, "catuns", Duration.ofMinutes(5));
+        tokenProvider.setTokenIdGenerator(TokenIds::random);
+        revocationStore = new InMemoryTokenRevocationStore();
+        filter = new JwtTokenValidatorFilter(new MeteredTokenProvider<>(tokenProvider, registry));
+        filter.setTokenScreener(new TokenScreener());
+        filter.setRevocationStore(revocationStore);
+        filter.setValidationListener(new MeteredTokenValidationListener(registry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        revocationStore.close();
+    }
+
+    @Test
+    void validTokenPassesEveryStage() throws Exception {
+        doFilter(tokenProvider.generate(user).value());
+
+        assertThat(stage("screen", "success")).isEqualTo(1);
+        assertThat(stage("parse", "success")).isEqualTo(1);
+        assertThat(stage("revocation", "success")).isEqualTo(1);
+    }
+
+    @Test
+    void revokedTokenIsCountedAsRevoked() throws Exception {
+        String token = tokenProvider.generate(user).value();
+        revocationStore.revoke(tokenProvider.parse(token).claims().get("jti").toString(),
+                Instant.now().plusSeconds(60));
+
+        assertThatThrownBy(() -> doFilter(token)).isInstanceOf(JwtSecurityException.class);
+        assertThat(stage("parse", "success")).isEqualTo(1);
+        assertThat(stage("revocation", "revoked")).isEqualTo(1);
+        assertThat(stage("revocation", "success")).isZero();
+    }
+
+    @Test
+    void tokenScreenedAsExpiredIsCountedAtTheScreen() throws MissingSecretException {
+        AuthTokenProvider expiredProvider = new AuthTokenProvider(SECRET, "catuns", Duration.ofMinutes(-5));
+        String token = expiredProvider.generate(user).value();
+
+        assertThatThrownBy(() -> doFilter(token)).isInstanceOf(TokenExpiredException.class);
+        assertThat(stage("screen", "expired")).isEqualTo(1);
+        assertThat(stage("parse", "success")).isZero();
+        assertThat(registry.get(MeteredTokenProvider.VALIDATIONS_COUNTER).counters())
+                .allSatisfy(counter -> assertThat(counter.count()).isZero());
+    }
+
+    @Test
+    void tamperedTokenIsCountedAtTheParse() throws Exception {
+        String token = tokenProvider.generate(user).value();
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        assertThatThrownBy(() -> doFilter(tampered)).isInstanceOf(JwtSecurityException.class);
+        assertThat(stage("screen", "success")).isEqualTo(1);
+        assertThat(stage("parse", "invalid_signature")).isEqualTo(1);
+    }
+
+    private long stage(String stage, String outcome) {
+        return registry.get(STAGES_TIMER)
+                .tag(MeteredTokenValidationListener.STAGE_TAG, stage)
+                .tag(MeteredTokenProvider.OUTCOME_TAG, outcome)
+                .timer()
+                .count();
+    }
+
+    private void doFilter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
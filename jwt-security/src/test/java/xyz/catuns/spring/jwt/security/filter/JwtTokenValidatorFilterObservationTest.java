@@ -0,0 +1,159 @@
+package xyz.catuns.spring.jwt.security.filter;
+
+import io.micrometer.observation.tck.TestObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import xyz.catuns.spring.jwt.auth.AuthTokenProvider;
+import xyz.catuns.spring.jwt.core.exception.MissingSecretException;
+import xyz.catuns.spring.jwt.core.exception.TokenScreeningException;
+import xyz.catuns.spring.jwt.core.revocation.InMemoryTokenRevocationStore;
+import xyz.catuns.spring.jwt.core.screening.TokenScreener;
+import xyz.catuns.spring.jwt.core.util.TokenIds;
+import xyz.catuns.spring.jwt.security.exception.JwtSecurityException;
+import xyz.catuns.spring.jwt.security.exception.TokenExpiredException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static io.micrometer.observation.tck.TestObservationRegistryAssert.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static xyz.catuns.spring.jwt.security.observation.JwtFilterObservations.*;
+
+class JwtTokenValidatorFilterObservationTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final Authentication user = new UsernamePasswordAuthenticationToken(
+            "user@catuns.xyz", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+    private TestObservationRegistry registry;
+    private AuthTokenProvider tokenProvider;
+    private JwtTokenValidatorFilter filter;
+
+    @BeforeEach
+    void setUp() throws MissingSecretException {
+        registry = TestObservationRegistry.create();
+        tokenProvider = new AuthTokenProvider(SECRET, "catuns", Duration.ofMinutes(5));
+        filter = new JwtTokenValidatorFilter(tokenProvider);
+        filter.setObservationRegistry(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokenIsObservedAsSuccess() throws Exception {
+        doFilter(tokenProvider.generate(user).value());
+
+        assertThat(registry)
+                .hasNumberOfObservationsEqualTo(1)
+                .hasSingleObservationThat()
+                .hasNameEqualTo(TOKEN_VALIDATION)
+                .hasLowCardinalityKeyValue(OUTCOME, SUCCESS)
+                .doesNotHaveError()
+                .hasBeenStopped();
+    }
+
+    @Test
+    void expiredTokenIsObservedAsExpired() throws MissingSecretException {
+        AuthTokenProvider expiredProvider = new AuthTokenProvider(SECRET, "catuns", Duration.ofMinutes(-5));
+        String token = expiredProvider.generate(user).value();
+
+        assertThatThrownBy(() -> doFilter(token)).isInstanceOf(TokenExpiredException.class);
+        assertThat(registry)
+                .hasSingleObservationThat()
+                .hasNameEqualTo(TOKEN_VALIDATION)
+                .hasLowCardinalityKeyValue(OUTCOME, EXPIRED)
+                .hasError()
+                .hasBeenStopped();
+    }
+
+    @Test
+    void tokenScreenedAsExpiredIsReportedAsExpired() throws MissingSecretException {
+        AuthTokenProvider expiredProvider = new AuthTokenProvider(SECRET, "catuns", Duration.ofMinutes(-5));
+        String token = expiredProvider.generate(user).value();
+        filter.setTokenScreener(new TokenScreener());
+
+        assertThatThrownBy(() -> doFilter(token))
+                .isInstanceOf(TokenExpiredException.class)
+                .hasCauseInstanceOf(TokenScreeningException.class);
+        assertThat(registry)
+                .hasSingleObservationThat()
+                .hasLowCardinalityKeyValue(OUTCOME, EXPIRED)
+                .hasError()
+                .hasBeenStopped();
+    }
+
+    @Test
+    void screeningAllowsTheClockSkewOfTheParser() throws Throwable {
+        AuthTokenProvider expiredProvider = new AuthTokenProvider(SECRET, "catuns", Duration.ofMinutes(-1));
+        String token = expiredProvider.generate(user).value();
+        tokenProvider.setAllowedClockSkew(Duration.ofMinutes(2));
+        filter.setTokenScreener(new TokenScreener(TokenScreener.DEFAULT_MAX_LENGTH,
+                List.of(), List.of(), List.of(), tokenProvider.getAllowedClockSkew()));
+
+        doFilter(token);
+
+        assertThat(registry)
+                .hasSingleObservationThat()
+                .hasLowCardinalityKeyValue(OUTCOME, SUCCESS)
+                .doesNotHaveError();
+    }
+
+    @Test
+    void tamperedTokenIsObservedAsInvalid() throws Exception {
+        String token = tokenProvider.generate(user).value();
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        assertThatThrownBy(() -> doFilter(tampered)).isInstanceOf(JwtSecurityException.class);
+        assertThat(registry)
+                .hasSingleObservationThat()
+                .hasNameEqualTo(TOKEN_VALIDATION)
+                .hasLowCardinalityKeyValue(OUTCOME, INVALID)
+                .hasError()
+                .hasBeenStopped();
+    }
+
+    @Test
+    void revokedTokenIsObservedAsRevoked() throws Exception {
+        tokenProvider.setTokenIdGenerator(TokenIds::random);
+        String token = tokenProvider.generate(user).value();
+        try (InMemoryTokenRevocationStore store = new InMemoryTokenRevocationStore()) {
+            store.revoke(tokenProvider.parse(token).claims().get("jti").toString(), Instant.now().plusSeconds(60));
+            filter.setRevocationStore(store);
+
+            assertThatThrownBy(() -> doFilter(token)).isInstanceOf(JwtSecurityException.class);
+        }
+        assertThat(registry)
+                .hasSingleObservationThat()
+                .hasNameEqualTo(TOKEN_VALIDATION)
+                .hasLowCardinalityKeyValue(OUTCOME, REVOKED)
+                .hasError()
+                .hasBeenStopped();
+    }
+
+    @Test
+    void requestWithoutTokenIsNotObserved() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/resource"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(registry).doesNotHaveAnyObservation();
+    }
+
+    private void doFilter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
@@ -0,0 +1,60 @@
+package xyz.catuns.spring.jwt.security.filter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import xyz.catuns.spring.jwt.auth.AuthTokenProvider;
+import xyz.catuns.spring.jwt.core.exception.MissingSecretException;
+import xyz.catuns.spring.jwt.security.exception.JwtSecurityException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenValidatorFilterTest {
+
+    private final JwtTokenValidatorFilter filter;
+
+    JwtTokenValidatorFilterTest() throws MissingSecretException {
+        filter = new JwtTokenValidatorFilter(
+                new AuthTokenProvider("0123456789abcdef0123456789abcdef", "catuns", Duration.ofMinutes(5)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void basicCredentialsAreLeftToHttpBasic() throws Exception {
+        MockFilterChain chain = doFilter("Basic YWxpY2U6c2VjcmV0");
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void lowerCaseBasicSchemeIsLeftToHttpBasic() throws Exception {
+        MockFilterChain chain = doFilter("basic YWxpY2U6c2VjcmV0");
+
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void otherHeadersAreValidatedAsTokens() {
+        assertThatThrownBy(() -> doFilter("Bearer not-a-token")).isInstanceOf(JwtSecurityException.class);
+        assertThatThrownBy(() -> doFilter("Digest username=alice")).isInstanceOf(JwtSecurityException.class);
+    }
+
+    private MockFilterChain doFilter(String header) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.addHeader("Authorization", header);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain;
+    }
+}